@@ -0,0 +1,62 @@
+package net.vanfleteren.daysie.core;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Types a few expressions one keystroke at a time, as in a search box, and reports the average time per keystroke.
+ * {@code typeIncrementally} reuses one {@link DateExpressionAutocompleter} for the whole session,
+ * {@code typeWithoutReuse} starts from a fresh one on every keystroke, which is what reusing state saves.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AutocompleteBenchmark {
+
+    private static final String[] TYPED = {
+            "last 3 days",
+            "between yesterday and next monday",
+            "day before yesterday",
+            "2026-02-14 10:30",
+            "vorige week t/m vandaag",
+    };
+    private static final int KEYSTROKES = 11 + 33 + 20 + 16 + 23;
+
+    private DateValueParser parser;
+    private String[] keystrokes;
+
+    @Setup
+    public void setUp() {
+        parser = new DateValueParser(DateValueParserBenchmark.COMBINED, DateValueParserBenchmark.FIXED_CLOCK);
+        keystrokes = Arrays.stream(TYPED)
+                .flatMap(typed -> IntStream.rangeClosed(1, typed.length()).mapToObj(i -> typed.substring(0, i)))
+                .toArray(String[]::new);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYSTROKES)
+    public int typeIncrementally() {
+        DateExpressionAutocompleter autocompleter = new DateExpressionAutocompleter(parser);
+        int completions = 0;
+        for (String prefix : keystrokes) {
+            completions += autocompleter.complete(prefix).completions().size();
+        }
+        return completions;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYSTROKES)
+    public int typeWithoutReuse() {
+        int completions = 0;
+        for (String prefix : keystrokes) {
+            completions += new DateExpressionAutocompleter(parser).complete(prefix).completions().size();
+        }
+        return completions;
+    }
+}
@@ -0,0 +1,49 @@
+package net.vanfleteren.daysie.core;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses a batch of 10,000 terms, mostly repeated like saved searches, some unique.
+ * {@code loop} calls {@code parse} for each term, the other benchmarks use the batch API.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchParseBenchmark {
+
+    private DateValueParser parser;
+    private List<String> terms;
+
+    @Setup
+    public void setUp() {
+        parser = new DateValueParser(DateValueParserBenchmark.COMBINED, DateValueParserBenchmark.FIXED_CLOCK);
+        terms = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            String[] inputs = DateValueParserBenchmark.MIXED_INPUTS;
+            terms.add(i % 10 == 0 ? "last " + i + " days" : inputs[i % inputs.length]);
+        }
+    }
+
+    @Benchmark
+    public List<Optional<DateValue>> loop() {
+        return terms.stream().map(parser::parse).toList();
+    }
+
+    @Benchmark
+    public List<Optional<DateValue>> parseAll() {
+        return parser.parseAll(terms);
+    }
+
+    @Benchmark
+    public List<Optional<DateValue>> parseAllParallelStream() {
+        return parser.parseAll(terms.parallelStream()).toList();
+    }
+}
@@ -0,0 +1,55 @@
+package net.vanfleteren.daysie.core;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.CharBuffer;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses a field out of a log line held in a char array,
+ * either by copying it into a String first or in place through the CharSequence and char[] overloads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CharSequenceBenchmark {
+
+    @Param({
+            "2026-02-15T10:30:00",
+            "last 3 days",
+    })
+    public String field;
+
+    private DateValueParser parser;
+    private char[] line;
+    private int offset;
+    private CharBuffer buffer;
+
+    @Setup
+    public void setUp() {
+        parser = new DateValueParser(DateValueParserBenchmark.COMBINED, DateValueParserBenchmark.FIXED_CLOCK);
+        String text = "level=INFO when=" + field + " user=42";
+        line = text.toCharArray();
+        offset = text.indexOf(field);
+        buffer = CharBuffer.wrap(line);
+    }
+
+    @Benchmark
+    public Optional<DateValue> substring() {
+        return parser.parse(new String(line, offset, field.length()));
+    }
+
+    @Benchmark
+    public Optional<DateValue> charArraySlice() {
+        return parser.parse(line, offset, field.length());
+    }
+
+    @Benchmark
+    public Optional<DateValue> charBufferSlice() {
+        return parser.parse(buffer.subSequence(offset, offset + field.length()));
+    }
+}
@@ -0,0 +1,67 @@
+package net.vanfleteren.daysie.core;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.StringReader;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scans about 1 MB of ticket-like text, where roughly one line in five mentions a date.
+ * {@code countLetters} reads every character once and is the floor any scanner has to pay,
+ * {@code scanCharSequence} and {@code scanReader} find all date expressions with {@link DateExpressionScanner}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateExpressionScannerBenchmark {
+
+    private static final String[] LINES = {
+            "Customer reports the export button does nothing when clicked in the admin panel.",
+            "Stack trace attached, NullPointerException in ReportService line 212, build 4711.",
+            "Could not reproduce on staging, asked the customer for browser version and steps.",
+            "Assigned to the platform team, priority raised to high after the second escalation.",
+            "Workaround shared: use the CSV download from the search results page instead.",
+            "Seen again yesterday at 14:30, and 3 times in the last 7 days according to the logs.",
+            "Fix is planned for next monday, release train of 2026-03-01.",
+    };
+
+    private DateExpressionScanner scanner;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        scanner = new DateExpressionScanner(new DateValueParser(DateValueParserBenchmark.COMBINED, DateValueParserBenchmark.FIXED_CLOCK));
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < 1_000_000) {
+            builder.append("#").append(random.nextInt(100_000)).append(' ')
+                    .append(LINES[random.nextInt(LINES.length)]).append('\n');
+        }
+        text = builder.toString();
+    }
+
+    @Benchmark
+    public long countLetters() {
+        long count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isLetter(text.charAt(i))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long scanCharSequence() {
+        return scanner.scan(text).count();
+    }
+
+    @Benchmark
+    public long scanReader() {
+        return scanner.scan(new StringReader(text)).count();
+    }
+}
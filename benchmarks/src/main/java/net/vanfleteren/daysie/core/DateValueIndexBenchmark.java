@@ -0,0 +1,80 @@
+package net.vanfleteren.daysie.core;
+
+import net.vanfleteren.daysie.index.DateValueIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Matches an event timestamp against 50,000 alerts, each a range of a few hours to a few days within one year.
+ * {@code indexMatching} queries a {@link DateValueIndex}, {@code linearScan} tests the predicate of every alert,
+ * and {@code rebuild} measures building the index again, eg when the day rolls over.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateValueIndexBenchmark {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private List<DateValue> alerts;
+    private List<Predicate<LocalDateTime>> predicates;
+    private DateValueIndex<DateValue> index;
+    private LocalDateTime[] events;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        alerts = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            LocalDateTime from = START.plusMinutes(random.nextInt(365 * 24 * 60));
+            alerts.add(new DateValue.AbsoluteRange(from, from.plusMinutes(60 + random.nextInt(3 * 24 * 60)), true, false));
+        }
+        predicates = alerts.stream().map(DateValue::toPredicate).toList();
+        index = DateValueIndex.of(alerts, alert -> alert);
+        events = new LocalDateTime[1024];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = START.plusSeconds(random.nextInt(365 * 24 * 60 * 60));
+        }
+    }
+
+    private LocalDateTime nextEvent() {
+        LocalDateTime event = events[next];
+        next = (next + 1) & (events.length - 1);
+        return event;
+    }
+
+    @Benchmark
+    public int indexMatching() {
+        int[] count = new int[1];
+        index.forEachMatching(nextEvent(), alert -> count[0]++);
+        return count[0];
+    }
+
+    @Benchmark
+    public int linearScan() {
+        LocalDateTime event = nextEvent();
+        int count = 0;
+        for (Predicate<LocalDateTime> predicate : predicates) {
+            if (predicate.test(event)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public DateValueIndex<DateValue> rebuild() {
+        return index.rebuild(alert -> alert);
+    }
+}
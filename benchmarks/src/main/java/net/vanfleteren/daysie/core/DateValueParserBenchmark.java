@@ -0,0 +1,110 @@
+package net.vanfleteren.daysie.core;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the public parse entry points over a mix of absolute, relative and range expressions.
+ * Run with {@code java -jar benchmarks/target/benchmarks.jar DateValueParserBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DateValueParserBenchmark {
+
+    static final Clock FIXED_CLOCK = Clock.fixed(Instant.parse("2026-02-14T10:00:00Z"), ZoneId.of("UTC"));
+
+    static final LanguageKeywords COMBINED = LanguageKeywords.combine(List.of(LanguageKeywords.ENGLISH, LanguageKeywords.DUTCH));
+
+    static final String[] MIXED_INPUTS = {
+            "2026-02-15",
+            "2026-02-15T10:30",
+            "2026-02",
+            "2026-W07",
+            "2026-01-01 to 2026-02-01",
+            "today",
+            "last 3 days",
+            "this month",
+            "since monday 08:00",
+            "between 5 minutes ago and now",
+            "vorige week",
+            "tussen gisteren en vandaag",
+    };
+
+    @State(Scope.Benchmark)
+    public static class SingleInput {
+        @Param({
+                "2026-02-15",
+                "2026-W07",
+                "2026-01-01 to 2026-02-01",
+                "last 3 days",
+                "between 5 minutes ago and now",
+                "vorige week",
+        })
+        public String input;
+
+        DateValueParser parser;
+        CompiledExpression compiled;
+        LocalDateTime now;
+
+        @Setup
+        public void setUp() {
+            parser = new DateValueParser(COMBINED, FIXED_CLOCK);
+            compiled = parser.compile(input).orElseThrow();
+            now = LocalDateTime.now(FIXED_CLOCK);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class MixedInput {
+        DateValueParser parser;
+        DateValueParser cachingParser;
+        int next;
+
+        @Setup
+        public void setUp() {
+            parser = new DateValueParser(COMBINED, FIXED_CLOCK);
+            cachingParser = parser.withCache(1024);
+        }
+
+        String nextInput() {
+            String term = MIXED_INPUTS[next];
+            next = (next + 1) % MIXED_INPUTS.length;
+            return term;
+        }
+    }
+
+    @Benchmark
+    public Optional<DateValue> parse(SingleInput state) {
+        return state.parser.parse(state.input);
+    }
+
+    @Benchmark
+    public DateValue parserParse(SingleInput state) {
+        return state.parser.parser().parse(state.input);
+    }
+
+    @Benchmark
+    public DateValue resolveCompiled(SingleInput state) {
+        return state.compiled.resolve(state.now);
+    }
+
+    @Benchmark
+    public Optional<DateValue> parseMixed(MixedInput state) {
+        return state.parser.parse(state.nextInput());
+    }
+
+    @Benchmark
+    public Optional<DateValue> parseMixedCached(MixedInput state) {
+        return state.cachingParser.parse(state.nextInput());
+    }
+}
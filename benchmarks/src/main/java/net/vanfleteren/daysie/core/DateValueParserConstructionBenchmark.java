@@ -0,0 +1,35 @@
+package net.vanfleteren.daysie.core;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of creating a {@link DateValueParser}. The combinator graph is built once per set of keywords and shared,
+ * so this measures the lookup of the shared grammar, or deriving a parser for another clock with {@code withClock}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateValueParserConstructionBenchmark {
+
+    private final DateValueParser parser = new DateValueParser(DateValueParserBenchmark.COMBINED, DateValueParserBenchmark.FIXED_CLOCK);
+
+    @Benchmark
+    public DateValueParser english() {
+        return new DateValueParser(LanguageKeywords.ENGLISH, DateValueParserBenchmark.FIXED_CLOCK);
+    }
+
+    @Benchmark
+    public DateValueParser englishAndDutch() {
+        return new DateValueParser(DateValueParserBenchmark.COMBINED, DateValueParserBenchmark.FIXED_CLOCK);
+    }
+
+    @Benchmark
+    public DateValueParser withClock() {
+        return parser.withClock(DateValueParserBenchmark.FIXED_CLOCK);
+    }
+}
@@ -0,0 +1,67 @@
+package net.vanfleteren.daysie.core;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves one expression against 1,000,000 sorted reference times spread over ten years, as in a backtest.
+ * {@code resolveEpochMillis} fills primitive arrays with {@link CompiledExpression#resolveEpochMillis},
+ * {@code resolveInstantEach} calls {@link CompiledExpression#resolveInstant} for every reference time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EpochMillisResolutionBenchmark {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Brussels");
+
+    @Param({
+            "last 7 days",
+            "this quarter",
+    })
+    public String input;
+
+    private CompiledExpression compiled;
+    private long[] nows;
+    private long[] from;
+    private long[] until;
+
+    @Setup
+    public void setUp() {
+        compiled = new DateValueParser(LanguageKeywords.ENGLISH, DateValueParserBenchmark.FIXED_CLOCK).compile(input).orElseThrow();
+        Random random = new Random(42);
+        long start = Instant.parse("2016-01-01T00:00:00Z").toEpochMilli();
+        long end = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+        nows = new long[1_000_000];
+        for (int i = 0; i < nows.length; i++) {
+            nows[i] = start + random.nextLong(end - start);
+        }
+        Arrays.sort(nows);
+        from = new long[nows.length];
+        until = new long[nows.length];
+    }
+
+    @Benchmark
+    public long[] resolveEpochMillis() {
+        compiled.resolveEpochMillis(nows, ZONE, from, until);
+        return until;
+    }
+
+    @Benchmark
+    public long[] resolveInstantEach() {
+        for (int i = 0; i < nows.length; i++) {
+            InstantRange range = compiled.resolveInstant(Instant.ofEpochMilli(nows[i]), ZONE);
+            from[i] = range.fromEpochMilli();
+            until[i] = range.untilEpochMilli();
+        }
+        return until;
+    }
+}
@@ -0,0 +1,70 @@
+package net.vanfleteren.daysie.core;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filters a column of 1,000,000 epoch millis against "last 3 days".
+ * {@code filter} uses the compiled {@link EpochPredicate}, {@code localDateTimeComparison} converts every value
+ * and compares it with the bounds of the DateValue, the way callers had to before.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EpochPredicateBenchmark {
+
+    private long[] epochMillis;
+    private DateValue.AbsoluteRange range;
+    private EpochPredicate predicate;
+
+    @Setup
+    public void setUp() {
+        DateValueParser parser = new DateValueParser(LanguageKeywords.ENGLISH, DateValueParserBenchmark.FIXED_CLOCK);
+        range = (DateValue.AbsoluteRange) parser.parse("last 3 days").orElseThrow();
+        predicate = range.toLongPredicate(ZoneOffset.UTC);
+
+        long now = DateValueParserBenchmark.FIXED_CLOCK.millis();
+        Random random = new Random(42);
+        epochMillis = new long[1_000_000];
+        for (int i = 0; i < epochMillis.length; i++) {
+            epochMillis[i] = now - random.nextLong(TimeUnit.DAYS.toMillis(10));
+        }
+    }
+
+    @Benchmark
+    public int[] filter() {
+        return predicate.filter(epochMillis);
+    }
+
+    @Benchmark
+    public int testEach() {
+        int count = 0;
+        for (long epochMilli : epochMillis) {
+            if (predicate.test(epochMilli)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int localDateTimeComparison() {
+        int count = 0;
+        for (long epochMilli : epochMillis) {
+            LocalDateTime t = LocalDateTime.ofEpochSecond(Math.floorDiv(epochMilli, 1000), (int) Math.floorMod(epochMilli, 1000) * 1_000_000, ZoneOffset.UTC);
+            boolean afterStart = range.fromInclusive() ? !t.isBefore(range.from()) : t.isAfter(range.from());
+            boolean beforeEnd = range.untilInclusive() ? !t.isAfter(range.until()) : t.isBefore(range.until());
+            if (afterStart && beforeEnd) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
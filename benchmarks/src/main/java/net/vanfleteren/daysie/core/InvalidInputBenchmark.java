@@ -0,0 +1,54 @@
+package net.vanfleteren.daysie.core;
+
+import org.jparsec.Parser;
+import org.jparsec.error.ParserException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares rejecting junk input with accepting valid input of similar length.
+ * {@code parse} uses the exception-free failure path, {@code parserParse} the exception thrown by jparsec.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InvalidInputBenchmark {
+
+    @Param({
+            "last 3 days",
+            "last blue moon",
+            "between 5 minutes ago and now",
+            "between lunch and dinner time",
+            "2026-02-15",
+            "2026-02-30",
+    })
+    public String input;
+
+    private DateValueParser parser;
+    private Parser<DateValue> jparsecParser;
+
+    @Setup
+    public void setUp() {
+        parser = new DateValueParser(DateValueParserBenchmark.COMBINED, DateValueParserBenchmark.FIXED_CLOCK);
+        jparsecParser = parser.parser();
+    }
+
+    @Benchmark
+    public Optional<DateValue> parse() {
+        return parser.parse(input);
+    }
+
+    @Benchmark
+    public Optional<DateValue> parserParse() {
+        try {
+            return Optional.of(jparsecParser.parse(input));
+        } catch (ParserException e) {
+            return Optional.empty();
+        }
+    }
+}
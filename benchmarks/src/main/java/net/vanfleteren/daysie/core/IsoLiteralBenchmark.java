@@ -0,0 +1,48 @@
+package net.vanfleteren.daysie.core;
+
+import org.jparsec.Parser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the hand-written ISO literal scanner with the jparsec grammar on machine-generated input.
+ * {@code parse} takes the fast path, {@code parserParse} always runs the full grammar.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IsoLiteralBenchmark {
+
+    @Param({
+            "2026-02-15",
+            "2026-02-15T10:30:00",
+            "2026-02",
+            "2026-W07",
+            "2026-02-01 to 2026-02-10",
+    })
+    public String input;
+
+    private DateValueParser parser;
+    private Parser<DateValue> jparsecParser;
+
+    @Setup
+    public void setUp() {
+        parser = new DateValueParser(DateValueParserBenchmark.COMBINED, DateValueParserBenchmark.FIXED_CLOCK);
+        jparsecParser = parser.parser();
+    }
+
+    @Benchmark
+    public Optional<DateValue> parse() {
+        return parser.parse(input);
+    }
+
+    @Benchmark
+    public DateValue parserParse() {
+        return jparsecParser.parse(input);
+    }
+}
@@ -0,0 +1,167 @@
+package net.vanfleteren.daysie.core;
+
+import org.jparsec.Parser;
+import org.jparsec.Parsers;
+import org.jparsec.Scanners;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Matches the keyword at the start of the input, if any, against the full vocabulary of 1, 2 or 6 languages.
+ * {@code alternatives} is a {@code Parsers.or} of one case-insensitive scanner per keyword, longest first,
+ * {@code trie} is the {@link KeywordTrie} the parser uses, and {@code parse} shows the effect on a whole parse.
+ * {@code parsePerLanguage} parses with a grammar per language instead of one for the combined vocabulary.
+ * <p>
+ * Only English and Dutch ship with the library, the other 4 languages are derived from them by renaming every word,
+ * which keeps the shape of the vocabulary (lengths, shared prefixes) while adding new keywords.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KeywordMatchingBenchmark {
+
+    @Param({"1", "2", "6"})
+    public int languages;
+
+    @Param({
+            "vandaag",
+            "last 3 days",
+            "day before yesterday at 10:00",
+            "tot en met",
+    })
+    public String input;
+
+    private Parser<String> alternatives;
+    private Parser<String> trie;
+    private DateValueParser parser;
+    private DateValueParser perLanguageParser;
+
+    @Setup
+    public void setUp() {
+        List<LanguageKeywords> languageList = switch (languages) {
+            case 1 -> List.of(LanguageKeywords.ENGLISH);
+            case 2 -> List.of(LanguageKeywords.ENGLISH, LanguageKeywords.DUTCH);
+            default -> List.of(
+                    LanguageKeywords.ENGLISH, LanguageKeywords.DUTCH,
+                    renamed(LanguageKeywords.ENGLISH, "a"), renamed(LanguageKeywords.DUTCH, "a"),
+                    renamed(LanguageKeywords.ENGLISH, "o"), renamed(LanguageKeywords.DUTCH, "o"));
+        };
+        LanguageKeywords keywords = LanguageKeywords.combine(languageList);
+        Set<String> vocabulary = vocabulary(keywords);
+
+        Parser<String> rest = Scanners.ANY_CHAR.skipMany().retn("");
+        alternatives = Parsers.or(vocabulary.stream()
+                        .sorted(Comparator.comparingInt(String::length).reversed())
+                        .map(KeywordMatchingBenchmark::keyword)
+                        .toList())
+                .optional(null)
+                .followedBy(rest);
+        Map<String, String> byKeyword = new LinkedHashMap<>();
+        vocabulary.forEach(keyword -> byKeyword.put(keyword, keyword));
+        trie = new KeywordTrie<>(byKeyword).toParser("keyword").optional(null).followedBy(rest);
+        parser = new DateValueParser(keywords, DateValueParserBenchmark.FIXED_CLOCK);
+        perLanguageParser = new DateValueParser(languageList, DateValueParserBenchmark.FIXED_CLOCK);
+    }
+
+    @Benchmark
+    public String alternatives() {
+        return alternatives.parse(input);
+    }
+
+    @Benchmark
+    public String trie() {
+        return trie.parse(input);
+    }
+
+    @Benchmark
+    public Optional<DateValue> parse() {
+        return parser.parse(input);
+    }
+
+    @Benchmark
+    public Optional<DateValue> parsePerLanguage() {
+        return perLanguageParser.parse(input);
+    }
+
+    /**
+     * The way keywords were matched before {@link KeywordTrie}.
+     */
+    private static Parser<String> keyword(String keyword) {
+        String[] words = keyword.split(" ");
+        Parser<?> scanner = Scanners.stringCaseInsensitive(words[0]);
+        for (int i = 1; i < words.length; i++) {
+            scanner = scanner.next(Scanners.WHITESPACES.atLeast(1)).next(Scanners.stringCaseInsensitive(words[i]));
+        }
+        return scanner.retn(keyword);
+    }
+
+    private static Set<String> vocabulary(LanguageKeywords keywords) {
+        Set<String> vocabulary = new HashSet<>();
+        List.of(keywords.untilInclusive(), keywords.untilExclusive(), keywords.fromInclusive(), keywords.fromExclusive(),
+                keywords.rangeConnectorsInclusive(), keywords.rangeConnectorsExclusive(), keywords.today(),
+                keywords.yesterday(), keywords.tomorrow(), keywords.dayBeforeYesterday(), keywords.dayAfterTomorrow(),
+                keywords.last(), keywords.next(), keywords.current(), keywords.startOf(), keywords.endOf(),
+                keywords.firstDayOf(), keywords.lastDayOf(), keywords.between(), keywords.and(), keywords.at(),
+                keywords.now(), keywords.ago(), keywords.fromNow(), keywords.am(), keywords.pm(), keywords.in(),
+                keywords.quarters(), keywords.chronoUnits().keySet(), keywords.daysOfWeek().keySet()
+        ).forEach(vocabulary::addAll);
+        return vocabulary;
+    }
+
+    /**
+     * @return the keywords with a suffix added to every word, symbols like "-" and ">=" are kept as they are
+     */
+    private static LanguageKeywords renamed(LanguageKeywords keywords, String suffix) {
+        UnaryOperator<String> word = w -> Character.isLetter(w.charAt(w.length() - 1)) ? w + suffix : w;
+        UnaryOperator<String> rename = keyword -> Stream.of(keyword.split(" ")).map(word).collect(Collectors.joining(" "));
+        UnaryOperator<Set<String>> renameAll = set -> set.stream().map(rename).collect(Collectors.toUnmodifiableSet());
+        return LanguageKeywords.builder()
+                .untilInclusive(renameAll.apply(keywords.untilInclusive()))
+                .untilExclusive(renameAll.apply(keywords.untilExclusive()))
+                .fromInclusive(renameAll.apply(keywords.fromInclusive()))
+                .fromExclusive(renameAll.apply(keywords.fromExclusive()))
+                .rangeConnectorsInclusive(renameAll.apply(keywords.rangeConnectorsInclusive()))
+                .rangeConnectorsExclusive(renameAll.apply(keywords.rangeConnectorsExclusive()))
+                .today(renameAll.apply(keywords.today()))
+                .yesterday(renameAll.apply(keywords.yesterday()))
+                .tomorrow(renameAll.apply(keywords.tomorrow()))
+                .dayBeforeYesterday(renameAll.apply(keywords.dayBeforeYesterday()))
+                .dayAfterTomorrow(renameAll.apply(keywords.dayAfterTomorrow()))
+                .last(renameAll.apply(keywords.last()))
+                .next(renameAll.apply(keywords.next()))
+                .current(renameAll.apply(keywords.current()))
+                .startOf(renameAll.apply(keywords.startOf()))
+                .endOf(renameAll.apply(keywords.endOf()))
+                .firstDayOf(renameAll.apply(keywords.firstDayOf()))
+                .lastDayOf(renameAll.apply(keywords.lastDayOf()))
+                .between(renameAll.apply(keywords.between()))
+                .and(renameAll.apply(keywords.and()))
+                .at(renameAll.apply(keywords.at()))
+                .now(renameAll.apply(keywords.now()))
+                .ago(renameAll.apply(keywords.ago()))
+                .fromNow(renameAll.apply(keywords.fromNow()))
+                .am(renameAll.apply(keywords.am()))
+                .pm(renameAll.apply(keywords.pm()))
+                .in(renameAll.apply(keywords.in()))
+                .quarters(renameAll.apply(keywords.quarters()))
+                .chronoUnits(keywords.chronoUnits().entrySet().stream()
+                        .collect(Collectors.toUnmodifiableMap(e -> rename.apply(e.getKey()), Map.Entry::getValue, (a, b) -> a)))
+                .daysOfWeek(keywords.daysOfWeek().entrySet().stream()
+                        .collect(Collectors.toUnmodifiableMap(e -> rename.apply(e.getKey()), Map.Entry::getValue, (a, b) -> a)))
+                .build();
+    }
+}
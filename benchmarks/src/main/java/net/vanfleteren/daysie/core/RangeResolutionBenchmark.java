@@ -0,0 +1,41 @@
+package net.vanfleteren.daysie.core;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves compiled week, month, quarter and year ranges against the same "now" over and over,
+ * as when one saved filter is evaluated for every request of a day.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RangeResolutionBenchmark {
+
+    @Param({
+            "last week",
+            "this month",
+            "next quarter",
+            "last 2 years",
+    })
+    public String input;
+
+    private CompiledExpression compiled;
+    private LocalDateTime now;
+
+    @Setup
+    public void setUp() {
+        compiled = new DateValueParser(DateValueParserBenchmark.COMBINED, DateValueParserBenchmark.FIXED_CLOCK).compile(input).orElseThrow();
+        now = LocalDateTime.now(DateValueParserBenchmark.FIXED_CLOCK);
+    }
+
+    @Benchmark
+    public DateValue resolve() {
+        return compiled.resolve(now);
+    }
+}
@@ -0,0 +1,207 @@
+package net.vanfleteren.daysie.cli;
+
+import net.vanfleteren.daysie.core.CompiledExpression;
+import net.vanfleteren.daysie.core.DateValueParser;
+import net.vanfleteren.daysie.core.InstantRange;
+import net.vanfleteren.daysie.core.ParseResult;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Resolves a UTF-8 file of newline-delimited expressions, one per line, and writes one record per line to an output file.
+ * <p>
+ * The input is memory-mapped and split into chunks of about 8 MB that end on a line break. Chunks are parsed in parallel,
+ * each into its own buffer, and written to the output in input order, with at most two chunks per thread in flight,
+ * so memory use does not depend on the size of the file. All lines are resolved against the same "now",
+ * read once from the clock when the run starts.
+ * <p>
+ * Repeated lines, like saved filters, are common in these files, so give the parser a cache with {@link DateValueParser#withCache(int)}.
+ */
+public final class BulkFileParser {
+
+    private static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private final DateValueParser parser;
+    private final Clock clock;
+    private final ZoneId zone;
+    private final OutputFormat format;
+    private final int parallelism;
+    private final int chunkSize;
+
+    public BulkFileParser(DateValueParser parser, Clock clock, ZoneId zone, OutputFormat format, int parallelism) {
+        this(parser, clock, zone, format, parallelism, DEFAULT_CHUNK_SIZE);
+    }
+
+    BulkFileParser(DateValueParser parser, Clock clock, ZoneId zone, OutputFormat format, int parallelism, int chunkSize) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.parser = parser;
+        this.clock = clock;
+        this.zone = zone;
+        this.format = format;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Parses every line of input and writes the results to output, replacing it if it exists.
+     * @return the number of lines, failures and the time it took
+     */
+    public BulkParseSummary parse(Path input, Path output) throws IOException {
+        long started = System.nanoTime();
+        Instant now = clock.instant();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Deque<Future<ChunkResult>> inFlight = new ArrayDeque<>();
+            long lines = 0;
+            long failures = 0;
+            for (long[] chunk : chunks(in)) {
+                if (inFlight.size() == 2 * parallelism) {
+                    ChunkResult result = await(inFlight.removeFirst());
+                    writeFully(out, result.output());
+                    lines += result.lines();
+                    failures += result.failures();
+                }
+                ByteBuffer mapped = in.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]);
+                inFlight.addLast(executor.submit(() -> parseChunk(mapped, now)));
+            }
+            while (!inFlight.isEmpty()) {
+                ChunkResult result = await(inFlight.removeFirst());
+                writeFully(out, result.output());
+                lines += result.lines();
+                failures += result.failures();
+            }
+            return new BulkParseSummary(lines, failures, Duration.ofNanos(System.nanoTime() - started));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Splits the file in ranges of about chunkSize bytes, each ending right after a line break or at the end of the file.
+     * @return the [start, end) byte ranges, in order
+     */
+    List<long[]> chunks(FileChannel in) throws IOException {
+        long size = in.size();
+        List<long[]> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long start = 0;
+        while (start < size) {
+            long end = Math.min(size, start + chunkSize);
+            // move the end forward to just after the next line break
+            while (end < size) {
+                probe.clear();
+                int read = in.read(probe, end);
+                int newline = indexOf(probe, read, (byte) '\n');
+                if (newline >= 0) {
+                    end += newline + 1;
+                    break;
+                }
+                end += read;
+            }
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static int indexOf(ByteBuffer buffer, int length, byte b) {
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private ChunkResult parseChunk(ByteBuffer bytes, Instant now) throws IOException {
+        CharBuffer chars = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                .decode(bytes);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(32, chars.length() / 2));
+        DataOutputStream out = new DataOutputStream(buffer);
+        long lines = 0;
+        long failures = 0;
+        int lineStart = 0;
+        int length = chars.length();
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && chars.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd > lineStart && chars.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            InstantRange range = resolve(chars.subSequence(lineStart, contentEnd), now);
+            format.write(range, out);
+            lines++;
+            if (range == null) {
+                failures++;
+            }
+            lineStart = lineEnd + 1;
+        }
+        out.flush();
+        return new ChunkResult(ByteBuffer.wrap(buffer.toByteArray()), lines, failures);
+    }
+
+    private InstantRange resolve(CharSequence line, Instant now) {
+        if (!(parser.tryCompile(line) instanceof ParseResult.Success<CompiledExpression>(CompiledExpression expression))) {
+            return null;
+        }
+        try {
+            return expression.resolveInstant(now, zone);
+        } catch (RuntimeException e) {
+            // syntactically fine, but outside the supported date range
+            return null;
+        }
+    }
+
+    private static ChunkResult await(Future<ChunkResult> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while parsing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private record ChunkResult(ByteBuffer output, long lines, long failures) {
+    }
+}
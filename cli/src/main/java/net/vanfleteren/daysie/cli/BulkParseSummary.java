@@ -0,0 +1,21 @@
+package net.vanfleteren.daysie.cli;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a {@link BulkFileParser} run.
+ *
+ * @param lines    the number of lines in the input
+ * @param failures the number of lines that could not be parsed
+ * @param elapsed  the wall-clock time of the run
+ */
+public record BulkParseSummary(long lines, long failures, Duration elapsed) {
+
+    /**
+     * @return the throughput of the run
+     */
+    public double linesPerSecond() {
+        long nanos = Math.max(1, elapsed.toNanos());
+        return lines * 1_000_000_000.0 / nanos;
+    }
+}
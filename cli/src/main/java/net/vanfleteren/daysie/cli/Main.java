@@ -0,0 +1,100 @@
+package net.vanfleteren.daysie.cli;
+
+import net.vanfleteren.daysie.core.DateValueParser;
+import net.vanfleteren.daysie.core.LanguageKeywords;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Command line entry point for {@link BulkFileParser}:
+ * <pre>
+ * java -jar daysie-bulk.jar [--format csv|binary] [--zone Europe/Brussels] [--languages en,nl] [--threads n] input output
+ * </pre>
+ * Defaults are csv, the system time zone, English and Dutch, and one thread per core.
+ */
+public final class Main {
+
+    private static final int CACHE_SIZE = 100_000;
+
+    private Main() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * @return the process exit code
+     */
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        OutputFormat format = OutputFormat.CSV;
+        ZoneId zone = ZoneId.systemDefault();
+        List<LanguageKeywords> languages = List.of(LanguageKeywords.ENGLISH, LanguageKeywords.DUTCH);
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String> paths = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--format" -> format = OutputFormat.valueOf(value(args, ++i).toUpperCase(Locale.ROOT));
+                    case "--zone" -> zone = ZoneId.of(value(args, ++i));
+                    case "--languages" -> languages = languages(value(args, ++i));
+                    case "--threads" -> threads = threads(value(args, ++i));
+                    default -> paths.add(args[i]);
+                }
+            }
+            if (paths.size() != 2) {
+                throw new IllegalArgumentException("expected an input and an output file");
+            }
+        } catch (RuntimeException e) {
+            err.println(e.getMessage());
+            err.println("usage: daysie-bulk [--format csv|binary] [--zone zone] [--languages en,nl] [--threads n] input output");
+            return 2;
+        }
+
+        DateValueParser parser = new DateValueParser(LanguageKeywords.combine(languages), Clock.systemUTC()).withCache(CACHE_SIZE);
+        try {
+            BulkParseSummary summary = new BulkFileParser(parser, Clock.systemUTC(), zone, format, threads)
+                    .parse(Path.of(paths.get(0)), Path.of(paths.get(1)));
+            out.printf(Locale.ROOT, "%d lines, %d failed, in %d ms (%.0f lines/sec)%n",
+                    summary.lines(), summary.failures(), summary.elapsed().toMillis(), summary.linesPerSecond());
+            return 0;
+        } catch (IOException e) {
+            err.println("failed: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("missing value for " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    private static int threads(String value) {
+        int threads = Integer.parseInt(value);
+        if (threads < 1) {
+            throw new IllegalArgumentException("--threads must be at least 1, was " + threads);
+        }
+        return threads;
+    }
+
+    private static List<LanguageKeywords> languages(String codes) {
+        List<LanguageKeywords> languages = new ArrayList<>();
+        for (String code : codes.split(",")) {
+            languages.add(switch (code.trim()) {
+                case "en" -> LanguageKeywords.ENGLISH;
+                case "nl" -> LanguageKeywords.DUTCH;
+                default -> throw new IllegalArgumentException("unknown language " + code);
+            });
+        }
+        return languages;
+    }
+}
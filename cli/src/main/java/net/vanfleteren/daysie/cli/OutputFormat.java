@@ -0,0 +1,60 @@
+package net.vanfleteren.daysie.cli;
+
+import net.vanfleteren.daysie.core.InstantRange;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * How {@link BulkFileParser} writes the result of each input line. Either way there is exactly one record per line,
+ * in input order, so record n belongs to line n. Bounds are epoch milliseconds,
+ * open ends are written as Long.MIN_VALUE and Long.MAX_VALUE.
+ */
+public enum OutputFormat {
+
+    /**
+     * One text line per input line: {@code from,until,fromInclusive,untilInclusive}, eg
+     * {@code 1771027200000,1771113600000,true,false}. Lines that could not be parsed are written as {@code ,,,}.
+     */
+    CSV {
+        @Override
+        void write(InstantRange range, DataOutputStream out) throws IOException {
+            if (range == null) {
+                out.writeBytes(",,,\n");
+            } else {
+                out.writeBytes(range.fromEpochMilli() + "," + range.untilEpochMilli() + ","
+                        + range.fromInclusive() + "," + range.untilInclusive() + "\n");
+            }
+        }
+    },
+
+    /**
+     * Fixed-size records of {@value #BINARY_RECORD_SIZE} bytes: the big-endian from and until as longs, then a flags byte
+     * with {@value #PARSED} set when the line was parsed, {@value #FROM_INCLUSIVE} for an inclusive start
+     * and {@value #UNTIL_INCLUSIVE} for an inclusive end. Lines that could not be parsed are all zeros.
+     */
+    BINARY {
+        @Override
+        void write(InstantRange range, DataOutputStream out) throws IOException {
+            if (range == null) {
+                out.writeLong(0);
+                out.writeLong(0);
+                out.writeByte(0);
+            } else {
+                out.writeLong(range.fromEpochMilli());
+                out.writeLong(range.untilEpochMilli());
+                out.writeByte(PARSED | (range.fromInclusive() ? FROM_INCLUSIVE : 0) | (range.untilInclusive() ? UNTIL_INCLUSIVE : 0));
+            }
+        }
+    };
+
+    public static final int BINARY_RECORD_SIZE = 17;
+    public static final int PARSED = 1;
+    public static final int FROM_INCLUSIVE = 1 << 1;
+    public static final int UNTIL_INCLUSIVE = 1 << 2;
+
+    /**
+     * @param range the resolved line, or null if it could not be parsed
+     */
+    abstract void write(InstantRange range, DataOutputStream out) throws IOException;
+}
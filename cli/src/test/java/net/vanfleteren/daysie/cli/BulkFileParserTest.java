@@ -0,0 +1,142 @@
+package net.vanfleteren.daysie.cli;
+
+import net.vanfleteren.daysie.core.DateValueParser;
+import net.vanfleteren.daysie.core.InstantRange;
+import net.vanfleteren.daysie.core.LanguageKeywords;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkFileParserTest {
+
+    private static final Clock FIXED_CLOCK = Clock.fixed(Instant.parse("2026-02-14T10:00:00Z"), ZoneId.of("UTC"));
+
+    private final DateValueParser parser = new DateValueParser(
+            LanguageKeywords.combine(List.of(LanguageKeywords.ENGLISH, LanguageKeywords.DUTCH)), FIXED_CLOCK);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void parse_whenWritingCsv_writesOneRecordPerLineInInputOrder() throws IOException {
+        Path input = write("today\r\njunk\n< 2026-02-01\n\nvandaag");
+        Path output = dir.resolve("out.csv");
+
+        BulkParseSummary summary = new BulkFileParser(parser, FIXED_CLOCK, ZoneOffset.UTC, OutputFormat.CSV, 2).parse(input, output);
+
+        assertThat(Files.readAllLines(output)).containsExactly(
+                "1771027200000,1771113600000,true,false",
+                ",,,",
+                Long.MIN_VALUE + ",1769904000000,false,false",
+                ",,,",
+                "1771027200000,1771113600000,true,false");
+        assertThat(summary.lines()).isEqualTo(5);
+        assertThat(summary.failures()).isEqualTo(2);
+    }
+
+    @Test
+    void parse_whenWritingBinary_writesFixedSizeRecords() throws IOException {
+        Path input = write("today\njunk\n");
+        Path output = dir.resolve("out.bin");
+
+        new BulkFileParser(parser, FIXED_CLOCK, ZoneId.of("Europe/Brussels"), OutputFormat.BINARY, 1).parse(input, output);
+
+        ByteBuffer records = ByteBuffer.wrap(Files.readAllBytes(output));
+        InstantRange today = parser.parseInstant("today", ZoneId.of("Europe/Brussels")).orElseThrow();
+        assertThat(records.remaining()).isEqualTo(2 * OutputFormat.BINARY_RECORD_SIZE);
+        assertThat(records.getLong()).isEqualTo(today.fromEpochMilli());
+        assertThat(records.getLong()).isEqualTo(today.untilEpochMilli());
+        assertThat(records.get()).isEqualTo((byte) (OutputFormat.PARSED | OutputFormat.FROM_INCLUSIVE));
+        assertThat(records.getLong()).isZero();
+        assertThat(records.getLong()).isZero();
+        assertThat(records.get()).isZero();
+    }
+
+    @Test
+    void parse_whenFileSpansManyChunks_keepsLineOrder() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            lines.add(i % 3 == 0 ? "junk " + i : "last " + i + " days");
+        }
+        Path input = write(String.join("\n", lines) + "\n");
+        Path output = dir.resolve("out.csv");
+
+        BulkParseSummary summary = new BulkFileParser(parser, FIXED_CLOCK, ZoneOffset.UTC, OutputFormat.CSV, 3, 1024).parse(input, output);
+
+        List<String> expected = lines.stream()
+                .map(line -> parser.parseInstant(line, ZoneOffset.UTC)
+                        .map(range -> range.fromEpochMilli() + "," + range.untilEpochMilli() + "," + range.fromInclusive() + "," + range.untilInclusive())
+                        .orElse(",,,"))
+                .toList();
+        assertThat(Files.readAllLines(output)).containsExactlyElementsOf(expected);
+        assertThat(summary.lines()).isEqualTo(2_000);
+        assertThat(summary.failures()).isEqualTo(667);
+    }
+
+    @Test
+    void chunks_whenLineCrossesChunkSize_endsChunkAfterLineBreak() throws IOException {
+        Path input = write("aaaa\nbbbbbbbb\ncc\n");
+        BulkFileParser bulk = new BulkFileParser(parser, FIXED_CLOCK, ZoneOffset.UTC, OutputFormat.CSV, 1, 6);
+
+        try (FileChannel channel = FileChannel.open(input)) {
+            assertThat(bulk.chunks(channel)).containsExactly(new long[]{0, 14}, new long[]{14, 17});
+        }
+    }
+
+    @Test
+    void main_whenGivenFiles_printsThroughput() throws IOException {
+        Path input = write("today\nyesterday\n");
+        Path output = dir.resolve("out.bin");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int exitCode = Main.run(new String[]{"--format", "binary", "--zone", "UTC", input.toString(), output.toString()},
+                new PrintStream(out), System.err);
+
+        assertThat(exitCode).isZero();
+        assertThat(out.toString()).startsWith("2 lines, 0 failed, in ");
+        assertThat(Files.size(output)).isEqualTo(2L * OutputFormat.BINARY_RECORD_SIZE);
+    }
+
+    @Test
+    void main_whenMissingOutput_printsUsage() {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        int exitCode = Main.run(new String[]{"input.txt"}, System.out, new PrintStream(err));
+
+        assertThat(exitCode).isEqualTo(2);
+        assertThat(err.toString()).contains("usage: daysie-bulk");
+    }
+
+    @ParameterizedTest(name = "--threads {0} prints usage")
+    @ValueSource(strings = {"0", "-1", "many"})
+    void main_whenThreadsIsNotAPositiveNumber_printsUsage(String threads) {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        int exitCode = Main.run(new String[]{"--threads", threads, "input.txt", "output.txt"}, System.out, new PrintStream(err));
+
+        assertThat(exitCode).isEqualTo(2);
+        assertThat(err.toString()).contains("usage: daysie-bulk");
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(dir.resolve("in.txt"), content, StandardCharsets.UTF_8);
+    }
+}
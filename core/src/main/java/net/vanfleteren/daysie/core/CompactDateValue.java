@@ -0,0 +1,139 @@
+package net.vanfleteren.daysie.core;
+
+import org.jspecify.annotations.NonNull;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Memory-compact form of a {@link DateValue}, for when many parsed values are kept around, eg saved filters.
+ * <p>
+ * Both bounds are stored as epoch seconds and nanos of the local date-time, taken as if it were UTC,
+ * plus a flags byte, instead of two LocalDateTime objects that each hold a LocalDate and a LocalTime.
+ * That is 40 bytes per value instead of up to about 170. {@link LocalDateTime#MIN} and {@link LocalDateTime#MAX}
+ * fit as they are, so open-ended ranges need no special casing.
+ * <p>
+ * Immutable and safe to share between threads.
+ */
+public final class CompactDateValue {
+
+    private static final byte FROM_INCLUSIVE = 1;
+    private static final byte UNTIL_INCLUSIVE = 1 << 1;
+    private static final byte POINT = 1 << 2;
+
+    private final long fromEpochSecond;
+    private final long untilEpochSecond;
+    private final int fromNano;
+    private final int untilNano;
+    private final byte flags;
+
+    private CompactDateValue(LocalDateTime from, LocalDateTime until, byte flags) {
+        this.fromEpochSecond = from.toEpochSecond(ZoneOffset.UTC);
+        this.fromNano = from.getNano();
+        this.untilEpochSecond = until.toEpochSecond(ZoneOffset.UTC);
+        this.untilNano = until.getNano();
+        this.flags = flags;
+    }
+
+    public static CompactDateValue of(DateValue value) {
+        return switch (value) {
+            case DateValue.AbsoluteRange ar -> range(ar.from(), ar.until(), ar.fromInclusive(), ar.untilInclusive());
+            case DateValue.AbsoluteDate ad -> point(ad.date());
+        };
+    }
+
+    static CompactDateValue of(DateValueInt value) {
+        return switch (value) {
+            case DateValueInt.AbsoluteRange ar -> range(ar.from(), ar.until(), ar.fromInclusive(), ar.untilInclusive());
+            case DateValueInt.AbsoluteDateInt ad -> point(ad.date());
+        };
+    }
+
+    private static CompactDateValue range(LocalDateTime from, LocalDateTime until, boolean fromInclusive, boolean untilInclusive) {
+        byte flags = (byte) ((fromInclusive ? FROM_INCLUSIVE : 0) | (untilInclusive ? UNTIL_INCLUSIVE : 0));
+        return new CompactDateValue(from, until, flags);
+    }
+
+    private static CompactDateValue point(LocalDateTime date) {
+        return new CompactDateValue(date, date, (byte) (FROM_INCLUSIVE | UNTIL_INCLUSIVE | POINT));
+    }
+
+    public LocalDateTime from() {
+        return LocalDateTime.ofEpochSecond(fromEpochSecond, fromNano, ZoneOffset.UTC);
+    }
+
+    public LocalDateTime until() {
+        return LocalDateTime.ofEpochSecond(untilEpochSecond, untilNano, ZoneOffset.UTC);
+    }
+
+    /**
+     * @return the start as seconds since 1970-01-01T00:00 in local time, without a time zone applied
+     */
+    public long fromEpochSecond() {
+        return fromEpochSecond;
+    }
+
+    /**
+     * @return the end as seconds since 1970-01-01T00:00 in local time, without a time zone applied
+     */
+    public long untilEpochSecond() {
+        return untilEpochSecond;
+    }
+
+    public int fromNano() {
+        return fromNano;
+    }
+
+    public int untilNano() {
+        return untilNano;
+    }
+
+    public boolean fromInclusive() {
+        return (flags & FROM_INCLUSIVE) != 0;
+    }
+
+    public boolean untilInclusive() {
+        return (flags & UNTIL_INCLUSIVE) != 0;
+    }
+
+    /**
+     * @return true if this is a single point in time, see {@link DateValue.AbsoluteDate}
+     */
+    public boolean isPoint() {
+        return (flags & POINT) != 0;
+    }
+
+    /**
+     * @return the equivalent DateValue
+     */
+    public DateValue toDateValue() {
+        if (isPoint()) {
+            return new DateValue.AbsoluteDate(from());
+        }
+        return new DateValue.AbsoluteRange(from(), until(), fromInclusive(), untilInclusive());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CompactDateValue other
+                && fromEpochSecond == other.fromEpochSecond
+                && untilEpochSecond == other.untilEpochSecond
+                && fromNano == other.fromNano
+                && untilNano == other.untilNano
+                && flags == other.flags;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Long.hashCode(fromEpochSecond);
+        result = 31 * result + Long.hashCode(untilEpochSecond);
+        result = 31 * result + fromNano;
+        result = 31 * result + untilNano;
+        return 31 * result + flags;
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return toDateValue().toString();
+    }
+}
@@ -0,0 +1,135 @@
+package net.vanfleteren.daysie.core;
+
+import org.jspecify.annotations.NonNull;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * A parsed expression that has not been resolved against a reference time yet.
+ * Obtained from {@link DateValueParser#compile(String)}; immutable and safe to share between threads.
+ */
+public final class CompiledExpression {
+
+    private final Expression expression;
+    // only set when it can't be told from the expression, see production()
+    private final GrammarProduction production;
+
+    CompiledExpression(Expression expression) {
+        this(expression, null);
+    }
+
+    CompiledExpression(Expression expression, GrammarProduction production) {
+        this.expression = expression;
+        this.production = production;
+    }
+
+    /**
+     * Resolves this expression against the given reference time, eg "last 7 days" counts back from {@code now}.
+     * @return the resolved DateValue
+     * @throws DateTimeException if the result is outside the supported range, eg "next 999999999 years"
+     */
+    public DateValue resolve(LocalDateTime now) {
+        ResolveEvent event = begin();
+        DateValue value = expression.resolve(now).toPublic();
+        commit(event, 1);
+        return value;
+    }
+
+    /**
+     * Resolves this expression like {@link #resolve(LocalDateTime)}, straight into the compact form,
+     * for results that are kept in memory for a long time.
+     * @return the resolved value as a CompactDateValue
+     * @throws DateTimeException if the result is outside the supported range
+     */
+    public CompactDateValue resolveCompact(LocalDateTime now) {
+        ResolveEvent event = begin();
+        CompactDateValue value = CompactDateValue.of(expression.resolve(now));
+        commit(event, 1);
+        return value;
+    }
+
+    /**
+     * Resolves this expression against the given instant in the given zone, eg "today" is the local day in that zone,
+     * which is 23 or 25 hours long on days with a daylight saving time transition.
+     * Hours, minutes and seconds count elapsed time, so "last 3 hours" is always 3 hours long.
+     * See {@link DateValueParser#parseInstant(String, ZoneId)} for how local times in gaps and overlaps are converted.
+     * @return the resolved range of instants
+     * @throws DateTimeException if the result is outside the supported range
+     */
+    public InstantRange resolveInstant(Instant now, ZoneId zone) {
+        ResolveEvent event = begin();
+        InstantRange range = instantRange(now, zone);
+        commit(event, 1);
+        return range;
+    }
+
+    /**
+     * {@link #resolveInstant(Instant, ZoneId)} without a {@link ResolveEvent}, for callers that record their own.
+     */
+    InstantRange instantRange(Instant now, ZoneId zone) {
+        ZonedDateTime zonedNow = now.atZone(zone);
+        return DateCalculator.toInstantRange(expression.resolve(zonedNow), zone);
+    }
+
+    /**
+     * Resolves this expression against many reference times at once, eg to evaluate "last 7 days" for every day of a backtest.
+     * Each result is written as the half-open range of epoch millis {@code [from[i], until[i])} that
+     * {@link InstantRange#toLongPredicate()} of {@link #resolveInstant(Instant, ZoneId)} would match,
+     * with {@link Long#MIN_VALUE} and {@link Long#MAX_VALUE} for a range without a start or an end.
+     * <p>
+     * Relative days and last, this and next ranges, the expressions this is typically used for,
+     * are computed without allocating objects per reference time.
+     * @param nows reference times in epoch millis
+     * @param from receives the first epoch milli of each range, at least as long as nows
+     * @param until receives the first epoch milli after each range, at least as long as nows
+     * @throws DateTimeException if any of the results is outside the supported range
+     */
+    public void resolveEpochMillis(long[] nows, ZoneId zone, long[] from, long[] until) {
+        ResolveEvent event = begin();
+        EpochRangeResolver.resolve(this, nows, zone, from, until);
+        commit(event, nows.length);
+    }
+
+    private static ResolveEvent begin() {
+        ResolveEvent event = new ResolveEvent();
+        event.begin();
+        return event;
+    }
+
+    private void commit(ResolveEvent event, int count) {
+        if (event.shouldCommit()) {
+            event.set(this, count);
+            event.commit();
+        }
+    }
+
+    Expression expression() {
+        return expression;
+    }
+
+    /**
+     * @return the branch of the grammar this was parsed with
+     */
+    GrammarProduction production() {
+        return production != null ? production : GrammarProduction.of(expression);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CompiledExpression other && expression.equals(other.expression);
+    }
+
+    @Override
+    public int hashCode() {
+        return expression.hashCode();
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return expression.toString();
+    }
+}
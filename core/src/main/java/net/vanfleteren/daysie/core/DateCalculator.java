@@ -3,148 +3,168 @@ package net.vanfleteren.daysie.core;
 import java.time.*;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 class DateCalculator {
 
-    static DateValueInt calculateLastRange(LocalDateTime now, ChronoUnit unit, int amount, boolean isQuarter) {
-        LocalDate today = now.toLocalDate();
+    /**
+     * Recently used days by epoch day, so callers that alternate between a few days, like a backtest
+     * next to live traffic, don't keep replacing each other's boundaries. A power of two, to index by masking.
+     */
+    private static final int RECENT_DAYS = 64;
+    private static final AtomicReferenceArray<DayBoundaries> DAYS = new AtomicReferenceArray<>(RECENT_DAYS);
+
+    static DateValueInt calculateLastRange(ZonedDateTime now, ChronoUnit unit, int amount, boolean isQuarter) {
+        LocalDateTime localNow = now.toLocalDateTime();
         return switch (unit) {
-            case SECONDS -> {
-                LocalDateTime start = now.minusSeconds(amount);
-                yield new DateValueInt.AbsoluteRange(start, now, true, false);
-            }
-            case MINUTES -> {
-                LocalDateTime start = now.minusMinutes(amount);
-                yield new DateValueInt.AbsoluteRange(start, now, true, false);
-            }
-            case HOURS -> {
-                LocalDateTime start = now.minusHours(amount);
-                yield new DateValueInt.AbsoluteRange(start, now, true, false);
-            }
+            case SECONDS, MINUTES, HOURS -> onTimeline(now.minus(amount, unit), now);
             case DAYS -> {
-                LocalDate start = today.minusDays(amount);
-                yield new DateValueInt.AbsoluteRange(start.atStartOfDay(), now, true, false);
+                LocalDateTime start = boundaries(localNow).startOfDay().minusDays(amount);
+                yield new DateValueInt.AbsoluteRange(start, localNow, true, false, null, now.getOffset());
             }
             case WEEKS -> {
-                LocalDate startOfThisWeek = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
-                LocalDate start = startOfThisWeek.minusWeeks(amount);
-                yield new DateValueInt.AbsoluteRange(start.atStartOfDay(), startOfThisWeek.atStartOfDay(), true, false);
+                LocalDateTime startOfThisWeek = boundaries(localNow).startOfWeek();
+                yield new DateValueInt.AbsoluteRange(startOfThisWeek.minusWeeks(amount), startOfThisWeek, true, false);
             }
             case MONTHS -> {
                 if (isQuarter) {
-                    LocalDate startOfThisQuarter = getStartOfQuarter(today);
-                    LocalDate start = startOfThisQuarter.minusMonths(amount * 3L);
-                    yield new DateValueInt.AbsoluteRange(start.atStartOfDay(), startOfThisQuarter.atStartOfDay(), true, false);
+                    LocalDateTime startOfThisQuarter = boundaries(localNow).startOfQuarter();
+                    yield new DateValueInt.AbsoluteRange(startOfThisQuarter.minusMonths(amount * 3L), startOfThisQuarter, true, false);
                 } else {
-                    LocalDate startOfThisMonth = today.with(TemporalAdjusters.firstDayOfMonth());
-                    LocalDate start = startOfThisMonth.minusMonths(amount);
-                    yield new DateValueInt.AbsoluteRange(start.atStartOfDay(), startOfThisMonth.atStartOfDay(), true, false);
+                    LocalDateTime startOfThisMonth = boundaries(localNow).startOfMonth();
+                    yield new DateValueInt.AbsoluteRange(startOfThisMonth.minusMonths(amount), startOfThisMonth, true, false);
                 }
             }
             case YEARS -> {
-                LocalDate startOfThisYear = today.with(TemporalAdjusters.firstDayOfYear());
-                LocalDate start = startOfThisYear.minusYears(amount);
-                yield new DateValueInt.AbsoluteRange(start.atStartOfDay(), startOfThisYear.atStartOfDay(), true, false);
+                LocalDateTime startOfThisYear = boundaries(localNow).startOfYear();
+                yield new DateValueInt.AbsoluteRange(startOfThisYear.minusYears(amount), startOfThisYear, true, false);
             }
             default -> null;
         };
     }
 
-    static DateValueInt calculateThisRange(LocalDateTime now, ChronoUnit unit, int amount, boolean isQuarter) {
-        LocalDate today = now.toLocalDate();
+    static DateValueInt calculateThisRange(ZonedDateTime now, ChronoUnit unit, int amount, boolean isQuarter) {
+        LocalDateTime localNow = now.toLocalDateTime();
         return switch (unit) {
             case SECONDS -> {
-                LocalDateTime start = now.minusSeconds(amount - 1L).withNano(0);
-                yield new DateValueInt.AbsoluteRange(start, start.plusSeconds(1), true, false);
+                ZonedDateTime start = now.minusSeconds(amount - 1L).withNano(0);
+                yield onTimeline(start, start.plusSeconds(1));
             }
             case MINUTES -> {
-                LocalDateTime start = now.minusMinutes(amount - 1L).withNano(0).withSecond(0);
-                yield new DateValueInt.AbsoluteRange(start, start.plusMinutes(1), true, false);
+                ZonedDateTime start = now.minusMinutes(amount - 1L).withNano(0).withSecond(0);
+                yield onTimeline(start, start.plusMinutes(1));
             }
             case HOURS -> {
-                LocalDateTime start = now.minusHours(amount - 1L).withNano(0).withSecond(0).withMinute(0);
-                yield new DateValueInt.AbsoluteRange(start, start.plusHours(1), true, false);
+                ZonedDateTime start = now.minusHours(amount - 1L).withNano(0).withSecond(0).withMinute(0);
+                yield onTimeline(start, start.plusHours(1));
             }
             case DAYS -> {
-                LocalDate start = today.minusDays(amount - 1L);
-                yield new DateValueInt.AbsoluteRange(start.atStartOfDay(), today.plusDays(1).atStartOfDay(), true, false);
+                LocalDateTime startOfToday = boundaries(localNow).startOfDay();
+                yield new DateValueInt.AbsoluteRange(startOfToday.minusDays(amount - 1L), startOfToday.plusDays(1), true, false);
             }
             case WEEKS -> {
-                LocalDate startOfThisWeek = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
-                LocalDate start = startOfThisWeek.minusWeeks(amount - 1L);
-                yield new DateValueInt.AbsoluteRange(start.atStartOfDay(), startOfThisWeek.plusWeeks(1).atStartOfDay(), true, false);
+                LocalDateTime startOfThisWeek = boundaries(localNow).startOfWeek();
+                yield new DateValueInt.AbsoluteRange(startOfThisWeek.minusWeeks(amount - 1L), startOfThisWeek.plusWeeks(1), true, false);
             }
             case MONTHS -> {
                 if (isQuarter) {
-                    LocalDate startOfThisQuarter = getStartOfQuarter(today);
-                    LocalDate start = startOfThisQuarter.minusMonths((amount - 1L) * 3);
-                    yield new DateValueInt.AbsoluteRange(start.atStartOfDay(), startOfThisQuarter.plusMonths(3).atStartOfDay(), true, false);
+                    LocalDateTime startOfThisQuarter = boundaries(localNow).startOfQuarter();
+                    yield new DateValueInt.AbsoluteRange(startOfThisQuarter.minusMonths((amount - 1L) * 3), startOfThisQuarter.plusMonths(3), true, false);
                 } else {
-                    LocalDate startOfThisMonth = today.with(TemporalAdjusters.firstDayOfMonth());
-                    LocalDate start = startOfThisMonth.minusMonths(amount - 1L);
-                    yield new DateValueInt.AbsoluteRange(start.atStartOfDay(), startOfThisMonth.plusMonths(1).atStartOfDay(), true, false);
+                    LocalDateTime startOfThisMonth = boundaries(localNow).startOfMonth();
+                    yield new DateValueInt.AbsoluteRange(startOfThisMonth.minusMonths(amount - 1L), startOfThisMonth.plusMonths(1), true, false);
                 }
             }
             case YEARS -> {
-                LocalDate startOfThisYear = today.with(TemporalAdjusters.firstDayOfYear());
-                LocalDate start = startOfThisYear.minusYears(amount - 1L);
-                yield new DateValueInt.AbsoluteRange(start.atStartOfDay(), startOfThisYear.plusYears(1).atStartOfDay(), true, false);
+                LocalDateTime startOfThisYear = boundaries(localNow).startOfYear();
+                yield new DateValueInt.AbsoluteRange(startOfThisYear.minusYears(amount - 1L), startOfThisYear.plusYears(1), true, false);
             }
             default -> null;
         };
     }
 
-    static DateValueInt calculateNextRange(LocalDateTime now, ChronoUnit unit, int amount, boolean isQuarter) {
-        LocalDate today = now.toLocalDate();
+    static DateValueInt calculateNextRange(ZonedDateTime now, ChronoUnit unit, int amount, boolean isQuarter) {
+        LocalDateTime localNow = now.toLocalDateTime();
         return switch (unit) {
-            case SECONDS -> {
-                LocalDateTime end = now.plusSeconds(amount);
-                yield new DateValueInt.AbsoluteRange(now, end, true, false);
-            }
-            case MINUTES -> {
-                LocalDateTime end = now.plusMinutes(amount);
-                yield new DateValueInt.AbsoluteRange(now, end, true, false);
-            }
-            case HOURS -> {
-                LocalDateTime end = now.plusHours(amount);
-                yield new DateValueInt.AbsoluteRange(now, end, true, false);
-            }
+            case SECONDS, MINUTES, HOURS -> onTimeline(now, now.plus(amount, unit));
             case DAYS -> {
-                yield new DateValueInt.AbsoluteRange(now, today.plusDays(amount + 1L).atStartOfDay(), true, false);
+                LocalDateTime end = boundaries(localNow).startOfDay().plusDays(amount + 1L);
+                yield new DateValueInt.AbsoluteRange(localNow, end, true, false, now.getOffset(), null);
             }
             case WEEKS -> {
-                LocalDate startOfNextWeek = today.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
-                yield new DateValueInt.AbsoluteRange(startOfNextWeek.atStartOfDay(), startOfNextWeek.plusWeeks(amount).atStartOfDay(), true, false);
+                LocalDateTime startOfNextWeek = boundaries(localNow).startOfWeek().plusWeeks(1);
+                yield new DateValueInt.AbsoluteRange(startOfNextWeek, startOfNextWeek.plusWeeks(amount), true, false);
             }
             case MONTHS -> {
                 if (isQuarter) {
-                    LocalDate startOfNextQuarter = getStartOfQuarter(today).plusMonths(3);
-                    yield new DateValueInt.AbsoluteRange(startOfNextQuarter.atStartOfDay(), startOfNextQuarter.plusMonths(amount * 3L).atStartOfDay(), true, false);
+                    LocalDateTime startOfNextQuarter = boundaries(localNow).startOfQuarter().plusMonths(3);
+                    yield new DateValueInt.AbsoluteRange(startOfNextQuarter, startOfNextQuarter.plusMonths(amount * 3L), true, false);
                 } else {
-                    LocalDate startOfNextMonth = today.with(TemporalAdjusters.firstDayOfMonth()).plusMonths(1);
-                    yield new DateValueInt.AbsoluteRange(startOfNextMonth.atStartOfDay(), startOfNextMonth.plusMonths(amount).atStartOfDay(), true, false);
+                    LocalDateTime startOfNextMonth = boundaries(localNow).startOfMonth().plusMonths(1);
+                    yield new DateValueInt.AbsoluteRange(startOfNextMonth, startOfNextMonth.plusMonths(amount), true, false);
                 }
             }
             case YEARS -> {
-                LocalDate startOfNextYear = today.with(TemporalAdjusters.firstDayOfYear()).plusYears(1);
-                yield new DateValueInt.AbsoluteRange(startOfNextYear.atStartOfDay(), startOfNextYear.plusYears(amount).atStartOfDay(), true, false);
+                LocalDateTime startOfNextYear = boundaries(localNow).startOfYear().plusYears(1);
+                yield new DateValueInt.AbsoluteRange(startOfNextYear, startOfNextYear.plusYears(amount), true, false);
             }
             default -> null;
         };
     }
 
-    static LocalDate getStartOfQuarter(LocalDate date) {
-        int currentMonth = date.getMonthValue();
-        int startMonthOfQuarter = ((currentMonth - 1) / 3) * 3 + 1;
-        return date.withMonth(startMonthOfQuarter).withDayOfMonth(1);
+    /**
+     * @return the range [from, until) between two points on the timeline, which keep their offsets
+     */
+    private static DateValueInt.AbsoluteRange onTimeline(ZonedDateTime from, ZonedDateTime until) {
+        return new DateValueInt.AbsoluteRange(from.toLocalDateTime(), until.toLocalDateTime(), true, false, from.getOffset(), until.getOffset());
+    }
+
+    /**
+     * @return the boundaries of the day of now, computed once per day: resolving many expressions against the same day,
+     * like saved filters evaluated for every request, then only adds whole weeks, months or years to them
+     */
+    static DayBoundaries boundaries(LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+        int slot = (int) today.toEpochDay() & (RECENT_DAYS - 1);
+        DayBoundaries boundaries = DAYS.get(slot);
+        if (boundaries == null || !boundaries.today().equals(today)) {
+            boundaries = DayBoundaries.of(today);
+            DAYS.set(slot, boundaries);
+        }
+        return boundaries;
+    }
+
+    static DateValueInt calculateRelativeDay(LocalDateTime now, int offsetDays) {
+        LocalDate day = now.toLocalDate().plusDays(offsetDays);
+        return new DateValueInt.AbsoluteRange(day.atStartOfDay(), day.plusDays(1).atStartOfDay(), true, false);
+    }
+
+    static DateValueInt calculateDayOfWeek(LocalDateTime now, DayOfWeek dayOfWeek, Expression.DayOfWeekDirection direction) {
+        LocalDate today = now.toLocalDate();
+        LocalDate day = switch (direction) {
+            case PREVIOUS_OR_SAME -> today.with(TemporalAdjusters.previousOrSame(dayOfWeek));
+            case PREVIOUS -> today.with(TemporalAdjusters.previous(dayOfWeek));
+            case NEXT -> today.with(TemporalAdjusters.next(dayOfWeek));
+        };
+        return new DateValueInt.AbsoluteRange(day.atStartOfDay(), day.plusDays(1).atStartOfDay(), true, false);
+    }
+
+    static DateValueInt calculateAgoDate(ZonedDateTime now, ChronoUnit unit, int amount) {
+        return point(now.minus(amount, unit), unit);
     }
 
-    static DateValueInt calculateAgoDate(LocalDateTime now, ChronoUnit unit, int amount) {
-        return new DateValueInt.AbsoluteDateInt(now.minus(amount, unit), false, true);
+    static DateValueInt calculateFromNowDate(ZonedDateTime now, ChronoUnit unit, int amount) {
+        return point(now.plus(amount, unit), unit);
     }
 
-    static DateValueInt calculateFromNowDate(LocalDateTime now, ChronoUnit unit, int amount) {
-        return new DateValueInt.AbsoluteDateInt(now.plus(amount, unit), false, true);
+    /**
+     * Hours, minutes and seconds are counted on the timeline, so the point keeps its offset.
+     * Days and longer are counted in local time, so the point goes through the zone rules like any other local time.
+     */
+    private static DateValueInt point(ZonedDateTime point, ChronoUnit unit) {
+        return new DateValueInt.AbsoluteDateInt(point.toLocalDateTime(), false, true, unit.isTimeBased() ? point.getOffset() : null);
     }
 
     static DateValueInt calculateDayOfWeekAgo(LocalDateTime now, DayOfWeek dayOfWeek, int amount) {
@@ -158,4 +178,81 @@ class DateCalculator {
         LocalDate target = today.with(TemporalAdjusters.nextOrSame(dayOfWeek)).plusWeeks(amount - 1L);
         return new DateValueInt.AbsoluteDateInt(target.atStartOfDay(), false, true);
     }
+
+    /**
+     * Converts a value resolved in a zone to instants. Bounds on the timeline convert with their own offset,
+     * bounds in calendar time go through the zone rules, see {@link #toInstant(LocalDateTime, ZoneId, boolean)}.
+     */
+    static InstantRange toInstantRange(DateValueInt value, ZoneId zone) {
+        return switch (value) {
+            case DateValueInt.AbsoluteRange ar -> new InstantRange(
+                    toInstant(ar.from(), ar.fromOffset(), zone, false), toInstant(ar.until(), ar.untilOffset(), zone, true),
+                    ar.fromInclusive(), ar.untilInclusive());
+            case DateValueInt.AbsoluteDateInt ad -> {
+                Instant instant = toInstant(ad.date(), ad.offset(), zone, false);
+                yield new InstantRange(instant, instant, true, true);
+            }
+        };
+    }
+
+    static InstantRange toInstantRange(DateValue value, ZoneId zone) {
+        return switch (value) {
+            case DateValue.AbsoluteRange ar -> new InstantRange(
+                    toInstant(ar.from(), zone, false), toInstant(ar.until(), zone, true), ar.fromInclusive(), ar.untilInclusive());
+            case DateValue.AbsoluteDate ad -> {
+                Instant instant = toInstant(ad.date(), zone, false);
+                yield new InstantRange(instant, instant, true, true);
+            }
+        };
+    }
+
+    private static Instant toInstant(LocalDateTime local, ZoneOffset offset, ZoneId zone, boolean endBound) {
+        return offset == null ? toInstant(local, zone, endBound) : local.toInstant(offset);
+    }
+
+    /**
+     * Converts a range bound in local time to an instant.
+     * A local time in a gap (clocks moving forward) maps to the instant of the transition.
+     * A local time in an overlap (clocks moving back) maps to its first occurrence for a start bound
+     * and to its second occurrence for an end bound, so a range covers every instant whose local time falls inside it.
+     * {@link LocalDateTime#MIN} and {@link LocalDateTime#MAX} map to {@link Instant#MIN} and {@link Instant#MAX}.
+     */
+    static Instant toInstant(LocalDateTime local, ZoneId zone, boolean endBound) {
+        if (local.equals(LocalDateTime.MIN)) {
+            return Instant.MIN;
+        }
+        if (local.equals(LocalDateTime.MAX)) {
+            return Instant.MAX;
+        }
+        ZoneRules rules = zone.getRules();
+        if (rules.isFixedOffset()) {
+            return local.toInstant(rules.getOffset(Instant.EPOCH));
+        }
+        ZoneOffsetTransition transition = rules.getTransition(local);
+        if (transition == null) {
+            return local.toInstant(rules.getOffset(local));
+        }
+        if (transition.isGap()) {
+            return transition.getInstant();
+        }
+        return local.toInstant(endBound ? transition.getOffsetAfter() : transition.getOffsetBefore());
+    }
+
+    /**
+     * Midnight at the start of the day, week, month, quarter and year that contain today.
+     * Immutable, and replaced as a whole when another day takes its slot, so threads never see the boundaries of two different days.
+     */
+    record DayBoundaries(LocalDate today, LocalDateTime startOfDay, LocalDateTime startOfWeek, LocalDateTime startOfMonth,
+                         LocalDateTime startOfQuarter, LocalDateTime startOfYear) {
+
+        static DayBoundaries of(LocalDate today) {
+            int startMonthOfQuarter = ((today.getMonthValue() - 1) / 3) * 3 + 1;
+            return new DayBoundaries(today,
+                    today.atStartOfDay(),
+                    today.minusDays(today.getDayOfWeek().getValue() - 1L).atStartOfDay(),
+                    today.withDayOfMonth(1).atStartOfDay(),
+                    LocalDate.of(today.getYear(), startMonthOfQuarter, 1).atStartOfDay(),
+                    LocalDate.of(today.getYear(), 1, 1).atStartOfDay());
+        }
+    }
 }
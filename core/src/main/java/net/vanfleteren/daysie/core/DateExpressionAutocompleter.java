@@ -0,0 +1,299 @@
+package net.vanfleteren.daysie.core;
+
+import org.jparsec.Parser;
+import org.jparsec.Parsers;
+import org.jparsec.pattern.Pattern;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Suggests how to finish an expression while it is being typed, eg in a search box: call {@link #complete(String)}
+ * on every keystroke with the text typed so far.
+ * <p>
+ * A prefix is viable when it is an expression, or when the parser only fails at its very end, like "last 3" or "between today and".
+ * The last one to three words of the prefix, like "da" in "last 3 da" or "day be", are also looked up as the start of a keyword,
+ * and every keyword that leaves the prefix viable is a completion. Partially typed dates and times, like "2026-0", are viable
+ * when filling them in with a valid date or time makes them so.
+ * <p>
+ * Keystrokes mostly extend the previous prefix, so state is reused between calls: the texts tried for one keystroke,
+ * like "last 3 day" and "last 3 days" for "last 3 d", are mostly tried again for the next one, so their outcomes are kept
+ * until then. A prefix that fails before the words being typed cannot be fixed by typing more, so extending it is answered
+ * without parsing. Like {@link DateValueParser#tryParse(String)}, probing a text never throws or builds an exception.
+ * <p>
+ * Not thread-safe, use one autocompleter per search box or user session. The parser can be shared.
+ */
+public final class DateExpressionAutocompleter {
+
+    private static final int DEFAULT_MAX_COMPLETIONS = 10;
+    /**
+     * The longest keywords, like "day before yesterday" or "tot en met", have three words.
+     */
+    private static final int MAX_WORDS = 3;
+    private static final int VALID = -1;
+    private static final List<String> TEMPLATES = List.of("2000-01-01T00:00:00", "2000-01-01 00:00:00", "00:00:00");
+    /**
+     * Appended to every probed text. No keyword, number or date matches it, and only a parser that got through
+     * the whole text reads it. A Latin-1 character, so the character class lookups of the grammar stay on their fast path.
+     */
+    private static final char END = '\0';
+    /**
+     * Skips whatever follows the expression without reading it, so it doesn't count as progress.
+     */
+    private static final Parser<Void> REST = new Pattern() {
+        @Override
+        public int match(CharSequence src, int begin, int end) {
+            return end - begin;
+        }
+    }.toScanner("rest");
+
+    /**
+     * Returns the offset the longest expression at the start of the input ends at, or -1 if there is none.
+     */
+    private final Parser<Integer> probe;
+    private final KeywordTrie<String> keywords;
+    private final int maxCompletions;
+    private Map<String, Integer> previousProgress = new HashMap<>();
+    private Map<String, Integer> progress = new HashMap<>();
+
+    private String lastPrefix;
+    private DateExpressionSuggestions lastSuggestions;
+    /**
+     * Offset before which the last prefix already failed, or -1 when it may still become viable.
+     */
+    private int lastDeadEnd = -1;
+
+    public DateExpressionAutocompleter(DateValueParser parser) {
+        this(parser, DEFAULT_MAX_COMPLETIONS);
+    }
+
+    public DateExpressionAutocompleter(DateValueParser parser, int maxCompletions) {
+        if (maxCompletions < 0) {
+            throw new IllegalArgumentException("maxCompletions must not be negative");
+        }
+        this.probe = Parsers.sequence(
+                parser.expressionParser().optional(null),
+                Parsers.INDEX,
+                REST,
+                (expression, offset, rest) -> expression == null ? -1 : offset);
+        this.keywords = new KeywordTrie<>(parser.keywords().vocabulary().stream()
+                .sorted()
+                .collect(Collectors.toMap(Function.identity(), Function.identity(), (a, b) -> a, LinkedHashMap::new)));
+        this.maxCompletions = maxCompletions;
+    }
+
+    /**
+     * @param prefix the text typed so far
+     * @return whether the prefix is or can still become an expression, and the keywords that complete its last word(s)
+     */
+    public DateExpressionSuggestions complete(String prefix) {
+        if (prefix.equals(lastPrefix)) {
+            return lastSuggestions;
+        }
+        // keep what was tried for the previous keystroke, and only that, so memory stays bounded
+        Map<String, Integer> reused = previousProgress;
+        reused.clear();
+        previousProgress = progress;
+        progress = reused;
+        DateExpressionSuggestions suggestions;
+        if (lastDeadEnd >= 0 && prefix.startsWith(lastPrefix)) {
+            // the parser gave up before the words being typed, so whatever follows them does not matter
+            suggestions = new DateExpressionSuggestions(false, false, prefix.length(), List.of());
+        } else {
+            suggestions = suggest(prefix);
+            lastDeadEnd = suggestions.viable() ? -1 : deadEnd(prefix);
+        }
+        lastPrefix = prefix;
+        lastSuggestions = suggestions;
+        return suggestions;
+    }
+
+    private DateExpressionSuggestions suggest(String prefix) {
+        int progress = progress(prefix);
+        boolean valid = progress == VALID;
+        boolean viable = valid || progress == prefix.length();
+
+        List<Candidate> candidates = new ArrayList<>();
+        int replaceFrom = prefix.length();
+        int wordStart = prefix.length();
+        for (int words = 0; words < MAX_WORDS; words++) {
+            wordStart = previousWordStart(prefix, wordStart);
+            if (wordStart < 0) {
+                break;
+            }
+            if (!valid && progress < wordStart) {
+                // the parser never read the word, so it fails the same way whatever the word becomes
+                continue;
+            }
+            String stem = prefix.substring(0, wordStart);
+            for (String keyword : keywords.completions(prefix.substring(wordStart))) {
+                String completed = stem + keyword;
+                if (completed.length() == prefix.length()) {
+                    continue;
+                }
+                int completedProgress = progress(completed);
+                if (completedProgress == VALID || completedProgress == completed.length()) {
+                    candidates.add(new Candidate(completed, completedProgress == VALID));
+                    replaceFrom = Math.min(replaceFrom, wordStart);
+                }
+            }
+        }
+        viable = viable || !candidates.isEmpty() || fillsInToViable(prefix);
+
+        int from = replaceFrom;
+        List<String> completions = candidates.stream()
+                .sorted(Comparator.comparing((Candidate candidate) -> !candidate.valid())
+                        .thenComparingInt(candidate -> candidate.text().length())
+                        .thenComparing(Candidate::text))
+                .map(candidate -> candidate.text().substring(from))
+                .distinct()
+                .limit(maxCompletions)
+                .toList();
+        return new DateExpressionSuggestions(valid, viable, replaceFrom, completions);
+    }
+
+    /**
+     * @return true if the last word is a partial date or time, like "2026-0" or "14:3", that a valid one can finish
+     */
+    private boolean fillsInToViable(String prefix) {
+        int wordStart = previousWordStart(prefix, prefix.length());
+        if (wordStart < 0) {
+            return false;
+        }
+        String word = prefix.substring(wordStart);
+        for (String template : TEMPLATES) {
+            if (matchesStartOf(word, template)) {
+                String filled = prefix + template.substring(word.length());
+                int progress = progress(filled);
+                if (progress == VALID || progress == filled.length()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesStartOf(String word, String template) {
+        if (word.length() >= template.length() || !Character.isDigit(word.charAt(0))) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            char t = template.charAt(i);
+            char c = word.charAt(i);
+            if (Character.isDigit(t) ? !Character.isDigit(c) : Character.toUpperCase(c) != t) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the furthest offset the parser read before it failed, the length of the text if it only failed because the text ended,
+     * or {@link #VALID} if the text is an expression
+     */
+    private int progress(String text) {
+        Integer known = progress.get(text);
+        if (known == null) {
+            known = previousProgress.get(text);
+        }
+        if (known == null) {
+            ProbedText probed = new ProbedText(text);
+            known = probe.parse(probed) == text.length() ? VALID : Math.min(probed.furthest[0], text.length());
+        }
+        progress.put(text, known);
+        return known;
+    }
+
+    /**
+     * @return the offset before which a prefix that is not viable already failed, or -1 if it failed in the words being typed,
+     * where typing more can still change the outcome
+     */
+    private int deadEnd(String prefix) {
+        int progress = progress(prefix);
+        int wordStart = prefix.length();
+        for (int words = 0; words < MAX_WORDS && wordStart > 0; words++) {
+            int previous = previousWordStart(prefix, wordStart);
+            if (previous < 0) {
+                break;
+            }
+            wordStart = previous;
+        }
+        return progress >= 0 && progress < wordStart ? progress : -1;
+    }
+
+    /**
+     * @return the start of the word that ends right before end, -1 if there is none
+     * or if the prefix ends in whitespace, so no word is being typed
+     */
+    private static int previousWordStart(String prefix, int end) {
+        if (end == 0 || (end == prefix.length() && Character.isWhitespace(prefix.charAt(end - 1)))) {
+            return -1;
+        }
+        int pos = end;
+        while (pos > 0 && Character.isWhitespace(prefix.charAt(pos - 1))) {
+            pos--;
+        }
+        while (pos > 0 && !Character.isWhitespace(prefix.charAt(pos - 1))) {
+            pos--;
+        }
+        return pos < end ? pos : -1;
+    }
+
+    private record Candidate(String text, boolean valid) {
+    }
+
+    /**
+     * The text followed by {@link #END}, which remembers the furthest index the parser read, also through sub-sequences,
+     * which regular expressions are matched against.
+     */
+    private static final class ProbedText implements CharSequence {
+        private final String text;
+        private final int from;
+        private final int to;
+        private final int[] furthest;
+
+        ProbedText(String text) {
+            this(text, 0, text.length() + 1, new int[1]);
+        }
+
+        private ProbedText(String text, int from, int to, int[] furthest) {
+            this.text = text;
+            this.from = from;
+            this.to = to;
+            this.furthest = furthest;
+        }
+
+        @Override
+        public int length() {
+            return to - from;
+        }
+
+        @Override
+        public char charAt(int index) {
+            int at = from + index;
+            if (at > furthest[0]) {
+                furthest[0] = at;
+            }
+            return at == text.length() ? END : text.charAt(at);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            Objects.checkFromToIndex(start, end, length());
+            return new ProbedText(text, from + start, from + end, furthest);
+        }
+
+        @Override
+        public String toString() {
+            String chars = text.substring(from, Math.min(to, text.length()));
+            return to > text.length() ? chars + END : chars;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package net.vanfleteren.daysie.core;
+
+/**
+ * A date expression found in free text by {@link DateExpressionScanner}.
+ *
+ * @param offset the position of the first character of the expression in the scanned text
+ * @param length the number of characters of the expression, without surrounding whitespace
+ * @param value  the expression, resolved against the time the scan started
+ */
+public record DateExpressionMatch(long offset, int length, DateValue value) {
+}
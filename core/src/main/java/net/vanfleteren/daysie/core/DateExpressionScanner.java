@@ -0,0 +1,278 @@
+package net.vanfleteren.daysie.core;
+
+import org.jparsec.Parser;
+import org.jparsec.Parsers;
+import org.jparsec.pattern.CharPredicates;
+import org.jparsec.pattern.Patterns;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Finds every date expression inside free text, eg "the release moved from next monday to 2026-03-01".
+ * <p>
+ * Matches start and end on a word boundary and do not overlap: at each position the longest expression wins,
+ * and scanning continues after it. The full grammar only runs where an expression can start,
+ * a digit or a keyword that can open an expression, so ordinary words and whitespace cost a few character comparisons.
+ * All matches of one scan are resolved against the same "now", read once from the clock when the scan starts.
+ * <p>
+ * Text is read in chunks, so a {@link Reader} of any size is scanned in constant memory.
+ * Expressions longer than {@value #MAX_EXPRESSION_LENGTH} characters are not found.
+ * <p>
+ * Thread-safe, a single scanner can run any number of scans concurrently.
+ */
+public final class DateExpressionScanner {
+
+    /**
+     * Maximum number of characters, including inner whitespace, of a single expression.
+     */
+    public static final int MAX_EXPRESSION_LENGTH = 256;
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final DateValueParser parser;
+    private final Parser<Match> prefixParser;
+    private final KeywordTrie<Boolean> startKeywords;
+    private final KeywordTrie<Boolean> vocabulary;
+    private final KeywordTrie<Boolean> afterNumberKeywords;
+    private final int bufferSize;
+
+    public DateExpressionScanner(DateValueParser parser) {
+        this(parser, DEFAULT_BUFFER_SIZE);
+    }
+
+    DateExpressionScanner(DateValueParser parser, int bufferSize) {
+        if (bufferSize <= MAX_EXPRESSION_LENGTH) {
+            throw new IllegalArgumentException("bufferSize must be larger than " + MAX_EXPRESSION_LENGTH);
+        }
+        this.parser = parser;
+        this.bufferSize = bufferSize;
+        this.prefixParser = Parsers.sequence(
+                parser.expressionParser().optional(null),
+                Parsers.INDEX,
+                Patterns.many(CharPredicates.ALWAYS).toScanner("rest"),
+                (expression, end, rest) -> expression == null ? null : new Match(expression, end));
+        LanguageKeywords keywords = parser.keywords();
+        List<Set<String>> starts = List.of(keywords.untilInclusive(), keywords.untilExclusive(), keywords.fromInclusive(),
+                keywords.fromExclusive(), keywords.today(), keywords.yesterday(), keywords.tomorrow(),
+                keywords.dayBeforeYesterday(), keywords.dayAfterTomorrow(), keywords.last(), keywords.next(),
+                keywords.current(), keywords.startOf(), keywords.endOf(), keywords.firstDayOf(), keywords.lastDayOf(),
+                keywords.between(), keywords.now(), keywords.in(), keywords.quarters(),
+                keywords.chronoUnits().keySet(), keywords.daysOfWeek().keySet());
+        List<Set<String>> continuations = List.of(keywords.rangeConnectorsInclusive(), keywords.rangeConnectorsExclusive(),
+                keywords.and(), keywords.at(), keywords.ago(), keywords.fromNow(), keywords.am(), keywords.pm());
+        // a start keyword maps to true when it is a whole expression on its own, like "today"
+        this.startKeywords = trie(starts, keyword -> parser.tryCompile(keyword) instanceof ParseResult.Success);
+        this.vocabulary = trie(Stream.concat(starts.stream(), continuations.stream()).toList(), keyword -> true);
+        this.afterNumberKeywords = trie(List.of(keywords.chronoUnits().keySet(), keywords.daysOfWeek().keySet(),
+                keywords.am(), keywords.pm()), keyword -> true);
+    }
+
+    /**
+     * Scans text that is already in memory, eg a String or a {@link CharBuffer} decoded from a memory-mapped file.
+     * @return the expressions found, in order of appearance
+     */
+    public Stream<DateExpressionMatch> scan(CharSequence text) {
+        return toStream(new MatchIterator(text, LocalDateTime.now(parser.clock())));
+    }
+
+    /**
+     * Lazily scans the text of a reader, reading it in chunks as the stream is consumed.
+     * The reader is not closed, read errors are thrown as {@link UncheckedIOException}.
+     * @return the expressions found, in order of appearance
+     */
+    public Stream<DateExpressionMatch> scan(Reader reader) {
+        return toStream(new MatchIterator(reader, bufferSize, LocalDateTime.now(parser.clock())));
+    }
+
+    private static Stream<DateExpressionMatch> toStream(Iterator<DateExpressionMatch> matches) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(matches, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * @return true if an expression can start at the given position, which must not be preceded by a letter or digit.
+     * That is a keyword that is an expression on its own, like "today", a keyword followed by a number or another keyword,
+     * like "in 3 days" but not "in the office", or a number followed by a date or time separator or a keyword like "days"
+     */
+    private boolean isCandidate(CharSequence text, int pos, int end) {
+        if (pos > 0 && Character.isLetterOrDigit(text.charAt(pos - 1))) {
+            return false;
+        }
+        char c = text.charAt(pos);
+        if (Character.isDigit(c)) {
+            int next = skipWhitespace(text, skipDigits(text, pos, end), end);
+            return next < end && (text.charAt(next) == '-' || text.charAt(next) == ':'
+                    || afterNumberKeywords.matchWord(text, next, end) > 0);
+        }
+        if (Character.isWhitespace(c)) {
+            return false;
+        }
+        int length = startKeywords.matchWord(text, pos, end);
+        if (length <= 0) {
+            return false;
+        }
+        if (Boolean.TRUE.equals(startKeywords.categoryOf(text.subSequence(pos, pos + length)))) {
+            return true;
+        }
+        int next = skipWhitespace(text, pos + length, end);
+        return next < end && (Character.isDigit(text.charAt(next)) || vocabulary.matchWord(text, next, end) > 0);
+    }
+
+    private static int skipDigits(CharSequence text, int pos, int end) {
+        while (pos < end && Character.isDigit(text.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int skipWhitespace(CharSequence text, int pos, int end) {
+        while (pos < end && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * @param offset the offset of the start of text in the whole input
+     * @return the expression at pos, without trailing whitespace, or null if there is none
+     */
+    private DateExpressionMatch matchAt(CharSequence text, int pos, int end, long offset, LocalDateTime now) {
+        int windowEnd = Math.min(end, pos + MAX_EXPRESSION_LENGTH);
+        Match match = prefixParser.parse(text.subSequence(pos, windowEnd));
+        if (match == null) {
+            return null;
+        }
+        int length = match.end();
+        while (length > 0 && Character.isWhitespace(text.charAt(pos + length - 1))) {
+            length--;
+        }
+        if (length == 0 || (pos + length < end && Character.isLetterOrDigit(text.charAt(pos + length)))) {
+            // ends in the middle of a word, eg "monday" in "mondays"
+            return null;
+        }
+        try {
+            return new DateExpressionMatch(offset + pos, length, match.expression().resolve(now).toPublic());
+        } catch (RuntimeException e) {
+            // syntactically fine, but outside the supported date range
+            return null;
+        }
+    }
+
+    private static KeywordTrie<Boolean> trie(List<Set<String>> keywordSets, Predicate<String> category) {
+        Map<String, Boolean> keywords = new LinkedHashMap<>();
+        keywordSets.forEach(set -> set.forEach(keyword -> keywords.putIfAbsent(keyword, category.test(keyword))));
+        return new KeywordTrie<>(keywords);
+    }
+
+    private record Match(Expression expression, int end) {
+    }
+
+    private final class MatchIterator implements Iterator<DateExpressionMatch> {
+
+        private final Reader reader;
+        private final char[] buffer;
+        private final LocalDateTime now;
+        private CharSequence text;
+        private int end;
+        private int pos;
+        private long offset;
+        private boolean eof;
+        private DateExpressionMatch next;
+
+        MatchIterator(CharSequence text, LocalDateTime now) {
+            this.reader = null;
+            this.buffer = null;
+            this.now = now;
+            this.text = text;
+            this.end = text.length();
+            this.eof = true;
+        }
+
+        MatchIterator(Reader reader, int bufferSize, LocalDateTime now) {
+            this.reader = reader;
+            this.buffer = new char[bufferSize];
+            this.now = now;
+            this.text = CharBuffer.wrap(buffer);
+            fill();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = findNext();
+            }
+            return next != null;
+        }
+
+        @Override
+        public DateExpressionMatch next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            DateExpressionMatch match = next;
+            next = null;
+            return match;
+        }
+
+        private DateExpressionMatch findNext() {
+            while (true) {
+                // without the end of the input in the buffer, an expression must fit before the end of the buffer,
+                // including the character after it that shows it ends on a word boundary
+                int lastStart = eof ? end : end - MAX_EXPRESSION_LENGTH;
+                while (pos < lastStart) {
+                    if (isCandidate(text, pos, end)) {
+                        DateExpressionMatch match = matchAt(text, pos, end, offset, now);
+                        if (match != null) {
+                            pos += match.length();
+                            return match;
+                        }
+                    }
+                    pos++;
+                }
+                if (eof) {
+                    return null;
+                }
+                fill();
+            }
+        }
+
+        /**
+         * Moves the unscanned tail to the front of the buffer, keeping one character before it for the word boundary check,
+         * and reads until the buffer is full or the reader is exhausted.
+         */
+        private void fill() {
+            int keep = Math.max(0, pos - 1);
+            System.arraycopy(buffer, keep, buffer, 0, end - keep);
+            offset += keep;
+            end -= keep;
+            pos -= keep;
+            try {
+                while (end < buffer.length) {
+                    int read = reader.read(buffer, end, buffer.length - end);
+                    if (read < 0) {
+                        eof = true;
+                        break;
+                    }
+                    end += read;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            text = CharBuffer.wrap(buffer, 0, end);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package net.vanfleteren.daysie.core;
+
+import java.util.List;
+
+/**
+ * What {@link DateExpressionAutocompleter} knows about a prefix typed so far.
+ *
+ * @param valid       the prefix is a complete expression on its own, eg "last 3 days"
+ * @param viable      typing more characters can still turn the prefix into an expression, eg "last 3 da".
+ *                    A valid prefix is always viable.
+ * @param replaceFrom offset in the prefix where the completions start, they replace everything from there on
+ * @param completions keywords that complete the end of the prefix, best first:
+ *                    those that make a complete expression, then shorter ones before longer ones
+ */
+public record DateExpressionSuggestions(boolean valid, boolean viable, int replaceFrom, List<String> completions) {
+
+    public DateExpressionSuggestions {
+        completions = List.copyOf(completions);
+    }
+}
@@ -0,0 +1,314 @@
+package net.vanfleteren.daysie.core;
+
+import org.jspecify.annotations.NonNull;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A set of local date-times, as the minimal list of sorted, disjoint ranges, eg to combine filters like
+ * "last 30 days" and not "last weekend" before planning a scan.
+ * <p>
+ * Every bound is a point just before or just after a date-time, so an inclusive start is just before its date-time
+ * and an exclusive one just after it, and every range runs from its start up to, not including, its end.
+ * That way inclusive and exclusive bounds compare as plain numbers, and ranges that touch, like [a,b) and [b,c], merge.
+ * Bounds are stored like in {@link CompactDateValue}, as epoch seconds and nanos in two primitive arrays.
+ * {@link LocalDateTime#MIN} and {@link LocalDateTime#MAX} are open ends, like everywhere else in Daysie.
+ * <p>
+ * Immutable and safe to share between threads.
+ */
+public final class DateRangeSet {
+
+    private static final DateRangeSet EMPTY = new DateRangeSet(new long[0], new int[0]);
+    private static final int BEFORE = 0;
+    private static final int AFTER = 1;
+    private static final long MIN_SECOND = LocalDateTime.MIN.toEpochSecond(ZoneOffset.UTC);
+    private static final long MAX_SECOND = LocalDateTime.MAX.toEpochSecond(ZoneOffset.UTC);
+    private static final int OPEN_START = BEFORE;
+    private static final int OPEN_END = LocalDateTime.MAX.getNano() << 1 | AFTER;
+
+    // bound 2i starts range i and bound 2i + 1 ends it. The nanos hold the nano of the date-time shifted left by one,
+    // with BEFORE or AFTER in the lowest bit.
+    private final long[] seconds;
+    private final int[] nanos;
+
+    private DateRangeSet(long[] seconds, int[] nanos) {
+        this.seconds = seconds;
+        this.nanos = nanos;
+    }
+
+    public static DateRangeSet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return the set of every date-time, from {@link LocalDateTime#MIN} to {@link LocalDateTime#MAX}
+     */
+    public static DateRangeSet all() {
+        return new DateRangeSet(new long[]{MIN_SECOND, MAX_SECOND}, new int[]{OPEN_START, OPEN_END});
+    }
+
+    /**
+     * @return the union of the values
+     */
+    public static DateRangeSet of(DateValue... values) {
+        return of(Arrays.asList(values));
+    }
+
+    /**
+     * Sorts the values by start and merges the ones that overlap or touch.
+     * @return the union of the values
+     */
+    public static DateRangeSet of(Collection<? extends DateValue> values) {
+        long[] seconds = new long[2 * values.size()];
+        int[] nanos = new int[2 * values.size()];
+        int count = 0;
+        for (DateValue value : values) {
+            DateValue.AbsoluteRange range = switch (value) {
+                case DateValue.AbsoluteRange ar -> ar;
+                case DateValue.AbsoluteDate ad -> new DateValue.AbsoluteRange(ad.date(), ad.date(), true, true);
+            };
+            int start = 2 * count;
+            if (range.from().equals(LocalDateTime.MIN)) {
+                seconds[start] = MIN_SECOND;
+                nanos[start] = OPEN_START;
+            } else {
+                seconds[start] = range.from().toEpochSecond(ZoneOffset.UTC);
+                nanos[start] = range.from().getNano() << 1 | (range.fromInclusive() ? BEFORE : AFTER);
+            }
+            if (range.until().equals(LocalDateTime.MAX)) {
+                seconds[start + 1] = MAX_SECOND;
+                nanos[start + 1] = OPEN_END;
+            } else {
+                seconds[start + 1] = range.until().toEpochSecond(ZoneOffset.UTC);
+                nanos[start + 1] = range.until().getNano() << 1 | (range.untilInclusive() ? AFTER : BEFORE);
+            }
+            // eg (a,a) or a range that ends before it starts contains nothing
+            if (compare(seconds, nanos, start, seconds, nanos, start + 1) < 0) {
+                count++;
+            }
+        }
+
+        int[] order = IntStream.range(0, count).boxed()
+                .sorted((a, b) -> compare(seconds, nanos, 2 * a, seconds, nanos, 2 * b))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        long[] mergedSeconds = new long[2 * count];
+        int[] mergedNanos = new int[2 * count];
+        int merged = 0;
+        for (int range : order) {
+            int start = 2 * range;
+            int last = 2 * merged - 1;
+            if (merged > 0 && compare(seconds, nanos, start, mergedSeconds, mergedNanos, last) <= 0) {
+                if (compare(seconds, nanos, start + 1, mergedSeconds, mergedNanos, last) > 0) {
+                    mergedSeconds[last] = seconds[start + 1];
+                    mergedNanos[last] = nanos[start + 1];
+                }
+            } else {
+                mergedSeconds[last + 1] = seconds[start];
+                mergedNanos[last + 1] = nanos[start];
+                mergedSeconds[last + 2] = seconds[start + 1];
+                mergedNanos[last + 2] = nanos[start + 1];
+                merged++;
+            }
+        }
+        return merged == 0 ? EMPTY : new DateRangeSet(Arrays.copyOf(mergedSeconds, 2 * merged), Arrays.copyOf(mergedNanos, 2 * merged));
+    }
+
+    /**
+     * @return the date-times in this set, the other one or both
+     */
+    public DateRangeSet union(DateRangeSet other) {
+        return combine(other, Operation.UNION);
+    }
+
+    /**
+     * @return the date-times in both this set and the other one
+     */
+    public DateRangeSet intersect(DateRangeSet other) {
+        return combine(other, Operation.INTERSECTION);
+    }
+
+    /**
+     * @return the date-times in this set that are not in the other one
+     */
+    public DateRangeSet minus(DateRangeSet other) {
+        return combine(other, Operation.DIFFERENCE);
+    }
+
+    /**
+     * @return the date-times that are not in this set
+     */
+    public DateRangeSet complement() {
+        boolean openStart = !isEmpty() && seconds[0] == MIN_SECOND && nanos[0] == OPEN_START;
+        boolean openEnd = !isEmpty() && seconds[seconds.length - 1] == MAX_SECOND && nanos[nanos.length - 1] == OPEN_END;
+        int from = openStart ? 1 : 0;
+        int until = openEnd ? seconds.length - 1 : seconds.length;
+        int length = (openStart ? 0 : 1) + (until - from) + (openEnd ? 0 : 1);
+        long[] complementSeconds = new long[length];
+        int[] complementNanos = new int[length];
+        int offset = 0;
+        if (!openStart) {
+            complementSeconds[0] = MIN_SECOND;
+            complementNanos[0] = OPEN_START;
+            offset = 1;
+        }
+        System.arraycopy(seconds, from, complementSeconds, offset, until - from);
+        System.arraycopy(nanos, from, complementNanos, offset, until - from);
+        if (!openEnd) {
+            complementSeconds[length - 1] = MAX_SECOND;
+            complementNanos[length - 1] = OPEN_END;
+        }
+        return length == 0 ? EMPTY : new DateRangeSet(complementSeconds, complementNanos);
+    }
+
+    public boolean isEmpty() {
+        return seconds.length == 0;
+    }
+
+    /**
+     * @return the number of disjoint ranges
+     */
+    public int size() {
+        return seconds.length / 2;
+    }
+
+    /**
+     * @return the range at the index, in order of start
+     */
+    public DateValue.AbsoluteRange range(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int start = 2 * index;
+        boolean openStart = seconds[start] == MIN_SECOND && nanos[start] == OPEN_START;
+        boolean openEnd = seconds[start + 1] == MAX_SECOND && nanos[start + 1] == OPEN_END;
+        return new DateValue.AbsoluteRange(
+                openStart ? LocalDateTime.MIN : toDateTime(start),
+                openEnd ? LocalDateTime.MAX : toDateTime(start + 1),
+                !openStart && (nanos[start] & 1) == BEFORE,
+                !openEnd && (nanos[start + 1] & 1) == AFTER);
+    }
+
+    /**
+     * @return the disjoint ranges, in order of start
+     */
+    public List<DateValue.AbsoluteRange> ranges() {
+        List<DateValue.AbsoluteRange> ranges = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            ranges.add(range(i));
+        }
+        return ranges;
+    }
+
+    /**
+     * Finds the range in O(log n), for n ranges.
+     * @return true if the date-time is in this set
+     */
+    public boolean contains(LocalDateTime dateTime) {
+        // the date-time is in a range if the point just before it is
+        long second = dateTime.toEpochSecond(ZoneOffset.UTC);
+        int nano = dateTime.getNano() << 1 | BEFORE;
+        int low = 0;
+        int high = size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (compare(seconds[2 * middle], nanos[2 * middle], second, nano) > 0) {
+                high = middle - 1;
+            } else if (compare(seconds[2 * middle + 1], nanos[2 * middle + 1], second, nano) <= 0) {
+                low = middle + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Walks the bounds of both sets in order and emits a bound wherever the operation flips from outside to inside or back.
+     * Both sets are sorted, so this is O(n + m) and the result is sorted and disjoint as well.
+     */
+    private DateRangeSet combine(DateRangeSet other, Operation operation) {
+        long[] resultSeconds = new long[seconds.length + other.seconds.length];
+        int[] resultNanos = new int[nanos.length + other.nanos.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        boolean inside = false;
+        while (i < seconds.length || j < other.seconds.length) {
+            int order;
+            if (i == seconds.length) {
+                order = 1;
+            } else if (j == other.seconds.length) {
+                order = -1;
+            } else {
+                order = compare(seconds, nanos, i, other.seconds, other.nanos, j);
+            }
+            long second = order <= 0 ? seconds[i] : other.seconds[j];
+            int nano = order <= 0 ? nanos[i] : other.nanos[j];
+            if (order <= 0) {
+                i++;
+            }
+            if (order >= 0) {
+                j++;
+            }
+            // after passing an even number of bounds we are outside the set again
+            boolean nowInside = operation.test(i % 2 == 1, j % 2 == 1);
+            if (nowInside != inside) {
+                resultSeconds[count] = second;
+                resultNanos[count] = nano;
+                count++;
+                inside = nowInside;
+            }
+        }
+        return count == 0 ? EMPTY : new DateRangeSet(Arrays.copyOf(resultSeconds, count), Arrays.copyOf(resultNanos, count));
+    }
+
+    private LocalDateTime toDateTime(int bound) {
+        return LocalDateTime.ofEpochSecond(seconds[bound], nanos[bound] >>> 1, ZoneOffset.UTC);
+    }
+
+    private static int compare(long[] seconds, int[] nanos, int bound, long[] otherSeconds, int[] otherNanos, int otherBound) {
+        return compare(seconds[bound], nanos[bound], otherSeconds[otherBound], otherNanos[otherBound]);
+    }
+
+    private static int compare(long second, int nano, long otherSecond, int otherNano) {
+        int order = Long.compare(second, otherSecond);
+        return order != 0 ? order : Integer.compare(nano, otherNano);
+    }
+
+    private enum Operation {
+        UNION,
+        INTERSECTION,
+        DIFFERENCE;
+
+        boolean test(boolean inThis, boolean inOther) {
+            return switch (this) {
+                case UNION -> inThis || inOther;
+                case INTERSECTION -> inThis && inOther;
+                case DIFFERENCE -> inThis && !inOther;
+            };
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DateRangeSet other && Arrays.equals(seconds, other.seconds) && Arrays.equals(nanos, other.nanos);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(seconds) + Arrays.hashCode(nanos);
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return ranges().stream().map(DateValue.AbsoluteRange::toString).collect(Collectors.joining(" ∪ ", "{", "}"));
+    }
+}
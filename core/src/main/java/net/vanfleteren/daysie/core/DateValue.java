@@ -3,9 +3,80 @@ package net.vanfleteren.daysie.core;
 import org.jspecify.annotations.NonNull;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.function.Predicate;
 
 public sealed interface DateValue {
 
+    /**
+     * @return a predicate that tests whether a local date-time falls inside this value
+     */
+    default Predicate<LocalDateTime> toPredicate() {
+        return switch (this) {
+            case AbsoluteRange ar -> {
+                boolean openStart = ar.from().equals(LocalDateTime.MIN);
+                boolean openEnd = ar.until().equals(LocalDateTime.MAX);
+                LocalDateTime from = ar.from();
+                LocalDateTime until = ar.until();
+                Predicate<LocalDateTime> afterStart = ar.fromInclusive() ? t -> !t.isBefore(from) : t -> t.isAfter(from);
+                Predicate<LocalDateTime> beforeEnd = ar.untilInclusive() ? t -> !t.isAfter(until) : t -> t.isBefore(until);
+                if (openStart && openEnd) {
+                    yield t -> true;
+                } else if (openStart) {
+                    yield beforeEnd;
+                } else if (openEnd) {
+                    yield afterStart;
+                }
+                yield afterStart.and(beforeEnd);
+            }
+            case AbsoluteDate ad -> ad.date()::isEqual;
+        };
+    }
+
+    /**
+     * Converts this value to instants in the given zone, see {@link DateValueParser#parseInstant(String, ZoneId)}
+     * for how local times in daylight saving time gaps and overlaps are converted.
+     * @return the range of instants
+     */
+    default InstantRange toInstantRange(ZoneId zone) {
+        return DateCalculator.toInstantRange(this, zone);
+    }
+
+    /**
+     * @return a predicate over epoch milliseconds, for this value converted to instants in the given zone
+     */
+    default EpochPredicate toLongPredicate(ZoneId zone) {
+        return toInstantRange(zone).toLongPredicate();
+    }
+
+    /**
+     * @return this value as a set, to combine it with other values
+     */
+    default DateRangeSet toRangeSet() {
+        return DateRangeSet.of(this);
+    }
+
+    /**
+     * @return the date-times in this value, the other one or both
+     */
+    default DateRangeSet union(DateValue other) {
+        return DateRangeSet.of(this, other);
+    }
+
+    /**
+     * @return the date-times in both this value and the other one
+     */
+    default DateRangeSet intersect(DateValue other) {
+        return toRangeSet().intersect(other.toRangeSet());
+    }
+
+    /**
+     * @return the date-times in this value that are not in the other one, eg "last 30 days" minus "last weekend"
+     */
+    default DateRangeSet minus(DateValue other) {
+        return toRangeSet().minus(other.toRangeSet());
+    }
+
     record AbsoluteRange(LocalDateTime from, LocalDateTime until, boolean fromInclusive, boolean untilInclusive) implements DateValue {
         @Override
         public @NonNull String toString() {
@@ -3,15 +3,29 @@ package net.vanfleteren.daysie.core;
 import org.jspecify.annotations.NonNull;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
 /**
- * Internal representation of Range/Date
+ * Internal representation of Range/Date.
+ * A bound that was counted on the timeline, like now or 3 hours ago, keeps the offset it had there,
+ * so it converts back to exactly that instant even when its local time occurs twice.
+ * Bounds in calendar time, like midnight, have no offset.
  */
 sealed interface DateValueInt {
 
     DateValue toPublic();
 
-    record AbsoluteRange(LocalDateTime from, LocalDateTime until, boolean fromInclusive, boolean untilInclusive) implements DateValueInt {
+    /**
+     * @param fromOffset  the offset of from on the timeline, or null if from is in calendar time
+     * @param untilOffset the offset of until on the timeline, or null if until is in calendar time
+     */
+    record AbsoluteRange(LocalDateTime from, LocalDateTime until, boolean fromInclusive, boolean untilInclusive,
+                         ZoneOffset fromOffset, ZoneOffset untilOffset) implements DateValueInt {
+
+        AbsoluteRange(LocalDateTime from, LocalDateTime until, boolean fromInclusive, boolean untilInclusive) {
+            this(from, until, fromInclusive, untilInclusive, null, null);
+        }
+
         @Override
         public @NonNull String toString() {
             String startBracket = fromInclusive ? "[" : "(";
@@ -28,7 +42,15 @@ sealed interface DateValueInt {
         }
     }
 
-    record AbsoluteDateInt(LocalDateTime date, boolean isRangeBoundary, boolean isInclusive) implements DateValueInt {
+    /**
+     * @param offset the offset of date on the timeline, or null if date is in calendar time
+     */
+    record AbsoluteDateInt(LocalDateTime date, boolean isRangeBoundary, boolean isInclusive, ZoneOffset offset) implements DateValueInt {
+
+        AbsoluteDateInt(LocalDateTime date, boolean isRangeBoundary, boolean isInclusive) {
+            this(date, isRangeBoundary, isInclusive, null);
+        }
+
         @Override
         public @NonNull String toString() {
             return String.format("[%s,%s]", date, date);
@@ -5,22 +5,45 @@ import org.jparsec.Parsers;
 import org.jparsec.Scanners;
 import org.jparsec.pattern.Patterns;
 
+import java.nio.CharBuffer;
 import java.time.*;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
-import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class DateValueParser {
-    private static final Comparator<String> BY_LENGTH_DESC = Comparator.comparingInt(String::length).reversed();
+    private static final int BATCH_DEDUPLICATION_LIMIT = 100_000;
 
-    private final Parser<DateValueInt> dateValueParser;
-    private final Parser<DateValueInt> absoluteDateTimeParser;
+    /**
+     * Grammars are immutable and do not depend on the clock, so parsers for the same keywords share one.
+     */
+    private static final Map<LanguageKeywords, Grammar> GRAMMARS = new ConcurrentHashMap<>();
+
+    private final LanguageGrammars grammars;
+    private final Clock clock;
+    private final ExpressionCache cache;
+    private final ParseMetricsListener metrics;
 
     private record ChronoUnitInfo(ChronoUnit unit, boolean isQuarter) {}
 
+    record Grammar(
+            LanguageKeywords keywords,
+            Parser<Expression> dateValueParser,
+            Parser<ParseResult<Expression>> totalParser,
+            IsoLiteralScanner isoLiteralScanner,
+            Parser<Expression> absoluteDateTimeParser) {
+    }
+
     public DateValueParser() {
         this(LanguageKeywords.ENGLISH, Clock.systemDefaultZone());
     }
@@ -29,32 +52,65 @@ public class DateValueParser {
         this(keywords, Clock.systemDefaultZone());
     }
 
+    /**
+     * Creates a parser for the given keywords that resolves relative expressions against the clock.
+     * The grammar is built once per distinct LanguageKeywords and shared, so creating parsers, eg one per clock, is cheap.
+     * Grammars are kept for the lifetime of the class, so reuse LanguageKeywords instances instead of building new ones per parser.
+     */
     public DateValueParser(LanguageKeywords keywords, Clock clock) {
+        this(new LanguageGrammars(grammarFor(keywords)), clock, null, null);
+    }
+
+    /**
+     * Creates a parser for several languages that, unlike a parser for {@link LanguageKeywords#combine(List)},
+     * keeps a grammar per language. Each input is parsed with the grammar of the language its words belong to,
+     * which is faster than the combined grammar when many languages are loaded, and the grammar for a language
+     * is only built when input in that language is first parsed. Input mixing languages is parsed with the combined grammar,
+     * so the results are the same as for a parser for the combined keywords.
+     * @param languages at most 64 languages. Input that several of them know, like "2026-02-03",
+     *                  is parsed with the grammar of one that is already built, or else the first of them.
+     */
+    public DateValueParser(List<LanguageKeywords> languages, Clock clock) {
+        this(new LanguageGrammars(languages), clock, null, null);
+    }
+
+    private DateValueParser(LanguageGrammars grammars, Clock clock, ExpressionCache cache, ParseMetricsListener metrics) {
+        this.grammars = grammars;
+        this.clock = clock;
+        this.cache = cache;
+        this.metrics = metrics;
+    }
+
+    static Grammar grammarFor(LanguageKeywords keywords) {
+        return GRAMMARS.computeIfAbsent(keywords, DateValueParser::createGrammar);
+    }
+
+    private static Grammar createGrammar(LanguageKeywords keywords) {
         Parser<LocalTime> timeParser = createTimeParser(keywords);
-        this.absoluteDateTimeParser = createAbsoluteDateTimeParser(keywords, clock, timeParser);
+        Parser<Expression> absoluteDateTimeParser = createAbsoluteDateTimeParser(keywords, timeParser);
 
-        Parser<Integer> numberParser = Scanners.INTEGER.map(Integer::parseInt);
+        Parser<Integer> numberParser = mapOrFail(Scanners.INTEGER, DateValueParser::toInteger);
         Parser<ChronoUnitInfo> chronoUnitParser = createChronoUnitParser(keywords);
-        Parser<DateValueInt> relativeDateParser = createRelativeDateParser(keywords, clock);
+        Parser<Expression> relativeDateParser = createRelativeDateParser(keywords);
 
-        Parser<DateValueInt> generalizedLastParser = createGeneralizedLastParser(keywords, clock, chronoUnitParser, numberParser);
-        Parser<DateValueInt> generalizedNextParser = createGeneralizedNextParser(keywords, clock, chronoUnitParser, numberParser);
-        Parser<DateValueInt> generalizedThisParser = createGeneralizedThisParser(keywords, clock, chronoUnitParser, numberParser);
+        Parser<Expression> generalizedLastParser = createGeneralizedLastParser(keywords, chronoUnitParser, numberParser);
+        Parser<Expression> generalizedNextParser = createGeneralizedNextParser(keywords, chronoUnitParser, numberParser);
+        Parser<Expression> generalizedThisParser = createGeneralizedThisParser(keywords, chronoUnitParser, numberParser);
 
-        Parser<DateValueInt> relativePoint = createRelativePointParser(keywords, clock, chronoUnitParser, numberParser);
-        Parser<DateValueInt> relativePointWithTime = createRelativePointWithTimeParser(keywords, relativePoint, timeParser);
+        Parser<Expression> relativePoint = createRelativePointParser(keywords, chronoUnitParser, numberParser);
+        Parser<Expression> relativePointWithTime = createRelativePointWithTimeParser(keywords, relativePoint, timeParser);
 
         Parser<String> rangeOp = createRangeOp(keywords);
 
-        Parser.Reference<DateValueInt> absoluteRangeRef = Parser.newReference();
-        Parser<DateValueInt> absoluteRange = absoluteRangeRef.lazy();
+        Parser.Reference<Expression> absoluteRangeRef = Parser.newReference();
+        Parser<Expression> absoluteRange = absoluteRangeRef.lazy();
 
-        Parser.Reference<DateValueInt> finalAbsoluteDateTimeParserRef = Parser.newReference();
-        Parser<DateValueInt> finalAbsoluteDateTimeParser = finalAbsoluteDateTimeParserRef.lazy();
+        Parser.Reference<Expression> finalAbsoluteDateTimeParserRef = Parser.newReference();
+        Parser<Expression> finalAbsoluteDateTimeParser = finalAbsoluteDateTimeParserRef.lazy();
 
         absoluteRangeRef.set(createRangeParser(keywords, finalAbsoluteDateTimeParser, rangeOp));
 
-        Parser<DateValueInt> baseModifierParser = Parsers.or(
+        Parser<Expression> baseModifierParser = Parsers.or(
                 generalizedLastParser,
                 generalizedNextParser,
                 generalizedThisParser,
@@ -62,11 +118,11 @@ public class DateValueParser {
                 absoluteDateTimeParser
         );
 
-        Parser<DateValueInt> startOfParser = createStartOfParser(keywords, baseModifierParser);
-        Parser<DateValueInt> endOfParser = createEndOfParser(keywords, baseModifierParser);
-        Parser<DateValueInt> firstDayOfParser = createFirstDayOfParser(keywords, baseModifierParser);
-        Parser<DateValueInt> lastDayOfParser = createLastDayOfParser(keywords, baseModifierParser);
-        Parser<DateValueInt> betweenParser = createBetweenParser(keywords, finalAbsoluteDateTimeParser);
+        Parser<Expression> startOfParser = createStartOfParser(keywords, baseModifierParser);
+        Parser<Expression> endOfParser = createEndOfParser(keywords, baseModifierParser);
+        Parser<Expression> firstDayOfParser = createFirstDayOfParser(keywords, baseModifierParser);
+        Parser<Expression> lastDayOfParser = createLastDayOfParser(keywords, baseModifierParser);
+        Parser<Expression> betweenParser = createBetweenParser(keywords, finalAbsoluteDateTimeParser);
 
         finalAbsoluteDateTimeParserRef.set(Parsers.longest(
                 startOfParser,
@@ -83,27 +139,80 @@ public class DateValueParser {
                 absoluteDateTimeParser
         ));
 
-        Parser<DateValueInt> untilAbsoluteDate = createUntilParser(keywords, finalAbsoluteDateTimeParser);
-        Parser<DateValueInt> fromAbsoluteDate = createFromParser(keywords, createDateOnlyParser(keywords, clock), finalAbsoluteDateTimeParser);
+        Parser<Expression> untilAbsoluteDate = createUntilParser(keywords, finalAbsoluteDateTimeParser);
+        Parser<Expression> fromAbsoluteDate = createFromParser(keywords, createDateOnlyParser(keywords), finalAbsoluteDateTimeParser);
 
-        this.dateValueParser = Parsers.longest(
+        Parser<Expression> dateValueParser = Parsers.longest(
                 absoluteRange,
                 untilAbsoluteDate,
                 fromAbsoluteDate,
                 finalAbsoluteDateTimeParser
         ).followedBy(Scanners.WHITESPACES.many());
+        return new Grammar(keywords, dateValueParser, createTotalParser(dateValueParser),
+                new IsoLiteralScanner(keywords), absoluteDateTimeParser);
     }
 
-    private Parser<ChronoUnitInfo> createChronoUnitParser(LanguageKeywords keywords) {
-        return Parsers.or(
-                keywords.chronoUnits().entrySet().stream()
-                        .sorted((e1, e2) -> e2.getKey().length() - e1.getKey().length())
-                        .map(entry -> toScanner(Set.of(entry.getKey())).map(ignored -> new ChronoUnitInfo(entry.getValue(), containsIgnoreCase(keywords.quarters(), entry.getKey()))))
-                        .toList()
+    /**
+     * Returns a parser sharing this grammar, cache and metrics that resolves relative expressions against the given clock.
+     * @return a parser for the clock
+     */
+    public DateValueParser withClock(Clock clock) {
+        return new DateValueParser(grammars, clock, cache, metrics);
+    }
+
+    /**
+     * Returns a parser sharing this grammar, clock and metrics that caches up to maximumSize compiled expressions.
+     * Entries are keyed on the lower-cased, whitespace-collapsed input and hold the clock-independent form,
+     * so relative expressions are still resolved against the clock on every hit.
+     * Every parse, tryParse, parseInstant, parseAll and compile overload goes through the cache, except {@link #parser()}
+     * and {@link #componentParser()}. It is safe to share between threads, and hits don't take a lock.
+     * @return a caching parser
+     */
+    public DateValueParser withCache(int maximumSize) {
+        return new DateValueParser(grammars, clock, new ExpressionCache(maximumSize), metrics);
+    }
+
+    /**
+     * Returns a parser sharing this grammar, clock and cache that reports the latency, outcome, grammar production
+     * and cache use of every compiled input to the listener, eg a {@link ParseMetricsRecorder}.
+     * Parsers without a listener do not read the time or call anything extra.
+     * @return an instrumented parser
+     */
+    public DateValueParser withMetrics(ParseMetricsListener listener) {
+        return new DateValueParser(grammars, clock, cache, Objects.requireNonNull(listener));
+    }
+
+    /**
+     * Returns the hit, miss and eviction counters of the parse cache, all zero when caching is not enabled.
+     * @return the cache counters
+     */
+    public ParseCacheStats cacheStats() {
+        return cache == null ? ParseCacheStats.EMPTY : cache.stats();
+    }
+
+    /**
+     * Wraps the grammar in a parser that never fails: it records how far the grammar got and consumes the rest,
+     * so invalid input is reported as a Failure in a single pass, without jparsec building a ParserException.
+     */
+    private static Parser<ParseResult<Expression>> createTotalParser(Parser<Expression> dateValueParser) {
+        return Parsers.sequence(
+                dateValueParser.optional(null),
+                Parsers.INDEX,
+                Scanners.ANY_CHAR.skipMany(),
+                Parsers.INDEX,
+                (expression, offset, rest, end) -> expression != null && offset.equals(end)
+                        ? new ParseResult.Success<>(expression)
+                        : new ParseResult.Failure<>(offset)
         );
     }
 
-    private Parser<DateValueInt> createGeneralizedLastParser(LanguageKeywords keywords, Clock clock, Parser<ChronoUnitInfo> chronoUnitParser, Parser<Integer> numberParser) {
+    private static Parser<ChronoUnitInfo> createChronoUnitParser(LanguageKeywords keywords) {
+        Map<String, ChronoUnitInfo> units = new LinkedHashMap<>();
+        keywords.chronoUnits().forEach((keyword, unit) -> units.put(keyword, new ChronoUnitInfo(unit, containsIgnoreCase(keywords.quarters(), keyword))));
+        return new KeywordTrie<>(units).toParser("chrono-unit");
+    }
+
+    private static Parser<Expression> createGeneralizedLastParser(LanguageKeywords keywords, Parser<ChronoUnitInfo> chronoUnitParser, Parser<Integer> numberParser) {
         return Parsers.sequence(
                 toScanner(keywords.last()),
                 Scanners.WHITESPACES.atLeast(1),
@@ -114,13 +223,12 @@ public class DateValueParser {
                 (op, s1, info) -> {
                     int amount = (Integer) info[0];
                     ChronoUnitInfo unitInfo = (ChronoUnitInfo) info[1];
-                    LocalDateTime now = LocalDateTime.now(clock);
-                    return DateCalculator.calculateLastRange(now, unitInfo.unit(), amount, unitInfo.isQuarter());
+                    return (Expression) new Expression.LastRange(unitInfo.unit(), amount, unitInfo.isQuarter());
                 }
         ).notFollowedBy(Scanners.WHITESPACES.many().next(toScanner(keywords.at()).optional().next(Scanners.WHITESPACES.many()).next(TIME)));
     }
 
-    private Parser<DateValueInt> createGeneralizedNextParser(LanguageKeywords keywords, Clock clock, Parser<ChronoUnitInfo> chronoUnitParser, Parser<Integer> numberParser) {
+    private static Parser<Expression> createGeneralizedNextParser(LanguageKeywords keywords, Parser<ChronoUnitInfo> chronoUnitParser, Parser<Integer> numberParser) {
         return Parsers.sequence(
                 toScanner(keywords.next()),
                 Scanners.WHITESPACES.atLeast(1),
@@ -131,13 +239,12 @@ public class DateValueParser {
                 (op, s1, info) -> {
                     int amount = (Integer) info[0];
                     ChronoUnitInfo unitInfo = (ChronoUnitInfo) info[1];
-                    LocalDateTime now = LocalDateTime.now(clock);
-                    return DateCalculator.calculateNextRange(now, unitInfo.unit(), amount, unitInfo.isQuarter());
+                    return (Expression) new Expression.NextRange(unitInfo.unit(), amount, unitInfo.isQuarter());
                 }
         ).notFollowedBy(Scanners.WHITESPACES.many().next(toScanner(keywords.at()).optional().next(Scanners.WHITESPACES.many()).next(TIME)));
     }
 
-    private Parser<DateValueInt> createGeneralizedThisParser(LanguageKeywords keywords, Clock clock, Parser<ChronoUnitInfo> chronoUnitParser, Parser<Integer> numberParser) {
+    private static Parser<Expression> createGeneralizedThisParser(LanguageKeywords keywords, Parser<ChronoUnitInfo> chronoUnitParser, Parser<Integer> numberParser) {
         return Parsers.sequence(
                 toScanner(keywords.current()),
                 Scanners.WHITESPACES.atLeast(1),
@@ -148,207 +255,125 @@ public class DateValueParser {
                 (op, s1, info) -> {
                     int amount = (Integer) info[0];
                     ChronoUnitInfo unitInfo = (ChronoUnitInfo) info[1];
-                    LocalDateTime now = LocalDateTime.now(clock);
-                    return DateCalculator.calculateThisRange(now, unitInfo.unit(), amount, unitInfo.isQuarter());
+                    return (Expression) new Expression.ThisRange(unitInfo.unit(), amount, unitInfo.isQuarter());
                 }
         ).notFollowedBy(Scanners.WHITESPACES.many().next(toScanner(keywords.at()).optional().next(Scanners.WHITESPACES.many()).next(TIME)));
     }
 
-    private Parser<DateValueInt> createRelativePointParser(LanguageKeywords keywords, Clock clock, Parser<ChronoUnitInfo> chronoUnitParser, Parser<Integer> numberParser) {
-        Parser<DayOfWeek> dayOfWeekParser = Parsers.or(
-                keywords.daysOfWeek().entrySet().stream()
-                        .sorted((e1, e2) -> e2.getKey().length() - e1.getKey().length())
-                        .map(entry -> Scanners.stringCaseInsensitive(entry.getKey()).source().map(ignored -> entry.getValue()))
-                        .toList()
-        );
+    private static Parser<Expression> createRelativePointParser(LanguageKeywords keywords, Parser<ChronoUnitInfo> chronoUnitParser, Parser<Integer> numberParser) {
+        Parser<DayOfWeek> dayOfWeekParser = new KeywordTrie<>(keywords.daysOfWeek()).toParser("day-of-week");
 
-        Parser<DateValueInt> dayOfWeekAgoParser = Parsers.sequence(
+        Parser<Expression> dayOfWeekAgoParser = Parsers.sequence(
                 numberParser.optional(1),
                 Scanners.WHITESPACES.many(),
                 dayOfWeekParser,
                 Scanners.WHITESPACES.many(),
                 toScanner(keywords.ago()),
-                (amount, s1, dayOfWeek, s2, op) -> {
-                    LocalDateTime now = LocalDateTime.now(clock);
-                    return DateCalculator.calculateDayOfWeekAgo(now, dayOfWeek, amount);
-                }
+                (amount, s1, dayOfWeek, s2, op) -> new Expression.DayOfWeekAgo(dayOfWeek, amount)
         );
 
-        Parser<DateValueInt> dayOfWeekFromNowParser = Parsers.sequence(
+        Parser<Expression> dayOfWeekFromNowParser = Parsers.sequence(
                 numberParser.optional(1),
                 Scanners.WHITESPACES.many(),
                 dayOfWeekParser,
                 Scanners.WHITESPACES.many(),
                 toScanner(keywords.fromNow()),
-                (amount, s1, dayOfWeek, s2, op) -> {
-                    LocalDateTime now = LocalDateTime.now(clock);
-                    return DateCalculator.calculateDayOfWeekFromNow(now, dayOfWeek, amount);
-                }
+                (amount, s1, dayOfWeek, s2, op) -> new Expression.DayOfWeekFromNow(dayOfWeek, amount)
         );
 
-        Parser<DateValueInt> agoParser = Parsers.sequence(
+        Parser<Expression> agoParser = Parsers.sequence(
                 numberParser.optional(1),
                 Scanners.WHITESPACES.many(),
                 chronoUnitParser,
                 Scanners.WHITESPACES.atLeast(1),
                 toScanner(keywords.ago()),
-                (amount, s1, unitInfo, s2, op) -> {
-                    LocalDateTime now = LocalDateTime.now(clock);
-                    return DateCalculator.calculateAgoDate(now, unitInfo.unit(), amount);
-                }
+                (amount, s1, unitInfo, s2, op) -> new Expression.Ago(unitInfo.unit(), amount)
         );
 
-        Parser<DateValueInt> fromNowParser = Parsers.sequence(
+        Parser<Expression> fromNowParser = Parsers.sequence(
                 numberParser.optional(1),
                 Scanners.WHITESPACES.many(),
                 chronoUnitParser,
                 Scanners.WHITESPACES.atLeast(1),
                 toScanner(keywords.fromNow()),
-                (amount, s1, unitInfo, s2, op) -> {
-                    LocalDateTime now = LocalDateTime.now(clock);
-                    return DateCalculator.calculateFromNowDate(now, unitInfo.unit(), amount);
-                }
+                (amount, s1, unitInfo, s2, op) -> new Expression.FromNow(unitInfo.unit(), amount)
         );
 
-        Parser<DateValueInt> inParser = Parsers.sequence(
+        Parser<Expression> inParser = Parsers.sequence(
                 toScanner(keywords.in()),
                 Scanners.WHITESPACES.atLeast(1),
                 numberParser.optional(1),
                 Scanners.WHITESPACES.many(),
                 chronoUnitParser,
-                (op, s1, amount, s2, unitInfo) -> {
-                    LocalDateTime now = LocalDateTime.now(clock);
-                    return DateCalculator.calculateFromNowDate(now, unitInfo.unit(), amount);
-                }
+                (op, s1, amount, s2, unitInfo) -> new Expression.FromNow(unitInfo.unit(), amount)
         );
 
         return Parsers.or(dayOfWeekAgoParser, dayOfWeekFromNowParser, agoParser, fromNowParser, inParser);
     }
 
-    private Parser<DateValueInt> createRelativePointWithTimeParser(LanguageKeywords keywords, Parser<DateValueInt> relativePoint, Parser<LocalTime> timeParser) {
+    private static Parser<Expression> createRelativePointWithTimeParser(LanguageKeywords keywords, Parser<Expression> relativePoint, Parser<LocalTime> timeParser) {
         return Parsers.sequence(
                 relativePoint,
                 Scanners.WHITESPACES.atLeast(1),
                 toScanner(keywords.at()).optional(),
                 Scanners.WHITESPACES.many(),
                 timeParser,
-                (pointVal, s1, at, s2, time) -> switch (pointVal) {
-                    case DateValueInt.AbsoluteDateInt ad -> {
-                        LocalDateTime dt = LocalDateTime.of(ad.date().toLocalDate(), time);
-                        yield new DateValueInt.AbsoluteDateInt(dt, false, true);
-                    }
-                    default -> throw new IllegalStateException("Unexpected DateValue type: " + pointVal.getClass());
-                }
+                (point, s1, at, s2, time) -> new Expression.AtTime(point, time)
         );
     }
 
-    private Parser<String> createRangeOp(LanguageKeywords keywords) {
+    private static Parser<String> createRangeOp(LanguageKeywords keywords) {
         return Parsers.or(toScanner(keywords.rangeConnectorsInclusive()), toScanner(keywords.rangeConnectorsExclusive()));
     }
 
-    private Parser<DateValueInt> createRangeParser(LanguageKeywords keywords, Parser<DateValueInt> finalAbsoluteDateTimeParser, Parser<String> rangeOp) {
+    private static Parser<Expression> createRangeParser(LanguageKeywords keywords, Parser<Expression> finalAbsoluteDateTimeParser, Parser<String> rangeOp) {
         return Parsers.sequence(
                 finalAbsoluteDateTimeParser,
                 Scanners.WHITESPACES.many(),
                 rangeOp,
                 Scanners.WHITESPACES.many(),
                 finalAbsoluteDateTimeParser,
-                (fromValue, s1, op, s2, untilValue) -> {
-                    LocalDateTime from = switch (fromValue) {
-                        case DateValueInt.AbsoluteDateInt ad -> ad.date();
-                        case DateValueInt.AbsoluteRange ar -> ar.from();
-                    };
-
-                    LocalDateTime until;
-                    boolean isUntilInclusive;
-
-                    switch (untilValue) {
-                        case DateValueInt.AbsoluteDateInt ad -> {
-                            until = ad.date();
-                            isUntilInclusive = containsIgnoreCase(keywords.rangeConnectorsInclusive(), op);
-                        }
-                        case DateValueInt.AbsoluteRange ar -> {
-                            if (containsIgnoreCase(keywords.rangeConnectorsInclusive(), op)) {
-                                until = ar.until();
-                                isUntilInclusive = ar.untilInclusive();
-                            } else {
-                                until = ar.from();
-                                isUntilInclusive = false;
-                            }
-                        }
-                    }
-
-                    return new DateValueInt.AbsoluteRange(from, until, true, isUntilInclusive);
-                }
+                (from, s1, op, s2, until) -> new Expression.Range(from, until, containsIgnoreCase(keywords.rangeConnectorsInclusive(), op))
         );
     }
 
-    private Parser<DateValueInt> createStartOfParser(LanguageKeywords keywords, Parser<DateValueInt> base) {
+    private static Parser<Expression> createStartOfParser(LanguageKeywords keywords, Parser<Expression> base) {
         return Parsers.sequence(
                 toScanner(keywords.startOf()),
                 Scanners.WHITESPACES.atLeast(1),
                 base,
-                (op, spaces, dateValue) -> switch (dateValue) {
-                    case DateValueInt.AbsoluteRange ar -> new DateValueInt.AbsoluteDateInt(ar.from(), true, ar.fromInclusive());
-                    case DateValueInt.AbsoluteDateInt ad -> ad;
-                }
+                (op, spaces, expression) -> new Expression.StartOf(expression)
         );
     }
 
-    private Parser<DateValueInt> createEndOfParser(LanguageKeywords keywords, Parser<DateValueInt> base) {
+    private static Parser<Expression> createEndOfParser(LanguageKeywords keywords, Parser<Expression> base) {
         return Parsers.sequence(
                 toScanner(keywords.endOf()),
                 Scanners.WHITESPACES.atLeast(1),
                 base,
-                (op, spaces, dateValue) -> switch (dateValue) {
-                    case DateValueInt.AbsoluteRange ar -> new DateValueInt.AbsoluteDateInt(ar.until(), true, false);
-                    case DateValueInt.AbsoluteDateInt ad -> ad;
-                    default -> throw new IllegalStateException("Unexpected DateValue type: " + dateValue.getClass());
-                }
+                (op, spaces, expression) -> new Expression.EndOf(expression)
         );
     }
 
-    private Parser<DateValueInt> createFirstDayOfParser(LanguageKeywords keywords, Parser<DateValueInt> base) {
+    private static Parser<Expression> createFirstDayOfParser(LanguageKeywords keywords, Parser<Expression> base) {
         return Parsers.sequence(
                 toScanner(keywords.firstDayOf()),
                 Scanners.WHITESPACES.atLeast(1),
                 base,
-                (op, spaces, dateValue) -> switch (dateValue) {
-                    case DateValueInt.AbsoluteRange ar -> new DateValueInt.AbsoluteRange(ar.from().with(LocalTime.MIN), ar.from().plusDays(1).with(LocalTime.MIN), true, false);
-                    case DateValueInt.AbsoluteDateInt ad -> {
-                        LocalDateTime dayStart = ad.date().with(LocalTime.MIN);
-                        yield new DateValueInt.AbsoluteRange(dayStart, dayStart.plusDays(1), true, false);
-                    }
-                }
+                (op, spaces, expression) -> new Expression.FirstDayOf(expression)
         );
     }
 
-    private Parser<DateValueInt> createLastDayOfParser(LanguageKeywords keywords, Parser<DateValueInt> base) {
+    private static Parser<Expression> createLastDayOfParser(LanguageKeywords keywords, Parser<Expression> base) {
         return Parsers.sequence(
                 toScanner(keywords.lastDayOf()),
                 Scanners.WHITESPACES.atLeast(1),
                 base,
-                (op, spaces, dateValue) -> {
-                    LocalDateTime until;
-                    boolean inclusive;
-                    switch (dateValue) {
-                        case DateValueInt.AbsoluteRange ar -> {
-                            until = ar.until();
-                            inclusive = ar.untilInclusive();
-                        }
-                        case DateValueInt.AbsoluteDateInt ad -> {
-                            until = ad.date().plusDays(1).with(LocalTime.MIN);
-                            inclusive = false;
-                        }
-                        default -> throw new IllegalStateException("Unexpected DateValue type: " + dateValue.getClass());
-                    }
-                    LocalDateTime dayStart = until.minusDays(1).with(LocalTime.MIN);
-                    return new DateValueInt.AbsoluteRange(dayStart, until, true, inclusive);
-                }
+                (op, spaces, expression) -> new Expression.LastDayOf(expression)
         );
     }
 
-    private Parser<DateValueInt> createBetweenParser(LanguageKeywords keywords, Parser<DateValueInt> finalAbsoluteDateTimeParser) {
+    private static Parser<Expression> createBetweenParser(LanguageKeywords keywords, Parser<Expression> finalAbsoluteDateTimeParser) {
         return Parsers.sequence(
                 toScanner(keywords.between()),
                 Scanners.WHITESPACES.atLeast(1),
@@ -357,116 +382,43 @@ public class DateValueParser {
                 toScanner(keywords.and()),
                 Scanners.WHITESPACES.atLeast(1),
                 finalAbsoluteDateTimeParser,
-                (op1, s1, fromValue, s2, op2, s3, untilValue) -> {
-                    LocalDateTime from = switch (fromValue) {
-                        case DateValueInt.AbsoluteDateInt ad -> ad.date();
-                        case DateValueInt.AbsoluteRange ar -> ar.from();
-                    };
-
-                    LocalDateTime until;
-                    boolean isUntilInclusive;
-
-                    switch (untilValue) {
-                        case DateValueInt.AbsoluteDateInt ad -> {
-                            until = ad.date();
-                            isUntilInclusive = true; // "between A and B" is usually inclusive of the day B
-                        }
-                        case DateValueInt.AbsoluteRange ar -> {
-                            until = ar.until();
-                            isUntilInclusive = ar.untilInclusive();
-                        }
-                    }
-
-                    return new DateValueInt.AbsoluteRange(from, until, true, isUntilInclusive);
-                }
+                (op1, s1, from, s2, op2, s3, until) -> new Expression.Between(from, until)
         );
     }
 
-    private Parser<DateValueInt> createUntilParser(LanguageKeywords keywords, Parser<DateValueInt> finalAbsoluteDateTimeParser) {
+    private static Parser<Expression> createUntilParser(LanguageKeywords keywords, Parser<Expression> finalAbsoluteDateTimeParser) {
         Parser<String> untilOp = Parsers.or(toScanner(keywords.untilInclusive()), toScanner(keywords.untilExclusive()));
         return Parsers.sequence(
                 untilOp,
                 Scanners.WHITESPACES.many(),
                 finalAbsoluteDateTimeParser,
-                (op, spaces, dateValue) -> {
-                    LocalDateTime date;
-                    boolean inclusive;
-                    switch (dateValue) {
-                        case DateValueInt.AbsoluteDateInt ad -> {
-                            date = ad.date();
-                            if (ad.isRangeBoundary()) {
-                                if (containsIgnoreCase(keywords.untilExclusive(), op)) {
-                                    inclusive = false;
-                                } else {
-                                    inclusive = ad.isInclusive();
-                                }
-                            } else {
-                                inclusive = containsIgnoreCase(keywords.untilInclusive(), op);
-                            }
-                        }
-                        case DateValueInt.AbsoluteRange ar -> {
-                            if (containsIgnoreCase(keywords.untilInclusive(), op)) {
-                                date = ar.until();
-                                inclusive = ar.untilInclusive();
-                            } else {
-                                date = ar.from();
-                                inclusive = false;
-                            }
-                        }
-                    }
-                    return new DateValueInt.AbsoluteRange(LocalDateTime.MIN, date, false, inclusive);
-                }
+                (op, spaces, expression) -> new Expression.Until(
+                        expression,
+                        containsIgnoreCase(keywords.untilInclusive(), op),
+                        containsIgnoreCase(keywords.untilExclusive(), op)
+                )
         );
     }
 
-    private Parser<DateValueInt> createFromParser(LanguageKeywords keywords, Parser<DateValueInt> dateOnlyParser, Parser<DateValueInt> finalAbsoluteDateTimeParser) {
+    private static Parser<Expression> createFromParser(LanguageKeywords keywords, Parser<Expression> dateOnlyParser, Parser<Expression> finalAbsoluteDateTimeParser) {
         Parser<String> fromOp = Parsers.or(toScanner(keywords.fromInclusive()), toScanner(keywords.fromExclusive()));
-        Parser<DateValueInt> exclusive = Parsers.sequence(
+        // dateOnlyParser only yields ranges, "after <range>" starts right after it
+        Parser<Expression> exclusive = Parsers.sequence(
                 toScanner(keywords.fromExclusive()),
                 Scanners.WHITESPACES.many(),
                 dateOnlyParser,
-                (op, spaces, dateValue) -> {
-                    LocalDateTime date = switch (dateValue) {
-                        case DateValueInt.AbsoluteRange ar -> ar.until();
-                        default -> throw new IllegalStateException("Unexpected DateValue type for dateOnlyParser: " + dateValue.getClass());
-                    };
-                    return new DateValueInt.AbsoluteRange(date, LocalDateTime.MAX, true, false);
-                }
+                (op, spaces, expression) -> new Expression.From(expression, false, true)
         );
 
-        Parser<DateValueInt> general = Parsers.sequence(
+        Parser<Expression> general = Parsers.sequence(
                 fromOp,
                 Scanners.WHITESPACES.many(),
                 finalAbsoluteDateTimeParser,
-                (op, spaces, dateValue) -> {
-                    LocalDateTime date;
-                    boolean inclusive = containsIgnoreCase(keywords.fromInclusive(), op);
-                    switch (dateValue) {
-                        case DateValueInt.AbsoluteDateInt ad -> {
-                            date = ad.date();
-                            if (ad.isRangeBoundary()) {
-                                if (containsIgnoreCase(keywords.fromExclusive(), op)) {
-                                    inclusive = false;
-                                } else if (containsIgnoreCase(keywords.fromInclusive(), op)) {
-                                    inclusive = true;
-                                } else {
-                                    inclusive = ad.isInclusive();
-                                }
-                            } else {
-                                inclusive = containsIgnoreCase(keywords.fromInclusive(), op);
-                            }
-                        }
-                        case DateValueInt.AbsoluteRange ar -> {
-                            if (inclusive) {
-                                date = ar.from();
-                            } else {
-                                date = ar.until();
-                                inclusive = true;
-                            }
-                        }
-                    }
-                    return new DateValueInt.AbsoluteRange(date, LocalDateTime.MAX, inclusive, false);
-                }
+                (op, spaces, expression) -> new Expression.From(
+                        expression,
+                        containsIgnoreCase(keywords.fromInclusive(), op),
+                        containsIgnoreCase(keywords.fromExclusive(), op)
+                )
         );
 
         return Parsers.or(exclusive, general);
@@ -476,34 +428,31 @@ public class DateValueParser {
         return set.stream().anyMatch(s -> s.equalsIgnoreCase(value));
     }
 
+    /**
+     * Matches the longest of the keywords case-insensitively, allowing any run of whitespace between its words.
+     * @return a parser returning the keyword as configured
+     */
     private static Parser<String> toScanner(Set<String> keywords) {
-        return Parsers.or(keywords.stream().sorted(BY_LENGTH_DESC).map(Scanners::stringCaseInsensitive).toList()).source();
+        Map<String, String> byKeyword = new LinkedHashMap<>();
+        keywords.forEach(keyword -> byKeyword.put(keyword, keyword));
+        return new KeywordTrie<>(byKeyword).toParser("keyword");
     }
 
-    private static Parser<DateValueInt> createAbsoluteDateTimeParser(LanguageKeywords keywords, Clock clock, Parser<LocalTime> timeParser) {
-        Parser<DateValueInt> nowParser = toScanner(keywords.now()).map(ignored -> new DateValueInt.AbsoluteDateInt(LocalDateTime.now(clock), false, true));
+    private static Parser<Expression> createAbsoluteDateTimeParser(LanguageKeywords keywords, Parser<LocalTime> timeParser) {
+        Parser<Expression> nowParser = toScanner(keywords.now()).map(ignored -> new Expression.Now());
 
-        Parser<DateValueInt> relativeDate = createRelativeDateParser(keywords, clock);
+        Parser<Expression> relativeDate = createRelativeDateParser(keywords);
 
-        Parser<DateValueInt> relativeDateWithTime = Parsers.sequence(
+        Parser<Expression> relativeDateWithTime = Parsers.sequence(
                 relativeDate,
                 Scanners.WHITESPACES.atLeast(1),
                 toScanner(keywords.at()).optional(),
                 Scanners.WHITESPACES.many(),
                 timeParser,
-                (dateVal, s1, at, s2, time) -> {
-                    LocalDateTime dt = switch (dateVal) {
-                        case DateValueInt.AbsoluteRange ar -> LocalDateTime.of(ar.from().toLocalDate(), time);
-                        case DateValueInt.AbsoluteDateInt ad -> LocalDateTime.of(ad.date().toLocalDate(), time);
-                    };
-                    return new DateValueInt.AbsoluteDateInt(dt, false, true);
-                }
+                (date, s1, at, s2, time) -> new Expression.AtTime(date, time)
         );
 
-        Parser<DateValueInt> timeOnly = timeParser.map(time -> {
-            LocalDate today = LocalDate.now(clock);
-            return new DateValueInt.AbsoluteDateInt(LocalDateTime.of(today, time), false, true);
-        });
+        Parser<Expression> timeOnly = timeParser.map(Expression.TimeToday::new);
 
         Parser<LocalDateTime> dateTimeParser = Parsers.sequence(
                 DATE,
@@ -514,88 +463,58 @@ public class DateValueParser {
 
         return Parsers.longest(
                 nowParser,
-                dateTimeParser.map(dt -> new DateValueInt.AbsoluteDateInt(dt, false, true)),
+                dateTimeParser.map(dt -> new Expression.Fixed(new DateValueInt.AbsoluteDateInt(dt, false, true))),
                 relativeDateWithTime,
-                createDateOnlyParser(keywords, clock),
+                createDateOnlyParser(keywords),
                 timeOnly
         );
     }
 
-    private static Parser<DateValueInt> createRelativeDateParser(LanguageKeywords keywords, Clock clock) {
+    private static Parser<Expression> createRelativeDateParser(LanguageKeywords keywords) {
+        Map<String, Expression> relativeDays = new LinkedHashMap<>();
+        keywords.today().forEach(keyword -> relativeDays.putIfAbsent(keyword, new Expression.RelativeDay(0)));
+        keywords.yesterday().forEach(keyword -> relativeDays.putIfAbsent(keyword, new Expression.RelativeDay(-1)));
+        keywords.tomorrow().forEach(keyword -> relativeDays.putIfAbsent(keyword, new Expression.RelativeDay(1)));
+        keywords.dayBeforeYesterday().forEach(keyword -> relativeDays.putIfAbsent(keyword, new Expression.RelativeDay(-2)));
+        keywords.dayAfterTomorrow().forEach(keyword -> relativeDays.putIfAbsent(keyword, new Expression.RelativeDay(2)));
+        // Maps days of week to previous or same day range
+        keywords.daysOfWeek().forEach((keyword, dayOfWeek) ->
+                relativeDays.putIfAbsent(keyword, new Expression.DayOfWeekRange(dayOfWeek, Expression.DayOfWeekDirection.PREVIOUS_OR_SAME)));
+
+        Parser<DayOfWeek> dayOfWeekParser = new KeywordTrie<>(keywords.daysOfWeek()).toParser("day-of-week");
         return Parsers.or(
-                Stream.of(
-                        keywords.today().stream().map(s -> Scanners.stringCaseInsensitive(s).map(ignored -> {
-                            LocalDate today = LocalDate.now(clock);
-                            return (DateValueInt) new DateValueInt.AbsoluteRange(today.atStartOfDay(), today.plusDays(1).atStartOfDay(), true, false);
-                        })),
-                        keywords.yesterday().stream().map(s -> Scanners.stringCaseInsensitive(s).map(ignored -> {
-                            LocalDate yesterday = LocalDate.now(clock).minusDays(1);
-                            return (DateValueInt) new DateValueInt.AbsoluteRange(yesterday.atStartOfDay(), yesterday.plusDays(1).atStartOfDay(), true, false);
-                        })),
-                        keywords.tomorrow().stream().map(s -> Scanners.stringCaseInsensitive(s).map(ignored -> {
-                            LocalDate tomorrow = LocalDate.now(clock).plusDays(1);
-                            return (DateValueInt) new DateValueInt.AbsoluteRange(tomorrow.atStartOfDay(), tomorrow.plusDays(1).atStartOfDay(), true, false);
-                        })),
-                        keywords.dayBeforeYesterday().stream().map(s -> Scanners.stringCaseInsensitive(s).map(ignored -> {
-                            LocalDate date = LocalDate.now(clock).minusDays(2);
-                            return (DateValueInt) new DateValueInt.AbsoluteRange(date.atStartOfDay(), date.plusDays(1).atStartOfDay(), true, false);
-                        })),
-                        keywords.dayAfterTomorrow().stream().map(s -> Scanners.stringCaseInsensitive(s).map(ignored -> {
-                            LocalDate date = LocalDate.now(clock).plusDays(2);
-                            return (DateValueInt) new DateValueInt.AbsoluteRange(date.atStartOfDay(), date.plusDays(1).atStartOfDay(), true, false);
-                        })),
-                        // Maps days of week to previous or same day range
-                        keywords.daysOfWeek().entrySet().stream().map(entry -> Scanners.stringCaseInsensitive(entry.getKey()).map(ignored -> {
-                            LocalDate day = LocalDate.now(clock).with(TemporalAdjusters.previousOrSame(entry.getValue()));
-                            return (DateValueInt) new DateValueInt.AbsoluteRange(day.atStartOfDay(), day.plusDays(1).atStartOfDay(), true, false);
-                        })),
-                        // Maps "next <day>" to next occurrence of day range
-                        keywords.daysOfWeek().entrySet().stream().map(entry -> Parsers.sequence(
-                                toScanner(keywords.next()),
-                                Scanners.WHITESPACES.atLeast(1),
-                                Scanners.stringCaseInsensitive(entry.getKey()),
-                                (op, s, dayName) -> {
-                                    LocalDate day = LocalDate.now(clock).with(TemporalAdjusters.next(entry.getValue()));
-                                    return (DateValueInt) new DateValueInt.AbsoluteRange(day.atStartOfDay(), day.plusDays(1).atStartOfDay(), true, false);
-                                }
-                        )),
-                        // Maps "last <day>" to previous occurrence of day range
-                        keywords.daysOfWeek().entrySet().stream().map(entry -> Parsers.sequence(
-                                toScanner(keywords.last()),
-                                Scanners.WHITESPACES.atLeast(1),
-                                Scanners.stringCaseInsensitive(entry.getKey()),
-                                (op, s, dayName) -> {
-                                    LocalDate day = LocalDate.now(clock).with(TemporalAdjusters.previous(entry.getValue()));
-                                    return (DateValueInt) new DateValueInt.AbsoluteRange(day.atStartOfDay(), day.plusDays(1).atStartOfDay(), true, false);
-                                }
-                        ))
-                ).flatMap(s -> s).toList()
+                new KeywordTrie<>(relativeDays).toParser("relative-date"),
+                // Maps "next <day>" to next occurrence of day range
+                Parsers.sequence(
+                        toScanner(keywords.next()),
+                        Scanners.WHITESPACES.atLeast(1),
+                        dayOfWeekParser,
+                        (op, s, dayOfWeek) -> new Expression.DayOfWeekRange(dayOfWeek, Expression.DayOfWeekDirection.NEXT)
+                ),
+                // Maps "last <day>" to previous occurrence of day range
+                Parsers.sequence(
+                        toScanner(keywords.last()),
+                        Scanners.WHITESPACES.atLeast(1),
+                        dayOfWeekParser,
+                        (op, s, dayOfWeek) -> new Expression.DayOfWeekRange(dayOfWeek, Expression.DayOfWeekDirection.PREVIOUS)
+                )
         );
     }
 
-    private static Parser<DateValueInt> createDateOnlyParser(LanguageKeywords keywords, Clock clock) {
+    private static Parser<Expression> createDateOnlyParser(LanguageKeywords keywords) {
         return Parsers.or(
                 DATE_ONLY.notFollowedBy(Scanners.WHITESPACES.many().next(Scanners.isChar(Character::isDigit)))
-                        .map(date -> new DateValueInt.AbsoluteRange(date, date.plusDays(1), true, false)),
-                ISO_WEEK,
-                YEAR_MONTH,
-                createRelativeDateParser(keywords, clock)
+                        .map(date -> new Expression.Fixed(new DateValueInt.AbsoluteRange(date, date.plusDays(1), true, false))),
+                ISO_WEEK.map(Expression.Fixed::new),
+                YEAR_MONTH.map(Expression.Fixed::new),
+                createRelativeDateParser(keywords)
         );
     }
 
     private static Parser<LocalTime> createTimeParser(LanguageKeywords keywords) {
-        Parser<LocalTime> time24h = Parsers.or(
-                Patterns.regex("\\d{2}:\\d{2}:\\d{2}")
-                        .toScanner("time-with-seconds")
-                        .source()
-                        .map(LocalTime::parse),
-                Patterns.regex("\\d{2}:\\d{2}")
-                        .toScanner("time-without-seconds")
-                        .source()
-                        .map(s -> LocalTime.parse(s + ":00"))
-        );
+        Parser<LocalTime> time24h = TIME;
 
-        Parser<Integer> hourParser = Patterns.INTEGER.toScanner("hour").source().map(Integer::parseInt);
+        Parser<Integer> hourParser = mapOrFail(Patterns.INTEGER.toScanner("hour").source(), DateValueParser::toInteger);
         Parser<Integer> minuteParser = Patterns.regex("\\d{2}").toScanner("minute").source().map(Integer::parseInt);
         Parser<Integer> secondParser = Patterns.regex("\\d{2}").toScanner("second").source().map(Integer::parseInt);
 
@@ -603,7 +522,7 @@ public class DateValueParser {
         Parser<Boolean> pmParser = toScanner(keywords.pm()).map(ignored -> false);
         Parser<Boolean> amPmParser = Parsers.or(amParser, pmParser);
 
-        Parser<LocalTime> time12h = Parsers.sequence(
+        Parser<LocalTime> time12h = mapOrFail(Parsers.sequence(
                 hourParser,
                 Parsers.sequence(Scanners.isChar(':'), minuteParser).optional(),
                 Parsers.sequence(Scanners.isChar(':'), secondParser).optional(),
@@ -615,27 +534,24 @@ public class DateValueParser {
                     if (isAm && h == 12) h = 0;
                     int m = min == null ? 0 : min;
                     int s1 = sec == null ? 0 : sec;
-                    return LocalTime.of(h, m, s1);
+                    return toTime(h, m, s1);
                 }
-        );
+        ), time -> time);
 
         return Parsers.longest(time24h, time12h);
     }
 
-    private static final Parser<LocalDate> DATE = Patterns.regex("\\d{4}-\\d{2}-\\d{2}")
+    private static final Parser<LocalDate> DATE = mapOrFail(Patterns.regex("\\d{4}-\\d{2}-\\d{2}")
             .toScanner("date")
-            .source()
-            .map(LocalDate::parse);
+            .source(), DateValueParser::toDate);
 
     private static final Parser<LocalTime> TIME = Parsers.or(
-            Patterns.regex("\\d{2}:\\d{2}:\\d{2}")
+            mapOrFail(Patterns.regex("\\d{2}:\\d{2}:\\d{2}")
                     .toScanner("time-with-seconds")
-                    .source()
-                    .map(LocalTime::parse),
-            Patterns.regex("\\d{2}:\\d{2}")
+                    .source(), DateValueParser::toTime),
+            mapOrFail(Patterns.regex("\\d{2}:\\d{2}")
                     .toScanner("time-without-seconds")
-                    .source()
-                    .map(s -> LocalTime.parse(s + ":00"))
+                    .source(), DateValueParser::toTime)
     );
 
     private static final Parser<LocalDateTime> DATE_TIME = Parsers.sequence(
@@ -647,11 +563,11 @@ public class DateValueParser {
 
     private static final Parser<LocalDateTime> DATE_ONLY = DATE.map(LocalDate::atStartOfDay);
     
-    private static final Parser<DateValueInt.AbsoluteRange> ISO_WEEK = Patterns.regex("\\d{4}-W\\d{1,2}")
+    private static final Parser<DateValueInt.AbsoluteRange> ISO_WEEK = Patterns.regex("\\d{4}-[Ww]\\d{1,2}")
             .toScanner("iso-week")
             .source()
             .map(s -> {
-                String[] parts = s.split("-W");
+                String[] parts = s.split("-[Ww]");
                 int year = Integer.parseInt(parts[0]);
                 int week = Integer.parseInt(parts[1]);
                 LocalDate start = LocalDate.of(year, 1, 4) // ISO-8601 week 1 is the week with Jan 4th
@@ -660,16 +576,80 @@ public class DateValueParser {
                 return new DateValueInt.AbsoluteRange(start.atStartOfDay(), start.plusWeeks(1).atStartOfDay(), true, false);
             });
 
-    private static final Parser<DateValueInt.AbsoluteRange> YEAR_MONTH = Patterns.regex("\\d{4}-\\d{2}(?!-\\d{2})")
+    private static final Parser<DateValueInt.AbsoluteRange> YEAR_MONTH = mapOrFail(Patterns.regex("\\d{4}-\\d{2}(?!-\\d{2})")
             .toScanner("year-month")
-            .source()
-            .map(s -> {
-                LocalDate start = LocalDate.parse(s + "-01");
-                return new DateValueInt.AbsoluteRange(start.atStartOfDay(), start.plusMonths(1).atStartOfDay(), true, false);
+            .source(), s -> {
+                LocalDate start = toDate(s + "-01");
+                return start == null ? null : new DateValueInt.AbsoluteRange(start.atStartOfDay(), start.plusMonths(1).atStartOfDay(), true, false);
             });
 
+    /**
+     * Like map, but makes the parser fail instead of throwing when the conversion returns null,
+     * so out-of-range values like 2026-13-01 or 25:00 are ordinary parse failures.
+     */
+    private static <S, T> Parser<T> mapOrFail(Parser<S> parser, Function<? super S, ? extends T> conversion) {
+        return parser.next(value -> {
+            T converted = conversion.apply(value);
+            return converted == null ? Parsers.<T>never() : Parsers.constant(converted);
+        });
+    }
+
+    private static Integer toInteger(String digits) {
+        if (digits.length() > 10) {
+            return null;
+        }
+        long value = Long.parseLong(digits);
+        return value > Integer.MAX_VALUE ? null : (int) value;
+    }
+
+    /**
+     * @return the date for a yyyy-MM-dd string, or null when it does not exist
+     */
+    private static LocalDate toDate(String s) {
+        int year = Integer.parseInt(s, 0, 4, 10);
+        int month = Integer.parseInt(s, 5, 7, 10);
+        int day = Integer.parseInt(s, 8, 10, 10);
+        if (month < 1 || month > 12 || day < 1 || day > YearMonth.of(year, month).lengthOfMonth()) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    /**
+     * @return the time for a HH:mm or HH:mm:ss string, or null when it does not exist
+     */
+    private static LocalTime toTime(String s) {
+        int hour = Integer.parseInt(s, 0, 2, 10);
+        int minute = Integer.parseInt(s, 3, 5, 10);
+        int second = s.length() > 5 ? Integer.parseInt(s, 6, 8, 10) : 0;
+        return toTime(hour, minute, second);
+    }
+
+    private static LocalTime toTime(int hour, int minute, int second) {
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+        return LocalTime.of(hour, minute, second);
+    }
+
+    Parser<Expression> expressionParser() {
+        return grammars.combined().dateValueParser();
+    }
+
+    LanguageGrammars grammars() {
+        return grammars;
+    }
+
+    LanguageKeywords keywords() {
+        return grammars.combined().keywords();
+    }
+
+    Clock clock() {
+        return clock;
+    }
+
     Parser<DateValue> absoluteDateTimeParser() {
-        return absoluteDateTimeParser.map(DateValueInt::toPublic);
+        return grammars.combined().absoluteDateTimeParser().map(this::resolveNow);
     }
 
     /**
@@ -677,11 +657,247 @@ public class DateValueParser {
      * @return an optional parsed DateValue
      */
     public Optional<DateValue> parse(String term) {
-        try {
-            return Optional.of(parser().parse(term));
-        } catch (Exception e) {
-            return Optional.empty();
+        return tryParse(term).toOptional();
+    }
+
+    /**
+     * Parses the given term like {@link #parse(String)}, resolving relative parts against the given time instead of the clock,
+     * eg to evaluate a batch against a fixed snapshot. Every part of the expression sees this same time,
+     * so both ends of "between 5 minutes ago and now" are exactly 5 minutes apart.
+     * @return an optional parsed DateValue
+     */
+    public Optional<DateValue> parse(String term, LocalDateTime now) {
+        return tryParse(term, now).toOptional();
+    }
+
+    /**
+     * Parses the given term like {@link #parse(String, LocalDateTime)}, at the local time of the given instant
+     * in the zone of the clock.
+     * @return an optional parsed DateValue
+     */
+    public Optional<DateValue> parse(String term, Instant now) {
+        return tryParse(term, LocalDateTime.ofInstant(now, clock.getZone())).toOptional();
+    }
+
+    /**
+     * Parses the given characters like {@link #parse(String)}, in place, eg a CharBuffer or a slice of a larger text.
+     * The characters are not copied into a String, and are no longer needed once this method returns.
+     * @return an optional parsed DateValue
+     */
+    public Optional<DateValue> parse(CharSequence term) {
+        return tryParse(term).toOptional();
+    }
+
+    /**
+     * Parses the given slice of a char array like {@link #parse(String)}, in place.
+     * @return an optional parsed DateValue
+     * @throws IndexOutOfBoundsException if offset and length don't describe a slice of chars
+     */
+    public Optional<DateValue> parse(char[] chars, int offset, int length) {
+        return tryParse(chars, offset, length).toOptional();
+    }
+
+    /**
+     * Parses the given term like {@link #parse(String)}, but reports where parsing failed.
+     * Invalid input does not throw or build an exception internally, which keeps rejecting junk input cheap.
+     * @return a Success with the DateValue, or a Failure with the offset of the first unparseable character
+     */
+    public ParseResult<DateValue> tryParse(String term) {
+        return tryParse((CharSequence) term);
+    }
+
+    /**
+     * Parses the given characters like {@link #tryParse(String)}, in place, see {@link #parse(CharSequence)}.
+     * @return a Success with the DateValue, or a Failure with the offset of the first unparseable character
+     */
+    public ParseResult<DateValue> tryParse(CharSequence term) {
+        return tryParse(term, LocalDateTime.now(clock));
+    }
+
+    /**
+     * Parses the given slice of a char array like {@link #tryParse(String)}, in place.
+     * @return a Success with the DateValue, or a Failure with the offset of the first unparseable character, relative to offset
+     * @throws IndexOutOfBoundsException if offset and length don't describe a slice of chars
+     */
+    public ParseResult<DateValue> tryParse(char[] chars, int offset, int length) {
+        return tryParse(CharBuffer.wrap(chars, offset, length));
+    }
+
+    /**
+     * Parses the given characters like {@link #tryParse(CharSequence)}, resolving relative parts against the given time
+     * instead of the clock, see {@link #parse(String, LocalDateTime)}.
+     * @return a Success with the DateValue, or a Failure with the offset of the first unparseable character,
+     * which is the length of the term if it parses but resolves outside the supported range
+     */
+    public ParseResult<DateValue> tryParse(CharSequence term, LocalDateTime now) {
+        return switch (tryCompile(term)) {
+            case ParseResult.Success<CompiledExpression>(CompiledExpression expression) -> {
+                try {
+                    yield new ParseResult.Success<>(expression.resolve(now));
+                } catch (DateTimeException | ArithmeticException e) {
+                    // syntactically fine, but outside the supported date range, eg "next 999999999 years"
+                    yield new ParseResult.Failure<>(term.length());
+                }
+            }
+            case ParseResult.Failure<CompiledExpression> failure -> new ParseResult.Failure<>(failure.errorOffset());
+        };
+    }
+
+    /**
+     * Parses the given term like {@link #parseInstant(String, ZoneId)}, in the zone of the clock.
+     * @return an optional range of instants
+     */
+    public Optional<InstantRange> parseInstant(String term) {
+        return parseInstant(term, clock.getZone());
+    }
+
+    /**
+     * Parses the given term and resolves it to instants in the given zone, at the current instant of the clock.
+     * <p>
+     * Days, weeks, months and years follow the local calendar of the zone, so "today" is 23 or 25 hours long
+     * on days with a daylight saving time transition. Hours, minutes and seconds count elapsed time,
+     * so "last 30 minutes" is always 30 minutes long, even when clocks move back in between.
+     * For bounds in local calendar time, like midnight or "2026-10-25 02:30": a bound whose local time does not exist, because clocks moved forward, becomes the instant of the transition.
+     * A bound whose local time exists twice, because clocks moved back, becomes its first occurrence for the start
+     * of a range and its second occurrence for the end, so the range covers both.
+     * @return an optional range of instants
+     */
+    public Optional<InstantRange> parseInstant(String term, ZoneId zone) {
+        return parseInstant(term, zone, clock.instant());
+    }
+
+    /**
+     * Parses the given term like {@link #parseInstant(String, ZoneId)}, at the given instant instead of the clock's.
+     * @return an optional range of instants
+     */
+    public Optional<InstantRange> parseInstant(String term, ZoneId zone, Instant now) {
+        return compile(term).flatMap(expression -> {
+            try {
+                return Optional.of(expression.resolveInstant(now, zone));
+            } catch (DateTimeException | ArithmeticException e) {
+                // syntactically fine, but outside the supported date range
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Parses all terms like {@link #parse(String)}, spreading the work over the common ForkJoinPool.
+     * Every distinct term is parsed once, and all results are resolved against the same "now", read once from the clock.
+     * @return the results, in the same order as the terms
+     */
+    public List<Optional<DateValue>> parseAll(List<String> terms) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Map<String, Optional<DateValue>> results = new HashSet<>(terms).parallelStream()
+                .collect(Collectors.toConcurrentMap(Function.identity(), term -> tryParse(term, now).toOptional()));
+        return terms.stream().map(results::get).toList();
+    }
+
+    /**
+     * Lazily parses a stream of terms like {@link #parse(String)}, resolving all results against the same "now",
+     * read once from the clock when the stream is created.
+     * The returned stream keeps the order and parallelism of the given one, so call {@link Stream#parallel()} to spread the work over cores.
+     * Repeated terms are parsed once, up to 100,000 distinct terms per stream,
+     * so memory stays bounded on streams with millions of unique terms.
+     * @return a stream with the result for each term
+     */
+    public Stream<Optional<DateValue>> parseAll(Stream<String> terms) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Map<String, Optional<DateValue>> results = new ConcurrentHashMap<>();
+        return terms.map(term -> {
+            Optional<DateValue> result = results.get(term);
+            if (result == null) {
+                result = tryParse(term, now).toOptional();
+                if (results.size() < BATCH_DEDUPLICATION_LIMIT) {
+                    results.putIfAbsent(term, result);
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Parses the given term into an expression that does not depend on the clock yet.
+     * Relative parts like "last 7 days" are only calculated when the result is resolved,
+     * so the same compiled expression can be resolved against any number of reference times.
+     * @return the compiled expression, or Optional.empty if parsing fails
+     */
+    public Optional<CompiledExpression> compile(String term) {
+        return tryCompile(term).toOptional();
+    }
+
+    /**
+     * Compiles the given characters like {@link #compile(String)}, in place, see {@link #parse(CharSequence)}.
+     * @return the compiled expression, or Optional.empty if parsing fails
+     */
+    public Optional<CompiledExpression> compile(CharSequence term) {
+        return tryCompile(term).toOptional();
+    }
+
+    /**
+     * Compiles the given term like {@link #compile(String)}, but reports where parsing failed.
+     * @return a Success with the compiled expression, or a Failure with the offset of the first unparseable character
+     */
+    public ParseResult<CompiledExpression> tryCompile(String term) {
+        return tryCompile((CharSequence) term);
+    }
+
+    /**
+     * Compiles the given characters like {@link #tryCompile(String)}, in place, see {@link #parse(CharSequence)}.
+     * With a cache, the normalized cache key is still a String.
+     * @return a Success with the compiled expression, or a Failure with the offset of the first unparseable character
+     */
+    public ParseResult<CompiledExpression> tryCompile(CharSequence term) {
+        // a disabled event costs nothing once the JIT sees it is never committed
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        long started = metrics == null ? 0 : System.nanoTime();
+        String key = cache == null ? null : ExpressionCache.normalize(term);
+        CompiledExpression cached = key == null ? null : cache.get(key);
+        ParseResult<CompiledExpression> compiled = cached != null ? new ParseResult.Success<>(cached) : compileAndCache(term, key);
+        if (metrics != null) {
+            report(term, compiled, cached != null, System.nanoTime() - started);
+        }
+        if (event.shouldCommit()) {
+            event.set(term, compiled, production(compiled), cached != null);
+            event.commit();
         }
+        return compiled;
+    }
+
+    /**
+     * @return the production that matched, or null if compiling failed
+     */
+    private static GrammarProduction production(ParseResult<CompiledExpression> compiled) {
+        return switch (compiled) {
+            case ParseResult.Success<CompiledExpression>(CompiledExpression expression) -> expression.production();
+            case ParseResult.Failure<CompiledExpression> ignored -> null;
+        };
+    }
+
+    private void report(CharSequence term, ParseResult<CompiledExpression> compiled, boolean cached, long nanos) {
+        switch (compiled) {
+            case ParseResult.Success<CompiledExpression>(CompiledExpression expression) ->
+                    metrics.compiled(term, expression.production(), cached, nanos);
+            case ParseResult.Failure<CompiledExpression> failure -> metrics.failed(term, failure.errorOffset(), nanos);
+        }
+    }
+
+    private ParseResult<CompiledExpression> compileAndCache(CharSequence term, String key) {
+        ParseResult<CompiledExpression> compiled = compileUncached(term);
+        if (key != null && compiled instanceof ParseResult.Success<CompiledExpression>(CompiledExpression expression)) {
+            cache.put(key, expression);
+        }
+        return compiled;
+    }
+
+    private ParseResult<CompiledExpression> compileUncached(CharSequence term) {
+        Grammar grammar = grammars.forInput(term);
+        Expression literal = grammar.isoLiteralScanner().scan(term);
+        if (literal != null) {
+            return new ParseResult.Success<>(new CompiledExpression(literal, GrammarProduction.ISO_LITERAL));
+        }
+        return grammar.totalParser().parse(term).map(CompiledExpression::new);
     }
 
     /**
@@ -689,7 +905,7 @@ public class DateValueParser {
      * @return a jparsec parser
      */
     public Parser<DateValue> parser() {
-        return dateValueParser.followedBy(Parsers.EOF).map(DateValueInt::toPublic);
+        return grammars.combined().dateValueParser().followedBy(Parsers.EOF).map(this::resolveNow);
     }
 
     /**
@@ -697,7 +913,11 @@ public class DateValueParser {
      * @return a jparsec parser
      */
     public Parser<DateValue> componentParser() {
-        return dateValueParser.map(DateValueInt::toPublic);
+        return grammars.combined().dateValueParser().map(this::resolveNow);
+    }
+
+    private DateValue resolveNow(Expression expression) {
+        return expression.resolve(LocalDateTime.now(clock)).toPublic();
     }
 
 }
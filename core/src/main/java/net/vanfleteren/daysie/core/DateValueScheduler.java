@@ -0,0 +1,326 @@
+package net.vanfleteren.daysie.core;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Keeps relative expressions like "today", "this hour" or "last 15 minutes" up to date for live views, eg dashboards,
+ * instead of parsing them again on every poll.
+ * <p>
+ * Every subscription knows which calendar boundaries its expression depends on: "this week" only changes when a new week starts,
+ * "today" at midnight and "this hour" at the start of every hour, in the zone of the clock. The scheduler wakes up once,
+ * at the first boundary of any subscription, resolves the due subscriptions again and calls their listeners if the range changed.
+ * Expressions that move with now itself, like "last 15 minutes" or "5 minutes ago", change all the time, so they are
+ * resolved again on every tick of the resolution instead. Expressions without relative parts never change after subscribing.
+ * <p>
+ * One thread serves every subscription, so listeners should return quickly and hand off heavy work.
+ * Call {@link #start()} to run that thread, or call {@link #fireDue()} from a loop of your own. Thread-safe.
+ */
+public final class DateValueScheduler implements AutoCloseable {
+
+    private static final Duration DEFAULT_RESOLUTION = Duration.ofSeconds(1);
+
+    private final Clock clock;
+    private final long resolutionMillis;
+    private final Object lock = new Object();
+    // held by fireDue from resolving until the listeners return, so a later call can't overtake an earlier one
+    private final Object delivery = new Object();
+    private final PriorityQueue<Subscription> due = new PriorityQueue<>((a, b) -> a.nextCheck.compareTo(b.nextCheck));
+    private Thread thread;
+    private boolean closed;
+
+    /**
+     * Resolves expressions that move with now once per second.
+     */
+    public DateValueScheduler(Clock clock) {
+        this(clock, DEFAULT_RESOLUTION);
+    }
+
+    /**
+     * @param resolution how often expressions that move with now, like "last 15 minutes", are resolved again, at least a millisecond
+     */
+    public DateValueScheduler(Clock clock, Duration resolution) {
+        if (resolution.toMillis() < 1) {
+            throw new IllegalArgumentException("resolution must be at least 1 ms");
+        }
+        this.clock = clock;
+        this.resolutionMillis = resolution.toMillis();
+    }
+
+    /**
+     * Calls the listener with the current range right away, on the calling thread, and again every time the range changes.
+     * The subscription is only scheduled once that first call returns, so later ranges can't overtake the first one.
+     * @return the subscription, to cancel it
+     */
+    public Subscription subscribe(CompiledExpression expression, Consumer<? super InstantRange> listener) {
+        Subscription subscription = new Subscription(expression, listener, changeUnits(expression.expression()));
+        Instant now = clock.instant();
+        InstantRange range = subscription.resolve(now);
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("scheduler is closed");
+            }
+            subscription.range = range;
+        }
+        listener.accept(range);
+        synchronized (lock) {
+            // closing in the meantime cancels it like every other subscription, and a boundary that passed is due right away
+            subscription.cancelled |= closed;
+            schedule(subscription, now);
+        }
+        return subscription;
+    }
+
+    /**
+     * Starts the thread that calls {@link #fireDue()} whenever the first subscription is due.
+     */
+    public void start() {
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("scheduler is closed");
+            }
+            if (thread == null) {
+                thread = Thread.ofPlatform().name("daysie-scheduler").daemon().start(this::run);
+            }
+        }
+    }
+
+    /**
+     * Resolves every subscription that is due at the current time of the clock and calls the listeners whose range changed.
+     * If a listener throws, the other listeners are still called and the first exception is rethrown afterwards.
+     * Concurrent calls, eg from a loop of your own while {@link #start()} runs, wait for each other, so listeners get the ranges in order.
+     * @return the number of listeners that were called
+     */
+    public int fireDue() {
+        synchronized (delivery) {
+            Instant now = clock.instant();
+            List<Subscription> changed = new ArrayList<>();
+            List<InstantRange> ranges = new ArrayList<>();
+            synchronized (lock) {
+                while (!due.isEmpty() && !due.peek().nextCheck.isAfter(now)) {
+                    Subscription subscription = due.poll();
+                    InstantRange range = subscription.resolve(now);
+                    if (!range.equals(subscription.range)) {
+                        subscription.range = range;
+                        changed.add(subscription);
+                        ranges.add(range);
+                    }
+                    schedule(subscription, now);
+                }
+            }
+            RuntimeException failure = null;
+            for (int i = 0; i < changed.size(); i++) {
+                try {
+                    changed.get(i).listener.accept(ranges.get(i));
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return changed.size();
+        }
+    }
+
+    /**
+     * @return the number of subscriptions that will be resolved again, without those whose expression never changes
+     */
+    public int scheduledCount() {
+        synchronized (lock) {
+            return due.size();
+        }
+    }
+
+    /**
+     * @return when the first subscription is due, or null if none are
+     */
+    Instant nextDue() {
+        synchronized (lock) {
+            return due.isEmpty() ? null : due.peek().nextCheck;
+        }
+    }
+
+    /**
+     * Cancels every subscription and stops the thread.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            due.clear();
+            lock.notifyAll();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            synchronized (lock) {
+                while (!closed) {
+                    long wait = due.isEmpty() ? 0 : Duration.between(clock.instant(), due.peek().nextCheck).toNanos();
+                    if (!due.isEmpty() && wait <= 0) {
+                        break;
+                    }
+                    try {
+                        lock.wait(wait / 1_000_000, (int) (wait % 1_000_000));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+            }
+            try {
+                fireDue();
+            } catch (RuntimeException e) {
+                Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+            }
+        }
+    }
+
+    /**
+     * Must hold the lock.
+     */
+    private void schedule(Subscription subscription, Instant now) {
+        if (subscription.cancelled || subscription.units.isEmpty()) {
+            return;
+        }
+        subscription.nextCheck = nextChange(subscription.units, now.atZone(clock.getZone()));
+        due.add(subscription);
+        if (due.peek() == subscription) {
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * @return the first calendar boundary of any of the units after now, or the next tick of the resolution for {@link ChronoUnit#NANOS}
+     */
+    private Instant nextChange(Set<ChronoUnit> units, ZonedDateTime now) {
+        Instant next = Instant.MAX;
+        for (ChronoUnit unit : units) {
+            Instant boundary = switch (unit) {
+                case NANOS -> Instant.ofEpochMilli(Math.floorDiv(now.toInstant().toEpochMilli(), resolutionMillis) * resolutionMillis + resolutionMillis);
+                case SECONDS, MINUTES, HOURS -> now.truncatedTo(unit).plus(1, unit).toInstant();
+                case DAYS -> startOf(now.toLocalDate().plusDays(1), now);
+                case WEEKS -> startOf(now.toLocalDate().with(TemporalAdjusters.next(DayOfWeek.MONDAY)), now);
+                case MONTHS -> startOf(now.toLocalDate().with(TemporalAdjusters.firstDayOfNextMonth()), now);
+                case YEARS -> startOf(now.toLocalDate().with(TemporalAdjusters.firstDayOfNextYear()), now);
+                default -> throw new IllegalStateException("Unexpected unit: " + unit);
+            };
+            if (boundary.isBefore(next)) {
+                next = boundary;
+            }
+        }
+        return next;
+    }
+
+    private static Instant startOf(LocalDate day, ZonedDateTime now) {
+        return day.atStartOfDay(now.getZone()).toInstant();
+    }
+
+    /**
+     * Follows {@link DateCalculator}: the units whose boundaries can change the resolved value of the expression.
+     * {@link ChronoUnit#NANOS} means the value moves with now itself. Quarters change at month boundaries.
+     * @return the units, empty if the expression does not depend on now
+     */
+    static Set<ChronoUnit> changeUnits(Expression expression) {
+        return switch (expression) {
+            case Expression.Fixed ignored -> EnumSet.noneOf(ChronoUnit.class);
+            case Expression.Now ignored -> EnumSet.of(ChronoUnit.NANOS);
+            case Expression.Ago ignored -> EnumSet.of(ChronoUnit.NANOS);
+            case Expression.FromNow ignored -> EnumSet.of(ChronoUnit.NANOS);
+            case Expression.TimeToday ignored -> EnumSet.of(ChronoUnit.DAYS);
+            case Expression.RelativeDay ignored -> EnumSet.of(ChronoUnit.DAYS);
+            case Expression.DayOfWeekRange ignored -> EnumSet.of(ChronoUnit.DAYS);
+            case Expression.DayOfWeekAgo ignored -> EnumSet.of(ChronoUnit.DAYS);
+            case Expression.DayOfWeekFromNow ignored -> EnumSet.of(ChronoUnit.DAYS);
+            // "last 3 days" and "next 3 days" end or start at now, while "last 3 weeks" ends at the start of this week
+            case Expression.LastRange last -> EnumSet.of(last.unit().compareTo(ChronoUnit.DAYS) <= 0 ? ChronoUnit.NANOS : last.unit());
+            case Expression.NextRange next -> EnumSet.of(next.unit().compareTo(ChronoUnit.DAYS) <= 0 ? ChronoUnit.NANOS : next.unit());
+            case Expression.ThisRange current -> EnumSet.of(current.unit());
+            case Expression.AtTime atTime -> changeUnits(atTime.base());
+            case Expression.StartOf startOf -> changeUnits(startOf.base());
+            case Expression.EndOf endOf -> changeUnits(endOf.base());
+            case Expression.FirstDayOf firstDayOf -> changeUnits(firstDayOf.base());
+            case Expression.LastDayOf lastDayOf -> changeUnits(lastDayOf.base());
+            case Expression.Range range -> union(changeUnits(range.from()), changeUnits(range.until()));
+            case Expression.Between between -> union(changeUnits(between.from()), changeUnits(between.until()));
+            case Expression.Until until -> changeUnits(until.base());
+            case Expression.From from -> changeUnits(from.base());
+        };
+    }
+
+    private static Set<ChronoUnit> union(Set<ChronoUnit> a, Set<ChronoUnit> b) {
+        Set<ChronoUnit> units = EnumSet.noneOf(ChronoUnit.class);
+        units.addAll(a);
+        units.addAll(b);
+        return units;
+    }
+
+    /**
+     * A subscribed expression and its listener.
+     */
+    public final class Subscription implements AutoCloseable {
+
+        private final CompiledExpression expression;
+        private final Consumer<? super InstantRange> listener;
+        private final Set<ChronoUnit> units;
+        // guarded by the lock of the scheduler
+        private InstantRange range;
+        private Instant nextCheck;
+        private boolean cancelled;
+
+        private Subscription(CompiledExpression expression, Consumer<? super InstantRange> listener, Set<ChronoUnit> units) {
+            this.expression = expression;
+            this.listener = Objects.requireNonNull(listener);
+            this.units = units;
+        }
+
+        private InstantRange resolve(Instant now) {
+            return expression.resolveInstant(now, clock.getZone());
+        }
+
+        /**
+         * @return the range that was last passed to the listener
+         */
+        public InstantRange range() {
+            synchronized (lock) {
+                return range;
+            }
+        }
+
+        /**
+         * Stops calling the listener. A call that is already in progress still completes.
+         */
+        public void cancel() {
+            synchronized (lock) {
+                cancelled = true;
+                due.remove(this);
+            }
+        }
+
+        @Override
+        public void close() {
+            cancel();
+        }
+    }
+}
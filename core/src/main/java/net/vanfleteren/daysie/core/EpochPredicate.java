@@ -0,0 +1,18 @@
+package net.vanfleteren.daysie.core;
+
+import java.util.function.LongPredicate;
+
+/**
+ * Tests epoch milliseconds against a parsed range, see {@link DateValue#toLongPredicate(java.time.ZoneId)}.
+ * Inclusive and exclusive bounds are folded into a single half-open range up front,
+ * and open-ended ranges test a single bound, so {@link #test(long)} is at most one comparison.
+ */
+public interface EpochPredicate extends LongPredicate {
+
+    /**
+     * Tests all values in a tight loop, for scans over a column of timestamps.
+     * @param epochMillis milliseconds since the epoch
+     * @return the indices of the matching values, in ascending order
+     */
+    int[] filter(long[] epochMillis);
+}
@@ -0,0 +1,165 @@
+package net.vanfleteren.daysie.core;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * The {@link EpochPredicate} implementations, one per shape of range so each test is a single comparison.
+ */
+final class EpochPredicates {
+
+    private EpochPredicates() {
+    }
+
+    static EpochPredicate of(InstantRange range) {
+        boolean openStart = range.from().equals(Instant.MIN);
+        boolean openEnd = range.until().equals(Instant.MAX);
+        // matching values are lowest <= value < end
+        long lowest = lowestMatch(range);
+        long end = endOfMatches(range);
+
+        if (openStart && openEnd) {
+            return new Always();
+        }
+        if (openEnd) {
+            return new AtLeast(lowest);
+        }
+        if (openStart) {
+            return new Below(end);
+        }
+        return lowest < end ? new Between(lowest, end - lowest) : new Never();
+    }
+
+    /**
+     * @return the smallest epoch milli in the range, {@link Long#MIN_VALUE} when it has no start
+     */
+    static long lowestMatch(InstantRange range) {
+        return range.from().equals(Instant.MIN) ? Long.MIN_VALUE : lowestMatch(range.from(), range.fromInclusive());
+    }
+
+    /**
+     * @return the smallest epoch milli past the range, {@link Long#MAX_VALUE} when it has no end
+     */
+    static long endOfMatches(InstantRange range) {
+        return range.until().equals(Instant.MAX) ? Long.MAX_VALUE : endOfMatches(range.until(), range.untilInclusive());
+    }
+
+    /**
+     * @return the smallest epoch milli that is after (or at, when inclusive) the instant
+     */
+    private static long lowestMatch(Instant from, boolean inclusive) {
+        long floor = floorEpochMilli(from);
+        return inclusive && isWholeMilli(from) ? floor : saturatedIncrement(floor);
+    }
+
+    /**
+     * @return the smallest epoch milli past the matches, ie after the instant, or at it when exclusive
+     */
+    private static long endOfMatches(Instant until, boolean inclusive) {
+        long floor = floorEpochMilli(until);
+        return !inclusive && isWholeMilli(until) ? floor : saturatedIncrement(floor);
+    }
+
+    static long floorEpochMilli(Instant instant) {
+        if (instant.getEpochSecond() < Long.MIN_VALUE / 1000) {
+            return Long.MIN_VALUE;
+        }
+        if (instant.getEpochSecond() >= Long.MAX_VALUE / 1000) {
+            return Long.MAX_VALUE;
+        }
+        return instant.toEpochMilli();
+    }
+
+    private static boolean isWholeMilli(Instant instant) {
+        return instant.getNano() % 1_000_000 == 0;
+    }
+
+    private static long saturatedIncrement(long value) {
+        return value == Long.MAX_VALUE ? value : value + 1;
+    }
+
+    private record Always() implements EpochPredicate {
+        @Override
+        public boolean test(long epochMilli) {
+            return true;
+        }
+
+        @Override
+        public int[] filter(long[] epochMillis) {
+            int[] indices = new int[epochMillis.length];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = i;
+            }
+            return indices;
+        }
+    }
+
+    private record Never() implements EpochPredicate {
+        @Override
+        public boolean test(long epochMilli) {
+            return false;
+        }
+
+        @Override
+        public int[] filter(long[] epochMillis) {
+            return new int[0];
+        }
+    }
+
+    private record AtLeast(long lowest) implements EpochPredicate {
+        @Override
+        public boolean test(long epochMilli) {
+            return epochMilli >= lowest;
+        }
+
+        @Override
+        public int[] filter(long[] epochMillis) {
+            int[] indices = new int[epochMillis.length];
+            int count = 0;
+            for (int i = 0; i < epochMillis.length; i++) {
+                indices[count] = i;
+                count += epochMillis[i] >= lowest ? 1 : 0;
+            }
+            return Arrays.copyOf(indices, count);
+        }
+    }
+
+    private record Below(long end) implements EpochPredicate {
+        @Override
+        public boolean test(long epochMilli) {
+            return epochMilli < end;
+        }
+
+        @Override
+        public int[] filter(long[] epochMillis) {
+            int[] indices = new int[epochMillis.length];
+            int count = 0;
+            for (int i = 0; i < epochMillis.length; i++) {
+                indices[count] = i;
+                count += epochMillis[i] < end ? 1 : 0;
+            }
+            return Arrays.copyOf(indices, count);
+        }
+    }
+
+    /**
+     * lowest <= value < lowest + width, tested as one unsigned comparison: values below lowest wrap around to huge ones.
+     */
+    private record Between(long lowest, long width) implements EpochPredicate {
+        @Override
+        public boolean test(long epochMilli) {
+            return Long.compareUnsigned(epochMilli - lowest, width) < 0;
+        }
+
+        @Override
+        public int[] filter(long[] epochMillis) {
+            int[] indices = new int[epochMillis.length];
+            int count = 0;
+            for (int i = 0; i < epochMillis.length; i++) {
+                indices[count] = i;
+                count += Long.compareUnsigned(epochMillis[i] - lowest, width) < 0 ? 1 : 0;
+            }
+            return Arrays.copyOf(indices, count);
+        }
+    }
+}
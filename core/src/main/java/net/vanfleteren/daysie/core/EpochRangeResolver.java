@@ -0,0 +1,273 @@
+package net.vanfleteren.daysie.core;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+
+/**
+ * Resolves one expression against many reference times in epoch millis, see {@link CompiledExpression#resolveEpochMillis}.
+ * <p>
+ * Relative days, like "yesterday", and last, this and next ranges of days, weeks, months, quarters and years are computed
+ * on epoch days and month numbers in plain long arithmetic, so resolving them allocates nothing per reference time.
+ * Only the instant of local midnight is looked up in the zone rules, once per day, and remembered.
+ * Hours, minutes and seconds count elapsed time, so they are plain arithmetic on the epoch millis in every zone,
+ * and only the start of "this hour" or "this minute" needs the offset at that time.
+ * Every other expression is resolved one reference time at a time like {@link CompiledExpression#resolveInstant},
+ * within the single event of the bulk call.
+ */
+final class EpochRangeResolver {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final long MIN_EPOCH_DAY = LocalDate.MIN.toEpochDay();
+    private static final long MAX_EPOCH_DAY = LocalDate.MAX.toEpochDay();
+    /**
+     * Epoch days whose midnight fits in a long of epoch millis with room to spare for any offset.
+     */
+    private static final long SAFE_EPOCH_DAYS = Long.MAX_VALUE / MILLIS_PER_DAY - 1;
+    /**
+     * 1970-01-01 is a thursday, so the epoch day of a monday plus 3 is a multiple of 7.
+     */
+    private static final int MONDAY_OFFSET = 3;
+
+    private enum Direction {LAST, THIS, NEXT}
+
+    private EpochRangeResolver() {
+    }
+
+    static void resolve(CompiledExpression compiled, long[] nows, ZoneId zone, long[] from, long[] until) {
+        if (from.length < nows.length || until.length < nows.length) {
+            throw new IllegalArgumentException("from and until must be at least as long as nows");
+        }
+        LocalDays days = new LocalDays(zone);
+        switch (compiled.expression()) {
+            case Expression.RelativeDay(int offsetDays) -> {
+                for (int i = 0; i < nows.length; i++) {
+                    long day = days.epochDay(nows[i]) + offsetDays;
+                    from[i] = days.midnight(day, false);
+                    until[i] = days.midnight(day + 1, true);
+                }
+            }
+            case Expression.LastRange(ChronoUnit unit, int amount, boolean isQuarter) ->
+                    resolveRange(compiled, Direction.LAST, unit, amount, isQuarter, nows, days, from, until);
+            case Expression.ThisRange(ChronoUnit unit, int amount, boolean isQuarter) ->
+                    resolveRange(compiled, Direction.THIS, unit, amount, isQuarter, nows, days, from, until);
+            case Expression.NextRange(ChronoUnit unit, int amount, boolean isQuarter) ->
+                    resolveRange(compiled, Direction.NEXT, unit, amount, isQuarter, nows, days, from, until);
+            default -> resolveEach(compiled, nows, zone, from, until);
+        }
+    }
+
+    private static void resolveRange(CompiledExpression compiled, Direction direction, ChronoUnit unit, int amount, boolean isQuarter,
+                                     long[] nows, LocalDays days, long[] from, long[] until) {
+        switch (unit) {
+            case DAYS, WEEKS, MONTHS, YEARS -> resolveCalendarRange(direction, unit, amount, isQuarter, nows, days, from, until);
+            case HOURS, MINUTES, SECONDS ->
+                    resolveElapsedRange(compiled, direction, unit.getDuration().toMillis(), amount, nows, days, from, until);
+            default -> resolveEach(compiled, nows, days.zone, from, until);
+        }
+    }
+
+    /**
+     * Same ranges as {@link DateCalculator#calculateLastRange}, {@link DateCalculator#calculateThisRange}
+     * and {@link DateCalculator#calculateNextRange}, counted in epoch days for days and weeks and in months since year 0
+     * for months, quarters and years.
+     */
+    private static void resolveCalendarRange(Direction direction, ChronoUnit unit, int amount, boolean isQuarter,
+                                             long[] nows, LocalDays days, long[] from, long[] until) {
+        boolean inMonths = unit == ChronoUnit.MONTHS || unit == ChronoUnit.YEARS;
+        long step = switch (unit) {
+            case DAYS -> 1;
+            case WEEKS -> 7;
+            case MONTHS -> isQuarter ? 3 : 1;
+            default -> 12;
+        };
+        boolean fromNow = direction == Direction.NEXT && unit == ChronoUnit.DAYS;
+        boolean untilNow = direction == Direction.LAST && unit == ChronoUnit.DAYS;
+        // reference times are usually sorted, so consecutive ones share the day and with it the bounds
+        long boundsDay = Long.MIN_VALUE;
+        long startMillis = 0;
+        long endMillis = 0;
+        for (int i = 0; i < nows.length; i++) {
+            long now = nows[i];
+            long today = days.epochDay(now);
+            if (today != boundsDay) {
+                long current = switch (unit) {
+                    case DAYS -> today;
+                    case WEEKS -> today - Math.floorMod(today + MONDAY_OFFSET, 7);
+                    default -> {
+                        long month = monthOf(today);
+                        yield month - Math.floorMod(month, step);
+                    }
+                };
+                long start;
+                long end;
+                switch (direction) {
+                    case LAST -> {
+                        start = current - amount * step;
+                        end = current;
+                    }
+                    case THIS -> {
+                        start = current - (amount - 1L) * step;
+                        end = current + step;
+                    }
+                    default -> {
+                        start = current + step;
+                        end = current + step + amount * step;
+                    }
+                }
+                startMillis = fromNow ? 0 : days.midnight(inMonths ? firstDayOfMonth(start) : start, false);
+                endMillis = untilNow ? 0 : days.midnight(inMonths ? firstDayOfMonth(end) : end, true);
+                boundsDay = today;
+            }
+            from[i] = fromNow ? now : startMillis;
+            until[i] = untilNow ? now : endMillis;
+        }
+    }
+
+    private static void resolveElapsedRange(CompiledExpression compiled, Direction direction, long unitMillis, int amount,
+                                            long[] nows, LocalDays days, long[] from, long[] until) {
+        for (int i = 0; i < nows.length; i++) {
+            long now = nows[i];
+            switch (direction) {
+                case LAST -> {
+                    from[i] = now - amount * unitMillis;
+                    until[i] = now;
+                }
+                case THIS -> {
+                    long start = now - (amount - 1L) * unitMillis;
+                    long offsetMillis = days.offsetMillis(start);
+                    long local = start + offsetMillis;
+                    from[i] = local - Math.floorMod(local, unitMillis) - offsetMillis;
+                    until[i] = from[i] + unitMillis;
+                    if (days.offsetMillis(from[i]) != offsetMillis) {
+                        // a transition that is not on a whole unit, like the half hour shift on Lord Howe Island,
+                        // puts the local start of the unit at another offset
+                        resolveOne(compiled, nows, i, days.zone, from, until);
+                    }
+                }
+                default -> {
+                    from[i] = now;
+                    until[i] = now + amount * unitMillis;
+                }
+            }
+        }
+    }
+
+    private static void resolveEach(CompiledExpression compiled, long[] nows, ZoneId zone, long[] from, long[] until) {
+        for (int i = 0; i < nows.length; i++) {
+            resolveOne(compiled, nows, i, zone, from, until);
+        }
+    }
+
+    private static void resolveOne(CompiledExpression compiled, long[] nows, int i, ZoneId zone, long[] from, long[] until) {
+        InstantRange range = compiled.instantRange(Instant.ofEpochMilli(nows[i]), zone);
+        from[i] = EpochPredicates.lowestMatch(range);
+        until[i] = EpochPredicates.endOfMatches(range);
+    }
+
+    /**
+     * @return the month of the epoch day, counted from January of year 0
+     */
+    static long monthOf(long epochDay) {
+        // civil from days, with years starting in March so the leap day is the last day of the year
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long marchBasedMonth = (5 * dayOfYear + 2) / 153;
+        long year = yearOfEra + era * 400 + (marchBasedMonth >= 10 ? 1 : 0);
+        long month = marchBasedMonth < 10 ? marchBasedMonth + 2 : marchBasedMonth - 10;
+        return year * 12 + month;
+    }
+
+    /**
+     * @return the epoch day of the first day of a month counted from January of year 0
+     */
+    static long firstDayOfMonth(long month) {
+        long year = Math.floorDiv(month, 12);
+        long monthOfYear = Math.floorMod(month, 12) + 1;
+        if (monthOfYear <= 2) {
+            year--;
+        }
+        long era = Math.floorDiv(year, 400);
+        long yearOfEra = year - era * 400;
+        long dayOfYear = (153 * (monthOfYear > 2 ? monthOfYear - 3 : monthOfYear + 9) + 2) / 5;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097 + dayOfEra - 719_468;
+    }
+
+    /**
+     * Local days of one zone: the offset is looked up once per stretch between two transitions,
+     * and the instant of local midnight once per day.
+     */
+    private static final class LocalDays {
+        private static final int CACHED_DAYS = 1024;
+
+        private final ZoneId zone;
+        private final ZoneRules rules;
+        private final long[] cachedDays = new long[CACHED_DAYS];
+        private final long[] cachedStarts = new long[CACHED_DAYS];
+        private final long[] cachedEnds = new long[CACHED_DAYS];
+        // the offset is offsetMillis for epoch millis in [validFrom, validUntil)
+        private long validFrom = 1;
+        private long validUntil = 0;
+        private long offsetMillis;
+
+        LocalDays(ZoneId zone) {
+            this.zone = zone;
+            this.rules = zone.getRules();
+            Arrays.fill(cachedDays, Long.MIN_VALUE);
+        }
+
+        long epochDay(long epochMilli) {
+            return Math.floorDiv(epochMilli + offsetMillis(epochMilli), MILLIS_PER_DAY);
+        }
+
+        long offsetMillis(long epochMilli) {
+            if (epochMilli < validFrom || epochMilli >= validUntil) {
+                Instant instant = Instant.ofEpochMilli(epochMilli);
+                offsetMillis = rules.getOffset(instant).getTotalSeconds() * 1000L;
+                if (rules.isFixedOffset()) {
+                    validFrom = Long.MIN_VALUE;
+                    validUntil = Long.MAX_VALUE;
+                } else {
+                    ZoneOffsetTransition previous = rules.previousTransition(instant.plusMillis(1));
+                    ZoneOffsetTransition next = rules.nextTransition(instant);
+                    validFrom = previous == null ? Long.MIN_VALUE : previous.toEpochSecond() * 1000;
+                    validUntil = next == null ? Long.MAX_VALUE : next.toEpochSecond() * 1000;
+                }
+            }
+            return offsetMillis;
+        }
+
+        /**
+         * @param endBound whether midnight ends a range, which picks the later instant when midnight occurs twice
+         * @return the epoch milli of the start of the local day
+         */
+        long midnight(long epochDay, boolean endBound) {
+            if (epochDay < MIN_EPOCH_DAY || epochDay > MAX_EPOCH_DAY) {
+                throw new DateTimeException("Invalid date, epoch day " + epochDay + " is out of range");
+            }
+            if (rules.isFixedOffset() && Math.abs(epochDay) < SAFE_EPOCH_DAYS) {
+                return epochDay * MILLIS_PER_DAY - offsetMillis(0);
+            }
+            int slot = (int) (epochDay & (CACHED_DAYS - 1));
+            if (cachedDays[slot] != epochDay) {
+                cachedDays[slot] = epochDay;
+                cachedStarts[slot] = toEpochMilli(epochDay, false);
+                cachedEnds[slot] = toEpochMilli(epochDay, true);
+            }
+            return endBound ? cachedEnds[slot] : cachedStarts[slot];
+        }
+
+        private long toEpochMilli(long epochDay, boolean endBound) {
+            return EpochPredicates.floorEpochMilli(DateCalculator.toInstant(LocalDate.ofEpochDay(epochDay).atStartOfDay(), zone, endBound));
+        }
+    }
+}
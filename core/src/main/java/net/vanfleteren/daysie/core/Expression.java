@@ -0,0 +1,330 @@
+package net.vanfleteren.daysie.core;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Internal, clock-independent representation of a parsed expression.
+ * Keyword decisions are made while parsing; resolving only needs a reference time.
+ */
+sealed interface Expression {
+
+    /**
+     * Resolves against a reference time. Calendar units (days, weeks, months...) count in local time,
+     * sub-day units (hours, minutes, seconds) count elapsed time on the timeline of the zone of now.
+     * Bounds on the timeline keep their offset, see {@link DateValueInt}.
+     */
+    DateValueInt resolve(ZonedDateTime now);
+
+    /**
+     * Resolves in plain local time, without daylight saving time transitions.
+     */
+    default DateValueInt resolve(LocalDateTime now) {
+        return resolve(now.atZone(ZoneOffset.UTC));
+    }
+
+    enum DayOfWeekDirection {PREVIOUS_OR_SAME, PREVIOUS, NEXT}
+
+    /**
+     * @return the point a value starts at, with its offset: the point itself, or the start of the range
+     */
+    private static DateValueInt.AbsoluteDateInt start(DateValueInt value) {
+        return switch (value) {
+            case DateValueInt.AbsoluteDateInt ad -> ad;
+            case DateValueInt.AbsoluteRange ar -> new DateValueInt.AbsoluteDateInt(ar.from(), true, ar.fromInclusive(), ar.fromOffset());
+        };
+    }
+
+    record Fixed(DateValueInt value) implements Expression {
+        @Override
+        public DateValueInt resolve(ZonedDateTime now) {
+            return value;
+        }
+    }
+
+    record Now() implements Expression {
+        @Override
+        public DateValueInt resolve(ZonedDateTime now) {
+            return new DateValueInt.AbsoluteDateInt(now.toLocalDateTime(), false, true, now.getOffset());
+        }
+    }
+
+    record TimeToday(LocalTime time) implements Expression {
+        @Override
+        public DateValueInt resolve(ZonedDateTime now) {
+            return new DateValueInt.AbsoluteDateInt(LocalDateTime.of(now.toLocalDate(), time), false, true);
+        }
+    }
+
+    record RelativeDay(int offsetDays) implements Expression {
+        @Override
+        public DateValueInt resolve(ZonedDateTime now) {
+            return DateCalculator.calculateRelativeDay(now.toLocalDateTime(), offsetDays);
+        }
+    }
+
+    record DayOfWeekRange(DayOfWeek dayOfWeek, DayOfWeekDirection direction) implements Expression {
+        @Override
+        public DateValueInt resolve(ZonedDateTime now) {
+            return DateCalculator.calculateDayOfWeek(now.toLocalDateTime(), dayOfWeek, direction);
+        }
+    }
+
+    record LastRange(ChronoUnit unit, int amount, boolean isQuarter) implements Expression {
+        @Override
+        public DateValueInt resolve(ZonedDateTime now) {
+            return DateCalculator.calculateLastRange(now, unit, amount, isQuarter);
+        }
+    }
+
+    record NextRange(ChronoUnit unit, int amount, boolean isQuarter) implements Expression {
+        @Override
+        public DateValueInt resolve(ZonedDateTime now) {
+            return DateCalculator.calculateNextRange(now, unit, amount, isQuarter);
+        }
+    }
+
+    record ThisRange(ChronoUnit unit, int amount, boolean isQuarter) implements Expression {
+        @Override
+        public DateValueInt resolve(ZonedDateTime now) {
+            return DateCalculator.calculateThisRange(now, unit, amount, isQuarter);
+        }
+    }
+
+    record Ago(ChronoUnit unit, int amount) implements Expression {
+        @Override
+        public DateValueInt resolve(ZonedDateTime now) {
+            return DateCalculator.calculateAgoDate(now, unit, amount);
+        }
+    }
+
+    record FromNow(ChronoUnit unit, int amount) implements Expression {
+        @Override
+        public DateValueInt resolve(ZonedDateTime now) {
+            return DateCalculator.calculateFromNowDate(now, unit, amount);
+        }
+    }
+
+    record DayOfWeekAgo(DayOfWeek dayOfWeek, int amount) implements Expression {
+        @Override
+        public DateValueInt resolve(ZonedDateTime now) {
+            return DateCalculator.calculateDayOfWeekAgo(now.toLocalDateTime(), dayOfWeek, amount);
+        }
+    }
+
+    record DayOfWeekFromNow(DayOfWeek dayOfWeek, int amount) implements Expression {
+        @Override
+        public DateValueInt resolve(ZonedDateTime now) {
+            return DateCalculator.calculateDayOfWeekFromNow(now.toLocalDateTime(), dayOfWeek, amount);
+        }
+    }
+
+    /**
+     * A day (or point in time) with an explicit time of day, eg "yesterday at 10:00" or "2 days ago 14:00".
+     */
+    record AtTime(Expression base, LocalTime time) implements Expression {
+        @Override
+        public DateValueInt resolve(ZonedDateTime now) {
+            LocalDateTime dt = switch (base.resolve(now)) {
+                case DateValueInt.AbsoluteRange ar -> LocalDateTime.of(ar.from().toLocalDate(), time);
+                case DateValueInt.AbsoluteDateInt ad -> LocalDateTime.of(ad.date().toLocalDate(), time);
+            };
+            return new DateValueInt.AbsoluteDateInt(dt, false, true);
+        }
+    }
+
+    record StartOf(Expression base) implements Expression {
+        @Override
+        public DateValueInt resolve(ZonedDateTime now) {
+            return switch (base.resolve(now)) {
+                case DateValueInt.AbsoluteRange ar -> new DateValueInt.AbsoluteDateInt(ar.from(), true, ar.fromInclusive(), ar.fromOffset());
+                case DateValueInt.AbsoluteDateInt ad -> ad;
+            };
+        }
+    }
+
+    record EndOf(Expression base) implements Expression {
+        @Override
+        public DateValueInt resolve(ZonedDateTime now) {
+            return switch (base.resolve(now)) {
+                case DateValueInt.AbsoluteRange ar -> new DateValueInt.AbsoluteDateInt(ar.until(), true, false, ar.untilOffset());
+                case DateValueInt.AbsoluteDateInt ad -> ad;
+            };
+        }
+    }
+
+    record FirstDayOf(Expression base) implements Expression {
+        @Override
+        public DateValueInt resolve(ZonedDateTime now) {
+            return switch (base.resolve(now)) {
+                case DateValueInt.AbsoluteRange ar -> new DateValueInt.AbsoluteRange(ar.from().with(LocalTime.MIN), ar.from().plusDays(1).with(LocalTime.MIN), true, false);
+                case DateValueInt.AbsoluteDateInt ad -> {
+                    LocalDateTime dayStart = ad.date().with(LocalTime.MIN);
+                    yield new DateValueInt.AbsoluteRange(dayStart, dayStart.plusDays(1), true, false);
+                }
+            };
+        }
+    }
+
+    record LastDayOf(Expression base) implements Expression {
+        @Override
+        public DateValueInt resolve(ZonedDateTime now) {
+            LocalDateTime until;
+            ZoneOffset untilOffset;
+            boolean inclusive;
+            switch (base.resolve(now)) {
+                case DateValueInt.AbsoluteRange ar -> {
+                    until = ar.until();
+                    untilOffset = ar.untilOffset();
+                    inclusive = ar.untilInclusive();
+                }
+                case DateValueInt.AbsoluteDateInt ad -> {
+                    until = ad.date().plusDays(1).with(LocalTime.MIN);
+                    untilOffset = null;
+                    inclusive = false;
+                }
+            }
+            LocalDateTime dayStart = until.minusDays(1).with(LocalTime.MIN);
+            return new DateValueInt.AbsoluteRange(dayStart, until, true, inclusive, null, untilOffset);
+        }
+    }
+
+    /**
+     * "A to B", where inclusiveConnector tells whether the connector keyword includes B.
+     */
+    record Range(Expression from, Expression until, boolean inclusiveConnector) implements Expression {
+        @Override
+        public DateValueInt resolve(ZonedDateTime now) {
+            DateValueInt.AbsoluteDateInt start = start(from.resolve(now));
+
+            LocalDateTime untilDate;
+            ZoneOffset untilOffset;
+            boolean isUntilInclusive;
+
+            switch (until.resolve(now)) {
+                case DateValueInt.AbsoluteDateInt ad -> {
+                    untilDate = ad.date();
+                    untilOffset = ad.offset();
+                    isUntilInclusive = inclusiveConnector;
+                }
+                case DateValueInt.AbsoluteRange ar -> {
+                    if (inclusiveConnector) {
+                        untilDate = ar.until();
+                        untilOffset = ar.untilOffset();
+                        isUntilInclusive = ar.untilInclusive();
+                    } else {
+                        untilDate = ar.from();
+                        untilOffset = ar.fromOffset();
+                        isUntilInclusive = false;
+                    }
+                }
+            }
+
+            return new DateValueInt.AbsoluteRange(start.date(), untilDate, true, isUntilInclusive, start.offset(), untilOffset);
+        }
+    }
+
+    record Between(Expression from, Expression until) implements Expression {
+        @Override
+        public DateValueInt resolve(ZonedDateTime now) {
+            DateValueInt.AbsoluteDateInt start = start(from.resolve(now));
+
+            LocalDateTime untilDate;
+            ZoneOffset untilOffset;
+            boolean isUntilInclusive;
+
+            switch (until.resolve(now)) {
+                case DateValueInt.AbsoluteDateInt ad -> {
+                    untilDate = ad.date();
+                    untilOffset = ad.offset();
+                    isUntilInclusive = true; // "between A and B" is usually inclusive of the day B
+                }
+                case DateValueInt.AbsoluteRange ar -> {
+                    untilDate = ar.until();
+                    untilOffset = ar.untilOffset();
+                    isUntilInclusive = ar.untilInclusive();
+                }
+            }
+
+            return new DateValueInt.AbsoluteRange(start.date(), untilDate, true, isUntilInclusive, start.offset(), untilOffset);
+        }
+    }
+
+    /**
+     * "until X" / "before X", the flags record which keyword set the operator came from.
+     */
+    record Until(Expression base, boolean inclusiveOp, boolean exclusiveOp) implements Expression {
+        @Override
+        public DateValueInt resolve(ZonedDateTime now) {
+            LocalDateTime date;
+            ZoneOffset offset;
+            boolean inclusive;
+            switch (base.resolve(now)) {
+                case DateValueInt.AbsoluteDateInt ad -> {
+                    date = ad.date();
+                    offset = ad.offset();
+                    if (ad.isRangeBoundary()) {
+                        inclusive = !exclusiveOp && ad.isInclusive();
+                    } else {
+                        inclusive = inclusiveOp;
+                    }
+                }
+                case DateValueInt.AbsoluteRange ar -> {
+                    if (inclusiveOp) {
+                        date = ar.until();
+                        offset = ar.untilOffset();
+                        inclusive = ar.untilInclusive();
+                    } else {
+                        date = ar.from();
+                        offset = ar.fromOffset();
+                        inclusive = false;
+                    }
+                }
+            }
+            return new DateValueInt.AbsoluteRange(LocalDateTime.MIN, date, false, inclusive, null, offset);
+        }
+    }
+
+    /**
+     * "since X" / "after X", the flags record which keyword set the operator came from.
+     */
+    record From(Expression base, boolean inclusiveOp, boolean exclusiveOp) implements Expression {
+        @Override
+        public DateValueInt resolve(ZonedDateTime now) {
+            LocalDateTime date;
+            ZoneOffset offset;
+            boolean inclusive = inclusiveOp;
+            switch (base.resolve(now)) {
+                case DateValueInt.AbsoluteDateInt ad -> {
+                    date = ad.date();
+                    offset = ad.offset();
+                    if (ad.isRangeBoundary()) {
+                        if (exclusiveOp) {
+                            inclusive = false;
+                        } else if (inclusiveOp) {
+                            inclusive = true;
+                        } else {
+                            inclusive = ad.isInclusive();
+                        }
+                    }
+                }
+                case DateValueInt.AbsoluteRange ar -> {
+                    if (inclusive) {
+                        date = ar.from();
+                        offset = ar.fromOffset();
+                    } else {
+                        date = ar.until();
+                        offset = ar.untilOffset();
+                        inclusive = true;
+                    }
+                }
+            }
+            return new DateValueInt.AbsoluteRange(date, LocalDateTime.MAX, inclusive, false, offset, null);
+        }
+    }
+
+}
@@ -0,0 +1,111 @@
+package net.vanfleteren.daysie.core;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded cache of compiled expressions, keyed on the normalized input.
+ * Only successful compilations are cached, so junk input can't push out the expressions that are actually used.
+ * <p>
+ * Evicts in approximately least recently used order, with the CLOCK algorithm: a hit only marks its entry as referenced,
+ * without a lock, and eviction gives referenced entries a second chance by moving them to the back of the queue.
+ * Only inserts, which follow a grammar run anyway, take the eviction lock.
+ */
+final class ExpressionCache {
+
+    private final int maximumSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> evictionOrder = new ConcurrentLinkedQueue<>();
+    private final Object evictionLock = new Object();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    ExpressionCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be at least 1, was " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    CompiledExpression get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        // only write when needed, so hot entries don't bounce their cache line between cores
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        return entry.expression;
+    }
+
+    void put(String key, CompiledExpression expression) {
+        Entry entry = new Entry(key, expression);
+        if (entries.putIfAbsent(key, entry) != null) {
+            return;
+        }
+        synchronized (evictionLock) {
+            evictionOrder.add(entry);
+            while (entries.size() > maximumSize) {
+                Entry candidate = evictionOrder.poll();
+                if (candidate == null) {
+                    // the other entries are still being added by other threads, which will evict for them
+                    break;
+                }
+                if (candidate.referenced) {
+                    candidate.referenced = false;
+                    evictionOrder.add(candidate);
+                } else {
+                    entries.remove(candidate.key);
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    ParseCacheStats stats() {
+        return new ParseCacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+    }
+
+    /**
+     * Lower-cases the term and collapses every run of whitespace into a single space.
+     * The grammar is case-insensitive and treats any whitespace run alike, so this never changes the parse result.
+     * @return the cache key for the term
+     */
+    static String normalize(CharSequence term) {
+        StringBuilder sb = null;
+        boolean previousWhitespace = false;
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            boolean whitespace = Character.isWhitespace(c);
+            char normalized = whitespace ? ' ' : Character.toLowerCase(c);
+            boolean skip = whitespace && previousWhitespace;
+            if (sb == null && (skip || normalized != c)) {
+                sb = new StringBuilder(term.length());
+                sb.append(term, 0, i);
+            }
+            if (sb != null && !skip) {
+                sb.append(normalized);
+            }
+            previousWhitespace = whitespace;
+        }
+        return sb == null ? term.toString() : sb.toString();
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final CompiledExpression expression;
+        private volatile boolean referenced;
+
+        private Entry(String key, CompiledExpression expression) {
+            this.key = key;
+            this.expression = expression;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package net.vanfleteren.daysie.core;
+
+/**
+ * The branch of the grammar that produced a compiled expression, reported to a {@link ParseMetricsListener}.
+ * The names follow the parsers in {@link DateValueParser} that the top level {@code Parsers.longest} picks from.
+ */
+public enum GrammarProduction {
+    /**
+     * An ISO date, date-time, week or month, or a range of two of them, recognized without running the grammar.
+     */
+    ISO_LITERAL,
+    /**
+     * "A to B"
+     */
+    ABSOLUTE_RANGE,
+    /**
+     * "until X", "before X"
+     */
+    UNTIL,
+    /**
+     * "since X", "after X"
+     */
+    FROM,
+    START_OF,
+    END_OF,
+    FIRST_DAY_OF,
+    LAST_DAY_OF,
+    /**
+     * "between A and B"
+     */
+    BETWEEN,
+    /**
+     * "2 days ago at 10:00"
+     */
+    RELATIVE_POINT_WITH_TIME,
+    /**
+     * "5 minutes ago", "in 3 days", "2 mondays ago"
+     */
+    RELATIVE_POINT,
+    /**
+     * "today", "monday", "next friday"
+     */
+    RELATIVE_DATE,
+    /**
+     * "last 3 days"
+     */
+    LAST,
+    /**
+     * "next 2 weeks"
+     */
+    NEXT,
+    /**
+     * "this month"
+     */
+    THIS,
+    /**
+     * "now", "2026-02-14 10:00", "yesterday at 10:00", "10:00"
+     */
+    ABSOLUTE_DATE_TIME;
+
+    /**
+     * @return the production that parses into the expression, going by the type of its root
+     */
+    static GrammarProduction of(Expression expression) {
+        return switch (expression) {
+            case Expression.Range ignored -> ABSOLUTE_RANGE;
+            case Expression.Until ignored -> UNTIL;
+            case Expression.From ignored -> FROM;
+            case Expression.StartOf ignored -> START_OF;
+            case Expression.EndOf ignored -> END_OF;
+            case Expression.FirstDayOf ignored -> FIRST_DAY_OF;
+            case Expression.LastDayOf ignored -> LAST_DAY_OF;
+            case Expression.Between ignored -> BETWEEN;
+            // relative dates with a time are part of the absolute date-time parser
+            case Expression.AtTime atTime -> switch (atTime.base()) {
+                case Expression.RelativeDay ignored -> ABSOLUTE_DATE_TIME;
+                case Expression.DayOfWeekRange ignored -> ABSOLUTE_DATE_TIME;
+                default -> RELATIVE_POINT_WITH_TIME;
+            };
+            case Expression.Ago ignored -> RELATIVE_POINT;
+            case Expression.FromNow ignored -> RELATIVE_POINT;
+            case Expression.DayOfWeekAgo ignored -> RELATIVE_POINT;
+            case Expression.DayOfWeekFromNow ignored -> RELATIVE_POINT;
+            case Expression.RelativeDay ignored -> RELATIVE_DATE;
+            case Expression.DayOfWeekRange ignored -> RELATIVE_DATE;
+            case Expression.LastRange ignored -> LAST;
+            case Expression.NextRange ignored -> NEXT;
+            case Expression.ThisRange ignored -> THIS;
+            case Expression.Now ignored -> ABSOLUTE_DATE_TIME;
+            case Expression.TimeToday ignored -> ABSOLUTE_DATE_TIME;
+            case Expression.Fixed ignored -> ABSOLUTE_DATE_TIME;
+        };
+    }
+}
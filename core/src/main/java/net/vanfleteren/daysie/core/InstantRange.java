@@ -0,0 +1,55 @@
+package net.vanfleteren.daysie.core;
+
+import org.jspecify.annotations.NonNull;
+
+import java.time.Instant;
+
+/**
+ * A parsed value as a range of instants, ready for range scans on timestamps.
+ * A single point in time has equal, inclusive bounds. Open-ended ranges use {@link Instant#MIN} and {@link Instant#MAX}.
+ * @see DateValueParser#parseInstant(String, java.time.ZoneId)
+ */
+public record InstantRange(Instant from, Instant until, boolean fromInclusive, boolean untilInclusive) {
+
+    /**
+     * @return the start in milliseconds since the epoch, or Long.MIN_VALUE when the range has no start
+     */
+    public long fromEpochMilli() {
+        return toEpochMilli(from);
+    }
+
+    /**
+     * @return the end in milliseconds since the epoch, or Long.MAX_VALUE when the range has no end
+     */
+    public long untilEpochMilli() {
+        return toEpochMilli(until);
+    }
+
+    /**
+     * @return a predicate over epoch milliseconds that matches the instants in this range
+     */
+    public EpochPredicate toLongPredicate() {
+        return EpochPredicates.of(this);
+    }
+
+    private static long toEpochMilli(Instant instant) {
+        if (instant.getEpochSecond() < Long.MIN_VALUE / 1000) {
+            return Long.MIN_VALUE;
+        }
+        if (instant.getEpochSecond() >= Long.MAX_VALUE / 1000) {
+            return Long.MAX_VALUE;
+        }
+        return instant.toEpochMilli();
+    }
+
+    @Override
+    public @NonNull String toString() {
+        String startBracket = fromInclusive ? "[" : "(";
+        String endBracket = untilInclusive ? "]" : ")";
+
+        String fromStr = from.equals(Instant.MIN) ? "-∞" : from.toString();
+        String untilStr = until.equals(Instant.MAX) ? " ∞" : until.toString();
+
+        return String.format("%s%s,%s%s", startBracket, fromStr, untilStr, endBracket);
+    }
+}
@@ -0,0 +1,239 @@
+package net.vanfleteren.daysie.core;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Comparator;
+
+/**
+ * Hand-written scanner for the ISO literals that make up most machine-generated input:
+ * 2026-02-15, 2026-02-15T10:30[:00], 2026-02, 2026-W07 and ranges of two of them joined by a range connector.
+ * <p>
+ * It walks the characters once without allocating and only builds the resulting expression.
+ * Anything it does not fully recognize yields null, and the caller falls back to the full grammar,
+ * so accepted input always produces the same expression as the grammar would.
+ */
+final class IsoLiteralScanner {
+
+    private static final Comparator<String> BY_LENGTH_DESC = Comparator.comparingInt(String::length).reversed();
+
+    private final String[] inclusiveConnectors;
+    private final String[] exclusiveConnectors;
+
+    IsoLiteralScanner(LanguageKeywords keywords) {
+        this.inclusiveConnectors = keywords.rangeConnectorsInclusive().stream().sorted(BY_LENGTH_DESC).toArray(String[]::new);
+        this.exclusiveConnectors = keywords.rangeConnectorsExclusive().stream().sorted(BY_LENGTH_DESC).toArray(String[]::new);
+    }
+
+    /**
+     * @return the expression for the input, or null when the input is not a plain ISO literal or range of them
+     */
+    Expression scan(CharSequence input) {
+        int length = input.length();
+        int firstEnd = literalEnd(input, 0);
+        if (firstEnd < 0) {
+            return null;
+        }
+        int pos = skipWhitespace(input, firstEnd);
+        if (pos == length) {
+            return literal(input, 0, firstEnd);
+        }
+        if (pos == firstEnd) {
+            return null;
+        }
+
+        boolean inclusive = true;
+        int connectorEnd = matchConnector(input, pos, inclusiveConnectors);
+        if (connectorEnd < 0) {
+            inclusive = false;
+            connectorEnd = matchConnector(input, pos, exclusiveConnectors);
+            if (connectorEnd < 0) {
+                return null;
+            }
+        }
+
+        int secondStart = skipWhitespace(input, connectorEnd);
+        if (secondStart == connectorEnd) {
+            return null;
+        }
+        int secondEnd = literalEnd(input, secondStart);
+        if (secondEnd < 0 || skipWhitespace(input, secondEnd) != length) {
+            return null;
+        }
+        return new Expression.Range(literal(input, 0, firstEnd), literal(input, secondStart, secondEnd), inclusive);
+    }
+
+    /**
+     * Validates a single literal starting at start.
+     * @return the index right after the literal, or -1 when there is no valid literal followed by whitespace or the end
+     */
+    private static int literalEnd(CharSequence s, int start) {
+        int length = s.length();
+        if (!digits(s, start, 4) || !isChar(s, start + 4, '-')) {
+            return -1;
+        }
+        int end;
+        if (isChar(s, start + 5, 'W') || isChar(s, start + 5, 'w')) {
+            end = start + 6;
+            if (!digits(s, end, 1)) {
+                return -1;
+            }
+            end += digits(s, end + 1, 1) ? 2 : 1;
+        } else if (!digits(s, start + 5, 2) || !validMonth(number(s, start + 5, 2))) {
+            return -1;
+        } else if (!isChar(s, start + 7, '-')) {
+            end = start + 7;
+        } else {
+            if (!digits(s, start + 8, 2) || !validDay(number(s, start, 4), number(s, start + 5, 2), number(s, start + 8, 2))) {
+                return -1;
+            }
+            end = start + 10;
+            int timeStart;
+            if (isChar(s, end, 'T') || isChar(s, end, 't')) {
+                timeStart = end + 1;
+            } else {
+                timeStart = skipWhitespace(s, end);
+                if (timeStart == length || !isDigit(s.charAt(timeStart))) {
+                    // a date-only literal, unless more digits follow
+                    return isBoundary(s, end) ? end : -1;
+                }
+            }
+            end = timeEnd(s, timeStart);
+            if (end < 0) {
+                return -1;
+            }
+        }
+        return isBoundary(s, end) ? end : -1;
+    }
+
+    private static int timeEnd(CharSequence s, int start) {
+        if (!digits(s, start, 2) || !isChar(s, start + 2, ':') || !digits(s, start + 3, 2)
+                || number(s, start, 2) > 23 || number(s, start + 3, 2) > 59) {
+            return -1;
+        }
+        if (!isChar(s, start + 5, ':')) {
+            return start + 5;
+        }
+        if (!digits(s, start + 6, 2) || number(s, start + 6, 2) > 59) {
+            return -1;
+        }
+        return start + 8;
+    }
+
+    /**
+     * Builds the expression for a literal that {@link #literalEnd(CharSequence, int)} accepted.
+     */
+    private static Expression literal(CharSequence s, int start, int end) {
+        int year = number(s, start, 4);
+        if (isChar(s, start + 5, 'W') || isChar(s, start + 5, 'w')) {
+            int week = number(s, start + 6, end - start - 6);
+            LocalDate weekStart = LocalDate.of(year, 1, 4) // ISO-8601 week 1 is the week with Jan 4th
+                    .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                    .plusWeeks(week - 1L);
+            return new Expression.Fixed(new DateValueInt.AbsoluteRange(weekStart.atStartOfDay(), weekStart.plusWeeks(1).atStartOfDay(), true, false));
+        }
+        int month = number(s, start + 5, 2);
+        if (end - start == 7) {
+            LocalDate monthStart = LocalDate.of(year, month, 1);
+            return new Expression.Fixed(new DateValueInt.AbsoluteRange(monthStart.atStartOfDay(), monthStart.plusMonths(1).atStartOfDay(), true, false));
+        }
+        LocalDateTime date = LocalDate.of(year, month, number(s, start + 8, 2)).atStartOfDay();
+        if (end - start == 10) {
+            return new Expression.Fixed(new DateValueInt.AbsoluteRange(date, date.plusDays(1), true, false));
+        }
+        boolean withSeconds = s.charAt(end - 3) == ':' && s.charAt(end - 6) == ':';
+        int timeStart = withSeconds ? end - 8 : end - 5;
+        LocalDateTime dateTime = date
+                .withHour(number(s, timeStart, 2))
+                .withMinute(number(s, timeStart + 3, 2))
+                .withSecond(withSeconds ? number(s, timeStart + 6, 2) : 0);
+        return new Expression.Fixed(new DateValueInt.AbsoluteDateInt(dateTime, false, true));
+    }
+
+    private static int matchConnector(CharSequence s, int start, String[] connectors) {
+        for (String connector : connectors) {
+            int end = matchKeyword(s, start, connector);
+            if (end >= 0) {
+                return end;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Matches a keyword case-insensitively, where a space in the keyword matches any run of whitespace.
+     * @return the index after the match, or -1
+     */
+    private static int matchKeyword(CharSequence s, int start, String keyword) {
+        int pos = start;
+        for (int i = 0; i < keyword.length(); i++) {
+            char expected = keyword.charAt(i);
+            if (expected == ' ') {
+                int afterWhitespace = skipWhitespace(s, pos);
+                if (afterWhitespace == pos) {
+                    return -1;
+                }
+                pos = afterWhitespace;
+            } else if (pos < s.length() && Character.toLowerCase(s.charAt(pos)) == Character.toLowerCase(expected)) {
+                pos++;
+            } else {
+                return -1;
+            }
+        }
+        return pos;
+    }
+
+    private static boolean isBoundary(CharSequence s, int pos) {
+        return pos == s.length() || Character.isWhitespace(s.charAt(pos));
+    }
+
+    private static int skipWhitespace(CharSequence s, int pos) {
+        while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isChar(CharSequence s, int pos, char c) {
+        return pos < s.length() && s.charAt(pos) == c;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean digits(CharSequence s, int start, int count) {
+        if (start + count > s.length()) {
+            return false;
+        }
+        for (int i = start; i < start + count; i++) {
+            if (!isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int number(CharSequence s, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            value = value * 10 + (s.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    private static boolean validMonth(int month) {
+        return month >= 1 && month <= 12;
+    }
+
+    private static boolean validDay(int year, int month, int day) {
+        int lengthOfMonth = switch (month) {
+            case 2 -> Year.isLeap(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+        return day >= 1 && day <= lengthOfMonth;
+    }
+}
@@ -0,0 +1,219 @@
+package net.vanfleteren.daysie.core;
+
+import org.jparsec.Parser;
+import org.jparsec.pattern.Pattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Case-insensitive trie over a set of keywords, each mapped to the category it stands for.
+ * <p>
+ * Matching walks the input once and returns the longest keyword found at that position,
+ * so its cost depends on the length of the keyword rather than on the size of the vocabulary.
+ * Like {@link DateValueParser}'s keywords, a space inside a keyword matches any run of whitespace.
+ */
+final class KeywordTrie<T> {
+
+    private static final ThreadLocal<Match> LAST_MATCH = ThreadLocal.withInitial(Match::new);
+
+    private final Node<T> root = new Node<>();
+
+    /**
+     * @param keywords the keywords to match, mapped to their category. When keywords only differ in case,
+     *                 the first one in iteration order determines the category.
+     */
+    KeywordTrie(Map<String, T> keywords) {
+        keywords.forEach(this::add);
+    }
+
+    private void add(String keyword, T category) {
+        Node<T> node = root;
+        for (int i = 0; i < keyword.length(); i++) {
+            node = node.childOrCreate(Character.toLowerCase(keyword.charAt(i)));
+        }
+        if (!node.terminal) {
+            node.terminal = true;
+            node.category = category;
+        }
+    }
+
+    /**
+     * @return a scanner that consumes the longest keyword at the current position and returns its category,
+     * in a single walk over the trie and without copying the matched characters
+     */
+    Parser<T> toParser(String name) {
+        return new LongestMatch().toScanner(name).map(ignored -> lastMatch().category);
+    }
+
+    /**
+     * @return the length of the longest keyword starting at begin, or {@link Pattern#MISMATCH}
+     */
+    int match(CharSequence input, int begin, int end) {
+        return longest(input, begin, end, false, null);
+    }
+
+    /**
+     * Like {@link #match(CharSequence, int, int)}, but only keywords that end on a word boundary count,
+     * so "mon" does not match "month". Keywords ending in a symbol, like "&lt;=", can be followed by anything.
+     * @return the length of the longest such keyword starting at begin, or {@link Pattern#MISMATCH}
+     */
+    int matchWord(CharSequence input, int begin, int end) {
+        return longest(input, begin, end, true, null);
+    }
+
+    /**
+     * @param match if not null, receives the terminal node of the longest keyword
+     */
+    private int longest(CharSequence input, int begin, int end, boolean wholeWords, Match match) {
+        Node<T> node = root;
+        int pos = begin;
+        int matchEnd = Pattern.MISMATCH;
+        Node<T> matchNode = null;
+        while (node != null) {
+            if (node.terminal && (!wholeWords || endsWord(input, pos, end))) {
+                matchEnd = pos;
+                matchNode = node;
+            }
+            if (pos >= end) {
+                break;
+            }
+            char c = input.charAt(pos);
+            if (Character.isWhitespace(c)) {
+                node = node.child(' ');
+                while (pos < end && Character.isWhitespace(input.charAt(pos))) {
+                    pos++;
+                }
+            } else {
+                node = node.child(Character.toLowerCase(c));
+                pos++;
+            }
+        }
+        if (match != null) {
+            match.node = matchNode;
+        }
+        return matchEnd == Pattern.MISMATCH ? Pattern.MISMATCH : matchEnd - begin;
+    }
+
+    private static boolean endsWord(CharSequence input, int pos, int end) {
+        return pos >= end || !Character.isLetterOrDigit(input.charAt(pos)) || !Character.isLetterOrDigit(input.charAt(pos - 1));
+    }
+
+    /**
+     * @return the category of a keyword as it was matched in the input, or null if it is not a keyword
+     */
+    T categoryOf(CharSequence matched) {
+        Node<T> node = root;
+        int pos = 0;
+        while (node != null && pos < matched.length()) {
+            char c = matched.charAt(pos);
+            if (Character.isWhitespace(c)) {
+                node = node.child(' ');
+                while (pos < matched.length() && Character.isWhitespace(matched.charAt(pos))) {
+                    pos++;
+                }
+            } else {
+                node = node.child(Character.toLowerCase(c));
+                pos++;
+            }
+        }
+        return node != null && node.terminal ? node.category : null;
+    }
+
+    /**
+     * @return the categories of all keywords that start with the given prefix, in no particular order
+     */
+    List<T> completions(CharSequence prefix) {
+        Node<T> node = root;
+        int pos = 0;
+        while (node != null && pos < prefix.length()) {
+            char c = prefix.charAt(pos);
+            if (Character.isWhitespace(c)) {
+                node = node.child(' ');
+                while (pos < prefix.length() && Character.isWhitespace(prefix.charAt(pos))) {
+                    pos++;
+                }
+            } else {
+                node = node.child(Character.toLowerCase(c));
+                pos++;
+            }
+        }
+        List<T> completions = new ArrayList<>();
+        if (node != null) {
+            collect(node, completions);
+        }
+        return completions;
+    }
+
+    private static <T> void collect(Node<T> node, List<T> categories) {
+        if (node.terminal) {
+            categories.add(node.category);
+        }
+        for (Node<T> child : node.children) {
+            collect(child, categories);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node<T> lastMatch() {
+        return (Node<T>) LAST_MATCH.get().node;
+    }
+
+    /**
+     * Remembers the node of its last match, per thread, for the map that directly follows it in {@link #toParser(String)}.
+     * A jparsec pattern can only return a length, and a parser can't be implemented outside jparsec.
+     * Nothing else runs between the two, so all tries share one slot, which keeps the thread-local lookup short.
+     */
+    private final class LongestMatch extends Pattern {
+        @Override
+        public int match(CharSequence src, int begin, int end) {
+            return longest(src, begin, end, false, LAST_MATCH.get());
+        }
+    }
+
+    private static final class Match {
+        private Node<?> node;
+    }
+
+    private static final class Node<T> {
+        private char[] keys = new char[0];
+        private Node<T>[] children = newArray(0);
+        private boolean terminal;
+        private T category;
+
+        Node<T> child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node<T> childOrCreate(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node<T> child = new Node<>();
+
+            char[] newKeys = new char[keys.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            newKeys[insertAt] = key;
+
+            Node<T>[] newChildren = newArray(children.length + 1);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            newChildren[insertAt] = child;
+
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Node<T>[] newArray(int length) {
+            return (Node<T>[]) new Node[length];
+        }
+    }
+}
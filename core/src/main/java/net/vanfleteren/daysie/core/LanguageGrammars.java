@@ -0,0 +1,151 @@
+package net.vanfleteren.daysie.core;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The grammars a {@link DateValueParser} picks from for each input.
+ * <p>
+ * With a single language that is just its grammar. With several languages, each language gets its own grammar,
+ * built the first time input in that language shows up, instead of one grammar for the combined vocabulary.
+ * Before parsing, a cheap pass over the words and symbols of the input finds the languages they belong to:
+ * when one language knows all of them, its grammar alone can parse the input, which is faster than the combined one.
+ * Input that mixes languages, eg "last week t/m today", falls back to the grammar for the combined vocabulary,
+ * which is also only built when first needed.
+ */
+final class LanguageGrammars {
+
+    private final List<LanguageKeywords> languages;
+    private final List<KeywordTrie<Boolean>> vocabularies;
+    private final AtomicReferenceArray<DateValueParser.Grammar> grammars;
+    private volatile DateValueParser.Grammar combined;
+
+    LanguageGrammars(DateValueParser.Grammar grammar) {
+        this.languages = List.of(grammar.keywords());
+        this.vocabularies = List.of();
+        this.grammars = new AtomicReferenceArray<>(new DateValueParser.Grammar[]{grammar});
+        this.combined = grammar;
+    }
+
+    LanguageGrammars(List<LanguageKeywords> languages) {
+        if (languages.isEmpty() || languages.size() > Long.SIZE) {
+            throw new IllegalArgumentException("between 1 and " + Long.SIZE + " languages are supported");
+        }
+        this.languages = List.copyOf(languages);
+        this.vocabularies = this.languages.stream().map(LanguageGrammars::vocabulary).toList();
+        this.grammars = new AtomicReferenceArray<>(languages.size());
+    }
+
+    /**
+     * @return the grammar of the only language that knows every word and symbol of the input that any language knows,
+     * or the combined grammar when the input mixes languages
+     */
+    DateValueParser.Grammar forInput(CharSequence input) {
+        if (languages.size() == 1) {
+            return language(0);
+        }
+        // bit i is set while language i knows every token seen so far
+        long candidates = languages.size() == Long.SIZE ? -1L : (1L << languages.size()) - 1;
+        int length = input.length();
+        int pos = 0;
+        while (pos < length && candidates != 0) {
+            char c = input.charAt(pos);
+            if (Character.isWhitespace(c) || Character.isDigit(c)) {
+                pos++;
+                continue;
+            }
+            int end = tokenEnd(input, pos, length);
+            long knownBy = 0;
+            for (int i = 0; i < vocabularies.size(); i++) {
+                if (vocabularies.get(i).match(input, pos, end) == end - pos) {
+                    knownBy |= 1L << i;
+                }
+            }
+            if (knownBy != 0) {
+                candidates &= knownBy;
+            }
+            pos = end;
+        }
+        if (candidates == 0) {
+            return combined();
+        }
+        // input that several languages know, like "2026-02-03", does not need a grammar that has not been built yet
+        for (long remaining = candidates; remaining != 0; remaining &= remaining - 1) {
+            DateValueParser.Grammar built = grammars.get(Long.numberOfTrailingZeros(remaining));
+            if (built != null) {
+                return built;
+            }
+        }
+        return language(Long.numberOfTrailingZeros(candidates));
+    }
+
+    /**
+     * @return the grammar for the vocabulary of all languages together
+     */
+    DateValueParser.Grammar combined() {
+        DateValueParser.Grammar grammar = combined;
+        if (grammar == null) {
+            grammar = DateValueParser.grammarFor(LanguageKeywords.combine(languages));
+            combined = grammar;
+        }
+        return grammar;
+    }
+
+    /**
+     * @return the number of languages whose own grammar has been built
+     */
+    int builtLanguages() {
+        int built = 0;
+        for (int i = 0; i < grammars.length(); i++) {
+            if (grammars.get(i) != null) {
+                built++;
+            }
+        }
+        return built;
+    }
+
+    private DateValueParser.Grammar language(int index) {
+        DateValueParser.Grammar grammar = grammars.get(index);
+        if (grammar == null) {
+            grammar = DateValueParser.grammarFor(languages.get(index));
+            grammars.compareAndSet(index, null, grammar);
+        }
+        return grammar;
+    }
+
+    /**
+     * Tokens are runs of letters, eg "tot" and "en", or runs of symbols, eg "&lt;=" or "/" in "t/m".
+     */
+    private static int tokenEnd(CharSequence input, int pos, int length) {
+        boolean letters = Character.isLetter(input.charAt(pos));
+        int end = pos + 1;
+        while (end < length) {
+            char c = input.charAt(end);
+            if (Character.isWhitespace(c) || Character.isDigit(c) || Character.isLetter(c) != letters) {
+                break;
+            }
+            end++;
+        }
+        return end;
+    }
+
+    private static KeywordTrie<Boolean> vocabulary(LanguageKeywords keywords) {
+        Map<String, Boolean> tokens = new LinkedHashMap<>();
+        for (String keyword : keywords.vocabulary()) {
+            int pos = 0;
+            while (pos < keyword.length()) {
+                char c = keyword.charAt(pos);
+                if (Character.isWhitespace(c) || Character.isDigit(c)) {
+                    pos++;
+                    continue;
+                }
+                int end = tokenEnd(keyword, pos, keyword.length());
+                tokens.put(keyword.substring(pos, end), Boolean.TRUE);
+                pos = end;
+            }
+        }
+        return new KeywordTrie<>(tokens);
+    }
+}
@@ -5,6 +5,7 @@ import lombok.Builder;
 import java.time.DayOfWeek;
 import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -186,6 +187,19 @@ public record LanguageKeywords(
                 ))
                 .build();
 
+        /**
+         * @return every keyword of this language, in no particular order
+         */
+        Set<String> vocabulary() {
+            Set<String> vocabulary = new HashSet<>();
+            List.of(untilInclusive, untilExclusive, fromInclusive, fromExclusive, rangeConnectorsInclusive,
+                    rangeConnectorsExclusive, today, yesterday, tomorrow, dayBeforeYesterday, dayAfterTomorrow, last, next,
+                    current, startOf, endOf, firstDayOf, lastDayOf, between, and, at, now, ago, fromNow, am, pm, in, quarters,
+                    chronoUnits.keySet(), daysOfWeek.keySet()
+            ).forEach(vocabulary::addAll);
+            return vocabulary;
+        }
+
         public static LanguageKeywords combine(List<LanguageKeywords> keywordsList) {
             Function<Function<LanguageKeywords, Set<String>>, Set<String>> combineSets = extractor -> keywordsList.stream()
                     .flatMap(k -> extractor.apply(k).stream())
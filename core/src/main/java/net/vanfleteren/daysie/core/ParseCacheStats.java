@@ -0,0 +1,18 @@
+package net.vanfleteren.daysie.core;
+
+/**
+ * Counters of the parse cache of a {@link DateValueParser}, see {@link DateValueParser#withCache(int)}.
+ * @param hits number of lookups that found a compiled expression
+ * @param misses number of lookups that had to run the grammar
+ * @param evictions number of entries removed to stay within the maximum size
+ * @param size current number of entries
+ */
+public record ParseCacheStats(long hits, long misses, long evictions, int size) {
+
+    public static final ParseCacheStats EMPTY = new ParseCacheStats(0, 0, 0, 0);
+
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,56 @@
+package net.vanfleteren.daysie.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for compiling one input in {@link DateValueParser}, covering every parse, compile and parseInstant call.
+ * Off unless a recording enables {@value #NAME}, and then only committed for parses longer than its threshold.
+ */
+@Name(ParseEvent.NAME)
+@Label("Daysie Parse")
+@Category("Daysie")
+@Description("Compiling a Daysie expression")
+@Enabled(false)
+@StackTrace(false)
+final class ParseEvent extends Event {
+
+    static final String NAME = "net.vanfleteren.daysie.Parse";
+    private static final int MAX_INPUT_LENGTH = 256;
+
+    @Label("Input")
+    @Description("The input, cut off after 256 characters")
+    String input;
+
+    @Label("Input Length")
+    int inputLength;
+
+    @Label("Success")
+    boolean success;
+
+    @Label("Production")
+    @Description("The grammar production that matched, empty on failure")
+    String production;
+
+    @Label("Cached")
+    @Description("Whether the expression was served from the parse cache")
+    boolean cached;
+
+    @Label("Error Offset")
+    @Description("The offset of the first unparseable character, -1 on success")
+    int errorOffset;
+
+    void set(CharSequence term, ParseResult<CompiledExpression> compiled, GrammarProduction production, boolean cached) {
+        this.input = term.length() > MAX_INPUT_LENGTH ? term.subSequence(0, MAX_INPUT_LENGTH).toString() : term.toString();
+        this.inputLength = term.length();
+        this.success = production != null;
+        this.production = production == null ? "" : production.name();
+        this.cached = cached;
+        this.errorOffset = compiled instanceof ParseResult.Failure<CompiledExpression> failure ? failure.errorOffset() : -1;
+    }
+}
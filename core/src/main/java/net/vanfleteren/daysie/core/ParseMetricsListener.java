@@ -0,0 +1,25 @@
+package net.vanfleteren.daysie.core;
+
+/**
+ * Receives a call for every expression a {@link DateValueParser} compiles, see {@link DateValueParser#withMetrics(ParseMetricsListener)}.
+ * Covers every parse, compile and parseInstant call, timed from before the cache lookup until the expression is compiled,
+ * without resolving it.
+ * <p>
+ * Called on the parsing thread, so implementations must be thread-safe and fast, eg {@link ParseMetricsRecorder}.
+ * The input may be a buffer that is reused after the call returns, so copy it if you need to keep it.
+ */
+public interface ParseMetricsListener {
+
+    /**
+     * @param production the branch of the grammar that matched, also when the expression came from the cache
+     * @param cached     whether the expression was served from the cache, see {@link DateValueParser#withCache(int)}
+     * @param nanos      how long compiling took
+     */
+    void compiled(CharSequence input, GrammarProduction production, boolean cached, long nanos);
+
+    /**
+     * @param errorOffset the offset of the first unparseable character
+     * @param nanos       how long it took to reject the input
+     */
+    void failed(CharSequence input, int errorOffset, long nanos);
+}
@@ -0,0 +1,159 @@
+package net.vanfleteren.daysie.core;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts successes, failures, cache hits and grammar productions, and keeps a histogram of parse latencies, in memory,
+ * for scraping by a metrics system.
+ * <p>
+ * Latencies go into log-linear buckets, like HdrHistogram: every power of two is split into 16 buckets,
+ * so percentiles are within about 6% of the actual value, with a fixed 960 counters and no allocation per parse.
+ * Thread-safe; recording is a few atomic increments.
+ */
+public final class ParseMetricsRecorder implements ParseMetricsListener {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray latencies = new AtomicLongArray(BUCKETS);
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder[] productions = new LongAdder[GrammarProduction.values().length];
+    private final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0);
+
+    public ParseMetricsRecorder() {
+        for (int i = 0; i < productions.length; i++) {
+            productions[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void compiled(CharSequence input, GrammarProduction production, boolean cached, long nanos) {
+        productions[production.ordinal()].increment();
+        if (cached) {
+            cacheHits.increment();
+        }
+        record(nanos);
+    }
+
+    @Override
+    public void failed(CharSequence input, int errorOffset, long nanos) {
+        failures.increment();
+        record(nanos);
+    }
+
+    private void record(long nanos) {
+        long value = Math.max(0, nanos);
+        latencies.incrementAndGet(bucket(value));
+        maxLatency.accumulate(value);
+    }
+
+    /**
+     * @return the number of inputs that compiled
+     */
+    public long successes() {
+        long successes = 0;
+        for (LongAdder production : productions) {
+            successes += production.sum();
+        }
+        return successes;
+    }
+
+    public long failures() {
+        return failures.sum();
+    }
+
+    /**
+     * @return the number of inputs that were served from the parse cache, which are counted under their production as well
+     */
+    public long cacheHits() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * @return the number of inputs that compiled with the production
+     */
+    public long hits(GrammarProduction production) {
+        return productions[production.ordinal()].sum();
+    }
+
+    /**
+     * @return the number of hits per production, for the productions that were hit
+     */
+    public Map<GrammarProduction, Long> hits() {
+        Map<GrammarProduction, Long> hits = new EnumMap<>(GrammarProduction.class);
+        for (GrammarProduction production : GrammarProduction.values()) {
+            long count = hits(production);
+            if (count > 0) {
+                hits.put(production, count);
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * @param percentile between 0 and 100, eg 99.9
+     * @return the latency in nanos that the percentile of parses did not exceed, rounded up to its bucket, or 0 if nothing was recorded
+     */
+    public long latencyAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+        }
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = latencies.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestInBucket(i), maxLatency.get());
+            }
+        }
+        return maxLatency.get();
+    }
+
+    /**
+     * @return the highest latency in nanos recorded so far
+     */
+    public long maxLatency() {
+        return maxLatency.get();
+    }
+
+    /**
+     * Values below 16 get a bucket each, after that every power of two is split into 16 buckets.
+     */
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return the highest value that goes into the bucket
+     */
+    static long highestInBucket(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long next = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS + 1) << shift;
+        // the last bucket ends at Long.MAX_VALUE, where next overflows
+        return next < 0 ? Long.MAX_VALUE : next - 1;
+    }
+}
@@ -0,0 +1,44 @@
+package net.vanfleteren.daysie.core;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Outcome of parsing a term, without throwing on invalid input.
+ * @param <T> the type of the parsed value
+ */
+public sealed interface ParseResult<T> {
+
+    <R> ParseResult<R> map(Function<? super T, ? extends R> mapper);
+
+    Optional<T> toOptional();
+
+    record Success<T>(T value) implements ParseResult<T> {
+        @Override
+        public <R> ParseResult<R> map(Function<? super T, ? extends R> mapper) {
+            return new Success<>(mapper.apply(value));
+        }
+
+        @Override
+        public Optional<T> toOptional() {
+            return Optional.of(value);
+        }
+    }
+
+    /**
+     * @param errorOffset length of the longest prefix of the term that is a valid expression,
+     *                    ie the index of the first character that could not be parsed,
+     *                    or the length of the term if all of it parsed but the result is outside the supported range
+     */
+    record Failure<T>(int errorOffset) implements ParseResult<T> {
+        @Override
+        public <R> ParseResult<R> map(Function<? super T, ? extends R> mapper) {
+            return new Failure<>(errorOffset);
+        }
+
+        @Override
+        public Optional<T> toOptional() {
+            return Optional.empty();
+        }
+    }
+}
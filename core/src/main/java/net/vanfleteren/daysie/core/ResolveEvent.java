@@ -0,0 +1,41 @@
+package net.vanfleteren.daysie.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for resolving a {@link CompiledExpression} against one or more reference times,
+ * the work {@link DateCalculator} does. Off unless a recording enables {@value #NAME}.
+ * A call to {@link CompiledExpression#resolveEpochMillis} is one event, whose count is the number of reference times.
+ */
+@Name(ResolveEvent.NAME)
+@Label("Daysie Resolve")
+@Category("Daysie")
+@Description("Resolving a compiled Daysie expression against reference times")
+@Enabled(false)
+@StackTrace(false)
+final class ResolveEvent extends Event {
+
+    static final String NAME = "net.vanfleteren.daysie.Resolve";
+
+    @Label("Expression")
+    String expression;
+
+    @Label("Production")
+    String production;
+
+    @Label("Reference Times")
+    @Description("The number of reference times resolved at once")
+    int count;
+
+    void set(CompiledExpression compiled, int count) {
+        this.expression = compiled.toString();
+        this.production = compiled.production().name();
+        this.count = count;
+    }
+}
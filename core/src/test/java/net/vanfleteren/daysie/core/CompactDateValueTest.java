@@ -0,0 +1,70 @@
+package net.vanfleteren.daysie.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactDateValueTest {
+
+    private static final LocalDateTime DATE_1 = LocalDateTime.of(2026, 2, 13, 22, 34);
+    private static final LocalDateTime DATE_2 = LocalDateTime.of(2026, 2, 14, 22, 34);
+
+    @ParameterizedTest(name = "of with fromInclusive={0}, untilInclusive={1} keeps the range")
+    @CsvSource({
+            "true, true",
+            "true, false",
+            "false, true",
+            "false, false",
+    })
+    void of_whenGivenRange_roundTripsToSameDateValue(boolean fromInclusive, boolean untilInclusive) {
+        DateValue range = new DateValue.AbsoluteRange(DATE_1, DATE_2, fromInclusive, untilInclusive);
+
+        CompactDateValue compact = CompactDateValue.of(range);
+
+        assertThat(compact.toDateValue()).isEqualTo(range);
+        assertThat(compact.fromInclusive()).isEqualTo(fromInclusive);
+        assertThat(compact.untilInclusive()).isEqualTo(untilInclusive);
+        assertThat(compact.isPoint()).isFalse();
+    }
+
+    @Test
+    void of_whenGivenOpenEndedRanges_keepsMinAndMax() {
+        DateValue until = new DateValue.AbsoluteRange(LocalDateTime.MIN, DATE_1, false, false);
+        DateValue from = new DateValue.AbsoluteRange(DATE_1, LocalDateTime.MAX, true, false);
+
+        assertThat(CompactDateValue.of(until).toDateValue()).isEqualTo(until);
+        assertThat(CompactDateValue.of(from).toDateValue()).isEqualTo(from);
+        assertThat(CompactDateValue.of(from).toString()).isEqualTo("[2026-02-13T22:34, ∞)");
+    }
+
+    @Test
+    void of_whenGivenPointWithNanos_roundTripsToSameDateValue() {
+        DateValue point = new DateValue.AbsoluteDate(DATE_1.withNano(123_456_789));
+
+        CompactDateValue compact = CompactDateValue.of(point);
+
+        assertThat(compact.isPoint()).isTrue();
+        assertThat(compact.from()).isEqualTo(compact.until()).isEqualTo(DATE_1.withNano(123_456_789));
+        assertThat(compact.toDateValue()).isEqualTo(point);
+    }
+
+    @Test
+    void equals_whenSameBoundsAndFlags_isEqual() {
+        DateValue range = new DateValue.AbsoluteRange(DATE_1, DATE_2, true, false);
+
+        assertThat(CompactDateValue.of(range)).isEqualTo(CompactDateValue.of(range)).hasSameHashCodeAs(CompactDateValue.of(range));
+        assertThat(CompactDateValue.of(range)).isNotEqualTo(CompactDateValue.of(new DateValue.AbsoluteRange(DATE_1, DATE_2, true, true)));
+    }
+
+    @Test
+    void resolveCompact_whenGivenNow_matchesResolve() {
+        DateValueParser parser = new DateValueParser();
+        CompiledExpression expression = parser.compile("last 3 days").orElseThrow();
+
+        assertThat(expression.resolveCompact(DATE_1).toDateValue()).isEqualTo(expression.resolve(DATE_1));
+    }
+}
@@ -0,0 +1,67 @@
+package net.vanfleteren.daysie.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DateCalculatorTest {
+
+    private static final Clock FIXED_CLOCK = Clock.fixed(Instant.parse("2026-02-14T10:00:00Z"), ZoneId.of("UTC"));
+
+    @Test
+    void boundaries_whenGivenAnyDay_matchesTemporalAdjusters() {
+        for (LocalDate day = LocalDate.of(2023, 12, 1); day.isBefore(LocalDate.of(2025, 2, 1)); day = day.plusDays(1)) {
+            DateCalculator.DayBoundaries boundaries = DateCalculator.boundaries(day.atTime(13, 45));
+
+            assertThat(boundaries.startOfDay()).isEqualTo(day.atStartOfDay());
+            assertThat(boundaries.startOfWeek()).isEqualTo(day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay());
+            assertThat(boundaries.startOfMonth()).isEqualTo(day.with(TemporalAdjusters.firstDayOfMonth()).atStartOfDay());
+            assertThat(boundaries.startOfQuarter()).isEqualTo(day.withMonth(day.get(IsoFields.QUARTER_OF_YEAR) * 3 - 2).withDayOfMonth(1).atStartOfDay());
+            assertThat(boundaries.startOfYear()).isEqualTo(day.with(TemporalAdjusters.firstDayOfYear()).atStartOfDay());
+        }
+    }
+
+    @Test
+    void boundaries_whenAskedTwiceOnTheSameDay_reusesThem() {
+        DateCalculator.DayBoundaries morning = DateCalculator.boundaries(LocalDateTime.of(2026, 3, 31, 8, 0));
+
+        assertThat(DateCalculator.boundaries(LocalDateTime.of(2026, 3, 31, 23, 59))).isSameAs(morning);
+        assertThat(DateCalculator.boundaries(LocalDateTime.of(2026, 4, 1, 0, 0)).startOfQuarter())
+                .isEqualTo(LocalDateTime.of(2026, 4, 1, 0, 0));
+    }
+
+    @Test
+    void boundaries_whenDaysAreInterleaved_reusesThemForEachDay() {
+        LocalDateTime live = LocalDateTime.of(2026, 3, 31, 8, 0);
+        LocalDateTime backtest = LocalDateTime.of(2025, 11, 4, 8, 0);
+        DateCalculator.DayBoundaries liveDay = DateCalculator.boundaries(live);
+        DateCalculator.DayBoundaries backtestDay = DateCalculator.boundaries(backtest);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(DateCalculator.boundaries(live.plusMinutes(i))).isSameAs(liveDay);
+            assertThat(DateCalculator.boundaries(backtest.plusMinutes(i))).isSameAs(backtestDay);
+        }
+        assertThat(backtestDay.startOfQuarter()).isEqualTo(LocalDateTime.of(2025, 10, 1, 0, 0));
+    }
+
+    @Test
+    void parse_whenDateRollsOver_resolvesAgainstTheNewDay() {
+        DateValueParser parser = new DateValueParser(LanguageKeywords.ENGLISH, FIXED_CLOCK);
+
+        assertThat(parser.parse("this quarter", LocalDateTime.of(2026, 3, 31, 23, 59)).orElseThrow().toString())
+                .isEqualTo("[2026-01-01T00:00,2026-04-01T00:00)");
+        assertThat(parser.parse("this quarter", LocalDateTime.of(2026, 4, 1, 0, 0)).orElseThrow().toString())
+                .isEqualTo("[2026-04-01T00:00,2026-07-01T00:00)");
+        assertThat(parser.parse("last week", LocalDateTime.of(2026, 4, 6, 0, 0)).orElseThrow().toString())
+                .isEqualTo("[2026-03-30T00:00,2026-04-06T00:00)");
+    }
+}
@@ -0,0 +1,125 @@
+package net.vanfleteren.daysie.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DateExpressionAutocompleterTest {
+
+    private static final Clock FIXED_CLOCK = Clock.fixed(Instant.parse("2026-02-14T10:00:00Z"), ZoneId.of("UTC"));
+
+    private final DateValueParser parser = new DateValueParser(LanguageKeywords.ENGLISH, FIXED_CLOCK);
+
+    @Test
+    void complete_whenLastWordIsPartOfKeyword_suggestsKeywordsThatCompleteTheExpressionFirst() {
+        DateExpressionSuggestions suggestions = new DateExpressionAutocompleter(parser).complete("last 3 da");
+
+        assertThat(suggestions.valid()).isFalse();
+        assertThat(suggestions.viable()).isTrue();
+        assertThat(suggestions.replaceFrom()).isEqualTo(7);
+        assertThat(suggestions.completions()).startsWith("day", "days");
+    }
+
+    @Test
+    void complete_whenKeywordSpansSeveralWords_completesFromItsFirstWord() {
+        DateExpressionSuggestions suggestions = new DateExpressionAutocompleter(parser).complete("day be");
+
+        assertThat(suggestions.viable()).isTrue();
+        assertThat(suggestions.replaceFrom()).isZero();
+        assertThat(suggestions.completions()).first().isEqualTo("day before yesterday");
+    }
+
+    @Test
+    void complete_whenKeywordCanOnlyContinueTheExpression_suggestsIt() {
+        DateExpressionSuggestions suggestions = new DateExpressionAutocompleter(parser).complete("between yesterday a");
+
+        assertThat(suggestions.viable()).isTrue();
+        assertThat(suggestions.completions()).contains("and");
+    }
+
+    @Test
+    void complete_whenPrefixIsExpression_isValid() {
+        DateExpressionSuggestions suggestions = new DateExpressionAutocompleter(parser).complete("today");
+
+        assertThat(suggestions.valid()).isTrue();
+        assertThat(suggestions.viable()).isTrue();
+    }
+
+    @Test
+    void complete_whenPrefixOnlyMissesItsEnd_isViable() {
+        DateExpressionAutocompleter autocompleter = new DateExpressionAutocompleter(parser);
+
+        assertThat(autocompleter.complete("last 3").viable()).isTrue();
+        assertThat(autocompleter.complete("between yesterday and ").viable()).isTrue();
+        assertThat(autocompleter.complete("between yesterday and ").completions()).isEmpty();
+    }
+
+    @Test
+    void complete_whenDateIsPartiallyTyped_isViable() {
+        DateExpressionAutocompleter autocompleter = new DateExpressionAutocompleter(parser);
+
+        assertThat(autocompleter.complete("2026-0").viable()).isTrue();
+        assertThat(autocompleter.complete("< 2026-02-1").viable()).isTrue();
+    }
+
+    @Test
+    void complete_whenNothingCanFixPrefix_isNotViable() {
+        DateExpressionAutocompleter autocompleter = new DateExpressionAutocompleter(parser);
+
+        DateExpressionSuggestions suggestions = autocompleter.complete("zzz");
+
+        assertThat(suggestions.viable()).isFalse();
+        assertThat(suggestions.completions()).isEmpty();
+        assertThat(autocompleter.complete("today xyz").viable()).isFalse();
+    }
+
+    @Test
+    void complete_whenExtendingDeadPrefix_staysNotViable() {
+        DateExpressionAutocompleter autocompleter = new DateExpressionAutocompleter(parser);
+
+        assertThat(autocompleter.complete("xyz last 3 ").viable()).isFalse();
+        assertThat(autocompleter.complete("xyz last 3 days").viable()).isFalse();
+        assertThat(autocompleter.complete("last 3 days").valid()).isTrue();
+    }
+
+    @Test
+    void complete_whenTypingKeystrokeByKeystroke_matchesFreshAutocompleter() {
+        DateExpressionAutocompleter incremental = new DateExpressionAutocompleter(parser);
+        String typed = "between yesterday and next monday";
+
+        for (int i = 0; i <= typed.length(); i++) {
+            String prefix = typed.substring(0, i);
+            assertThat(incremental.complete(prefix)).as(prefix).isEqualTo(new DateExpressionAutocompleter(parser).complete(prefix));
+        }
+    }
+
+    @Test
+    void complete_whenDeletingAndRetyping_matchesFreshAutocompleter() {
+        DateExpressionAutocompleter incremental = new DateExpressionAutocompleter(parser);
+
+        for (String prefix : List.of("last 3 d", "last 3 da", "last 3 d", "last 3 w", "today x", "today", "today x", "last 3 da")) {
+            assertThat(incremental.complete(prefix)).as(prefix).isEqualTo(new DateExpressionAutocompleter(parser).complete(prefix));
+        }
+    }
+
+    @Test
+    void complete_whenLimited_returnsAtMostMaxCompletions() {
+        DateExpressionSuggestions suggestions = new DateExpressionAutocompleter(parser, 2).complete("t");
+
+        assertThat(suggestions.completions()).hasSize(2);
+    }
+
+    @Test
+    void complete_whenParserKnowsSeveralLanguages_suggestsKeywordsOfEach() {
+        DateValueParser multilingual = new DateValueParser(List.of(LanguageKeywords.ENGLISH, LanguageKeywords.DUTCH), FIXED_CLOCK);
+
+        DateExpressionSuggestions suggestions = new DateExpressionAutocompleter(multilingual).complete("morg");
+
+        assertThat(suggestions.completions()).containsExactly("morgen");
+    }
+}
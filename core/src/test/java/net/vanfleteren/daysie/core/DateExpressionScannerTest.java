@@ -0,0 +1,126 @@
+package net.vanfleteren.daysie.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DateExpressionScannerTest {
+
+    private static final Clock FIXED_CLOCK = Clock.fixed(Instant.parse("2026-02-14T10:00:00Z"), ZoneId.of("UTC"));
+
+    private final DateValueParser parser = new DateValueParser(
+            LanguageKeywords.combine(List.of(LanguageKeywords.ENGLISH, LanguageKeywords.DUTCH)), FIXED_CLOCK);
+
+    @Test
+    void scan_whenTextContainsExpressions_returnsEachWithOffsetAndValue() {
+        String text = "Ticket opened yesterday, fix planned for next monday or 2026-03-01.";
+
+        List<DateExpressionMatch> matches = new DateExpressionScanner(parser).scan(text).toList();
+
+        assertThat(matches).extracting(match -> text.substring((int) match.offset(), (int) match.offset() + match.length()))
+                .containsExactly("yesterday", "next monday", "2026-03-01");
+        assertThat(matches).extracting(DateExpressionMatch::value)
+                .containsExactly(parser.parse("yesterday").orElseThrow(), parser.parse("next monday").orElseThrow(),
+                        parser.parse("2026-03-01").orElseThrow());
+    }
+
+    @Test
+    void scan_whenExpressionSpansSeveralWords_returnsLongestMatch() {
+        String text = "logged between 2026-01-01 and 2026-01-31, reopened 3 days ago";
+
+        List<String> matched = matchedText(text, new DateExpressionScanner(parser).scan(text).toList());
+
+        assertThat(matched).containsExactly("between 2026-01-01 and 2026-01-31", "3 days ago");
+    }
+
+    @Test
+    void scan_whenKeywordIsPartOfWord_skipsIt() {
+        String text = "nowhere near todays 13days, v2026-02-01 or nextmonday";
+
+        List<DateExpressionMatch> matches = new DateExpressionScanner(parser).scan(text).toList();
+
+        assertThat(matches).isEmpty();
+    }
+
+    @Test
+    void scan_whenTextHasNoExpressions_returnsEmptyStream() {
+        assertThat(new DateExpressionScanner(parser).scan("nothing to see here, move along").toList()).isEmpty();
+        assertThat(new DateExpressionScanner(parser).scan("").toList()).isEmpty();
+    }
+
+    @Test
+    void scan_whenGivenDutchText_findsDutchExpressions() {
+        String text = "Afgesproken: morgen, gemeld vorige week.";
+
+        List<String> matched = matchedText(text, new DateExpressionScanner(parser).scan(text).toList());
+
+        assertThat(matched).containsExactly("morgen", "vorige week");
+    }
+
+    @Test
+    void scan_whenReaderIsLargerThanBuffer_findsExpressionsAcrossChunkBoundaries() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            text.append("line ").append(i).append(": seen last 3 days, due 2026-03-01 12:00\n");
+        }
+        DateExpressionScanner scanner = new DateExpressionScanner(parser, 300);
+
+        List<DateExpressionMatch> fromReader = scanner.scan(new StringReader(text.toString())).toList();
+
+        assertThat(fromReader).containsExactlyElementsOf(scanner.scan(text).toList());
+        assertThat(matchedText(text.toString(), fromReader)).containsOnly("last 3 days", "2026-03-01 12:00");
+        assertThat(fromReader).hasSize(400);
+    }
+
+    @Test
+    void scan_whenClockAdvances_resolvesAllMatchesAgainstOneNow() {
+        DateExpressionScanner scanner = new DateExpressionScanner(
+                new DateValueParser(LanguageKeywords.ENGLISH, new TickingClock(Instant.parse("2026-02-14T10:00:00Z"))));
+
+        List<DateExpressionMatch> matches = scanner.scan("now, and again now").toList();
+
+        assertThat(matches).extracting(match -> match.value().toString())
+                .containsExactly("[2026-02-14T10:00,2026-02-14T10:00]", "[2026-02-14T10:00,2026-02-14T10:00]");
+    }
+
+    private static List<String> matchedText(String text, List<DateExpressionMatch> matches) {
+        return matches.stream()
+                .map(match -> text.substring((int) match.offset(), (int) match.offset() + match.length()))
+                .toList();
+    }
+
+    /**
+     * Moves forward by an hour every time it is read.
+     */
+    private static final class TickingClock extends Clock {
+        private Instant instant;
+
+        private TickingClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public synchronized Instant instant() {
+            Instant current = instant;
+            instant = instant.plusSeconds(3600);
+            return current;
+        }
+    }
+}
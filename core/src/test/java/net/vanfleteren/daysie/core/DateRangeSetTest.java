@@ -0,0 +1,169 @@
+package net.vanfleteren.daysie.core;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DateRangeSetTest {
+
+    private static final LocalDateTime JAN_1 = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final LocalDateTime JAN_10 = LocalDateTime.of(2026, 1, 10, 0, 0);
+    private static final LocalDateTime JAN_20 = LocalDateTime.of(2026, 1, 20, 0, 0);
+    private static final LocalDateTime FEB_1 = LocalDateTime.of(2026, 2, 1, 0, 0);
+
+    private static DateValue.AbsoluteRange range(LocalDateTime from, LocalDateTime until, boolean fromInclusive, boolean untilInclusive) {
+        return new DateValue.AbsoluteRange(from, until, fromInclusive, untilInclusive);
+    }
+
+    @Nested
+    class OfTests {
+
+        @Test
+        void of_whenRangesOverlapOrTouch_coalescesThem() {
+            DateRangeSet set = DateRangeSet.of(
+                    range(JAN_10, FEB_1, true, false),
+                    range(JAN_1, JAN_10, true, false),
+                    range(JAN_1, JAN_20, true, true));
+
+            assertThat(set.ranges()).containsExactly(range(JAN_1, FEB_1, true, false));
+        }
+
+        @Test
+        void of_whenBothBoundsAtTheSameDateTimeAreExclusive_keepsTheGap() {
+            DateRangeSet set = DateRangeSet.of(range(JAN_1, JAN_10, true, false), range(JAN_10, FEB_1, false, false));
+
+            assertThat(set.ranges()).containsExactly(range(JAN_1, JAN_10, true, false), range(JAN_10, FEB_1, false, false));
+            assertThat(set.contains(JAN_10)).isFalse();
+        }
+
+        @Test
+        void of_whenPointTouchesARange_mergesIt() {
+            DateRangeSet set = DateRangeSet.of(range(JAN_1, JAN_10, true, false), new DateValue.AbsoluteDate(JAN_10));
+
+            assertThat(set.ranges()).containsExactly(range(JAN_1, JAN_10, true, true));
+        }
+
+        @Test
+        void of_whenRangeIsEmpty_leavesItOut() {
+            assertThat(DateRangeSet.of(range(JAN_1, JAN_1, true, false))).isEqualTo(DateRangeSet.empty());
+            assertThat(DateRangeSet.empty().isEmpty()).isTrue();
+        }
+
+        @Test
+        void of_whenRangesAreOpenEnded_keepsMinAndMax() {
+            DateRangeSet set = DateRangeSet.of(range(LocalDateTime.MIN, JAN_1, false, false), range(FEB_1, LocalDateTime.MAX, true, false));
+
+            assertThat(set.ranges()).containsExactly(range(LocalDateTime.MIN, JAN_1, false, false), range(FEB_1, LocalDateTime.MAX, true, false));
+            assertThat(set.toString()).isEqualTo("{(-∞,2026-01-01T00:00) ∪ [2026-02-01T00:00, ∞)}");
+        }
+    }
+
+    @Nested
+    class OperationTests {
+
+        @Test
+        void minus_whenSubtractingTheMiddle_splitsTheRangeWithFlippedBounds() {
+            DateRangeSet set = range(JAN_1, FEB_1, true, false).minus(range(JAN_10, JAN_20, true, true));
+
+            assertThat(set.ranges()).containsExactly(range(JAN_1, JAN_10, true, false), range(JAN_20, FEB_1, false, false));
+        }
+
+        @Test
+        void intersect_whenRangesTouchAtAnInclusiveBound_isThatPoint() {
+            DateRangeSet set = range(JAN_1, JAN_10, true, true).intersect(range(JAN_10, FEB_1, true, false));
+
+            assertThat(set.ranges()).containsExactly(range(JAN_10, JAN_10, true, true));
+        }
+
+        @Test
+        void intersect_whenRangesTouchAtAnExclusiveBound_isEmpty() {
+            assertThat(range(JAN_1, JAN_10, true, false).intersect(range(JAN_10, FEB_1, true, false)).isEmpty()).isTrue();
+        }
+
+        @Test
+        void union_whenRangesTouch_mergesThem() {
+            DateRangeSet set = range(JAN_1, JAN_10, true, false).union(range(JAN_10, FEB_1, true, false));
+
+            assertThat(set.ranges()).containsExactly(range(JAN_1, FEB_1, true, false));
+        }
+
+        @Test
+        void complement_whenAppliedTwice_isTheSameSet() {
+            DateRangeSet set = DateRangeSet.of(range(JAN_1, JAN_10, false, true), range(JAN_20, LocalDateTime.MAX, true, false));
+
+            assertThat(set.complement().ranges()).containsExactly(range(LocalDateTime.MIN, JAN_1, false, true), range(JAN_10, JAN_20, false, false));
+            assertThat(set.complement().complement()).isEqualTo(set);
+            assertThat(DateRangeSet.empty().complement()).isEqualTo(DateRangeSet.all());
+            assertThat(DateRangeSet.all().complement()).isEqualTo(DateRangeSet.empty());
+        }
+
+        @Test
+        void minus_whenGivenParsedExpressions_excludesTheWeekend() {
+            Clock clock = Clock.fixed(Instant.parse("2026-02-18T10:00:00Z"), ZoneId.of("UTC"));
+            DateValueParser parser = new DateValueParser(LanguageKeywords.ENGLISH, clock);
+            DateValue lastWeek = parser.parse("last week").orElseThrow();
+            DateValue saturday = parser.parse("2026-02-14").orElseThrow();
+            DateValue sunday = parser.parse("2026-02-15").orElseThrow();
+
+            DateRangeSet weekdays = lastWeek.minus(saturday).minus(sunday.toRangeSet());
+
+            assertThat(weekdays.size()).isEqualTo(1);
+            assertThat(weekdays.contains(LocalDateTime.of(2026, 2, 13, 23, 59))).isTrue();
+            assertThat(weekdays.contains(LocalDateTime.of(2026, 2, 14, 12, 0))).isFalse();
+        }
+
+        @Test
+        void operations_whenGivenManyRandomRanges_agreeWithThePredicates() {
+            Random random = new Random(42);
+            for (int round = 0; round < 200; round++) {
+                List<DateValue> a = randomValues(random);
+                List<DateValue> b = randomValues(random);
+                DateRangeSet setA = DateRangeSet.of(a);
+                DateRangeSet setB = DateRangeSet.of(b);
+                Predicate<LocalDateTime> inA = anyOf(a);
+                Predicate<LocalDateTime> inB = anyOf(b);
+
+                for (int query = 0; query < 50; query++) {
+                    LocalDateTime t = randomTime(random);
+                    assertThat(setA.contains(t)).as("a %s at %s", setA, t).isEqualTo(inA.test(t));
+                    assertThat(setA.union(setB).contains(t)).isEqualTo(inA.test(t) || inB.test(t));
+                    assertThat(setA.intersect(setB).contains(t)).isEqualTo(inA.test(t) && inB.test(t));
+                    assertThat(setA.minus(setB).contains(t)).isEqualTo(inA.test(t) && !inB.test(t));
+                    assertThat(setA.complement().contains(t)).isEqualTo(!inA.test(t));
+                }
+            }
+        }
+
+        private static List<DateValue> randomValues(Random random) {
+            List<DateValue> values = new ArrayList<>();
+            for (int i = random.nextInt(5); i >= 0; i--) {
+                if (random.nextInt(5) == 0) {
+                    values.add(new DateValue.AbsoluteDate(randomTime(random)));
+                    continue;
+                }
+                LocalDateTime x = random.nextInt(10) == 0 ? LocalDateTime.MIN : randomTime(random);
+                LocalDateTime y = random.nextInt(10) == 0 ? LocalDateTime.MAX : randomTime(random);
+                values.add(range(x.isBefore(y) ? x : y, x.isBefore(y) ? y : x, random.nextBoolean(), random.nextBoolean()));
+            }
+            return values;
+        }
+
+        private static LocalDateTime randomTime(Random random) {
+            return JAN_1.plusHours(random.nextInt(48));
+        }
+
+        private static Predicate<LocalDateTime> anyOf(List<DateValue> values) {
+            return values.stream().map(DateValue::toPredicate).reduce(t -> false, Predicate::or);
+        }
+    }
+}
@@ -8,12 +8,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import java.nio.CharBuffer;
 import java.time.Clock;
+import java.time.DateTimeException;
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class DateValueIntParserTest {
 
@@ -319,4 +327,375 @@ class DateValueIntParserTest {
             assertThat(result.toString()).isEqualTo("[2020-02-01T00:00,2020-02-02T00:00)");
         }
     }
+
+    @Nested
+    class CompiledExpressionTests {
+        private final DateValueParser parser = new DateValueParser(
+                LanguageKeywords.combine(List.of(LanguageKeywords.ENGLISH, LanguageKeywords.DUTCH)), FIXED_CLOCK);
+
+        @ParameterizedTest(name = "compile \"{0}\" resolves like parse")
+        @CsvSource({
+                "'last 7 days'",
+                "'between 5 minutes ago and now'",
+                "'since monday 08:00'",
+                "'2026-01-01 to 2026-02-01'",
+                "'laatste dag van vorige week'",
+                "'until end of this month'",
+        })
+        void compile_resolvedAgainstClockTime_equalsParse(String input) {
+            CompiledExpression compiled = parser.compile(input).orElseThrow();
+            assertThat(compiled.resolve(LocalDateTime.now(FIXED_CLOCK))).isEqualTo(parser.parse(input).orElseThrow());
+        }
+
+        @Test
+        void compile_resolvedAgainstDifferentNows_recalculatesRelativeParts() {
+            CompiledExpression compiled = parser.compile("last 7 days").orElseThrow();
+
+            assertThat(compiled.resolve(LocalDateTime.of(2026, 2, 14, 10, 0)).toString()).isEqualTo("[2026-02-07T00:00,2026-02-14T10:00)");
+            assertThat(compiled.resolve(LocalDateTime.of(2026, 3, 1, 12, 30)).toString()).isEqualTo("[2026-02-22T00:00,2026-03-01T12:30)");
+        }
+
+        @Test
+        void compile_sameInputTwice_returnsEqualExpressions() {
+            assertThat(parser.compile("since yesterday")).isEqualTo(parser.compile("since yesterday"));
+        }
+
+        @Test
+        void compile_whenGivenInvalidInput_returnsEmpty() {
+            assertThat(parser.compile("last blue moon")).isEmpty();
+        }
+
+        @Test
+        void compile_whenResultIsOutOfRange_compilesButThrowsOnResolve() {
+            CompiledExpression compiled = parser.compile("next 999999999 years").orElseThrow();
+
+            assertThatThrownBy(() -> compiled.resolve(LocalDateTime.now(FIXED_CLOCK))).isInstanceOf(DateTimeException.class);
+            assertThatThrownBy(() -> compiled.resolveCompact(LocalDateTime.now(FIXED_CLOCK))).isInstanceOf(DateTimeException.class);
+            assertThatThrownBy(() -> compiled.resolveInstant(FIXED_CLOCK.instant(), ZoneId.of("America/New_York")))
+                    .isInstanceOf(DateTimeException.class);
+            assertThatThrownBy(() -> compiled.resolveEpochMillis(new long[1], ZoneId.of("Europe/Brussels"), new long[1], new long[1]))
+                    .isInstanceOf(DateTimeException.class);
+        }
+    }
+
+    @Nested
+    class ParseAllTests {
+        private final LanguageKeywords combined = LanguageKeywords.combine(List.of(LanguageKeywords.ENGLISH, LanguageKeywords.DUTCH));
+
+        @Test
+        void parseAll_whenGivenList_returnsResultsInInputOrder() {
+            DateValueParser parser = new DateValueParser(combined, FIXED_CLOCK);
+            List<String> terms = List.of("today", "junk", "2026-02-03", "today", "last 3 days");
+
+            List<Optional<DateValue>> results = parser.parseAll(terms);
+
+            assertThat(results).containsExactlyElementsOf(terms.stream().map(parser::parse).toList());
+            assertThat(results.get(1)).isEmpty();
+        }
+
+        @Test
+        void parseAll_whenClockAdvances_resolvesAllTermsAgainstOneNow() {
+            MutableClock clock = new MutableClock(Instant.parse("2026-02-14T10:00:00Z"));
+            DateValueParser parser = new DateValueParser(combined, new TickingClock(clock));
+            List<String> terms = List.of("now", "1 hour ago", "now");
+
+            List<Optional<DateValue>> results = parser.parseAll(terms);
+
+            assertThat(results).extracting(result -> result.orElseThrow().toString()).containsExactly(
+                    "[2026-02-14T10:00,2026-02-14T10:00]",
+                    "[2026-02-14T09:00,2026-02-14T09:00]",
+                    "[2026-02-14T10:00,2026-02-14T10:00]");
+        }
+
+        @Test
+        void parseAll_whenGivenParallelStream_returnsResultsInInputOrder() {
+            DateValueParser parser = new DateValueParser(combined, FIXED_CLOCK);
+            List<String> terms = Stream.generate(() -> List.of("today", "2026-02", "vorige week", "?")).limit(500)
+                    .flatMap(List::stream)
+                    .toList();
+
+            List<Optional<DateValue>> results = parser.parseAll(terms.parallelStream()).toList();
+
+            assertThat(results).containsExactlyElementsOf(terms.stream().map(parser::parse).toList());
+        }
+    }
+
+    @Nested
+    class InstantTests {
+        private static final ZoneId BRUSSELS = ZoneId.of("Europe/Brussels");
+
+        private DateValueParser parserAt(String instant) {
+            return new DateValueParser(LanguageKeywords.ENGLISH, Clock.fixed(Instant.parse(instant), BRUSSELS));
+        }
+
+        @ParameterizedTest(name = "parseInstant \"{1}\" at {0} returns {2}")
+        @CsvSource({
+                // 23 hour day, clocks move from 02:00 to 03:00
+                "2026-03-29T10:00:00Z, today,                                  '[2026-03-28T23:00:00Z,2026-03-29T22:00:00Z)'",
+                // 25 hour day, clocks move from 03:00 back to 02:00
+                "2026-10-25T10:00:00Z, today,                                  '[2026-10-24T22:00:00Z,2026-10-25T23:00:00Z)'",
+                "2026-03-29T02:00:00Z, last 3 hours,                           '[2026-03-28T23:00:00Z,2026-03-29T02:00:00Z)'",
+                "2026-10-25T02:00:00Z, 3 hours ago,                            '[2026-10-24T23:00:00Z,2026-10-24T23:00:00Z]'",
+                "2026-03-29T10:00:00Z, 2026-03-29 02:30,                       '[2026-03-29T01:00:00Z,2026-03-29T01:00:00Z]'",
+                "2026-10-25T10:00:00Z, 2026-10-25 02:00 to 2026-10-25 02:30,   '[2026-10-25T00:00:00Z,2026-10-25T01:30:00Z]'",
+                "2026-10-25T01:15:00Z, now,                                    '[2026-10-25T01:15:00Z,2026-10-25T01:15:00Z]'",
+                "2026-10-25T10:00:00Z, since 2026-01-01,                       '[2025-12-31T23:00:00Z, ∞)'",
+        })
+        void parseInstant_whenGivenInputAroundDstTransitions_returnsExpectedInstants(String now, String input, String expected) {
+            assertThat(parserAt(now).parseInstant(input).orElseThrow().toString()).isEqualTo(expected);
+        }
+
+        /**
+         * Clocks move from 03:00 back to 02:00 at 01:00Z, so local times between 02:00 and 03:00 occur twice.
+         */
+        @ParameterizedTest(name = "parseInstant \"{1}\" at {0} returns {2}")
+        @CsvSource({
+                "2026-10-25T01:30:00Z, last 1 hour,                  '[2026-10-25T00:30:00Z,2026-10-25T01:30:00Z)'",
+                "2026-10-25T01:45:00Z, last 30 minutes,              '[2026-10-25T01:15:00Z,2026-10-25T01:45:00Z)'",
+                "2026-10-25T01:00:30Z, last 60 seconds,              '[2026-10-25T00:59:30Z,2026-10-25T01:00:30Z)'",
+                "2026-10-25T00:30:00Z, next 1 hour,                  '[2026-10-25T00:30:00Z,2026-10-25T01:30:00Z)'",
+                "2026-10-25T00:45:00Z, next 30 minutes,              '[2026-10-25T00:45:00Z,2026-10-25T01:15:00Z)'",
+                "2026-10-25T00:59:30Z, next 60 seconds,              '[2026-10-25T00:59:30Z,2026-10-25T01:00:30Z)'",
+                "2026-10-25T01:30:00Z, 1 hour ago,                   '[2026-10-25T00:30:00Z,2026-10-25T00:30:00Z]'",
+                "2026-10-25T01:45:00Z, 30 minutes ago,               '[2026-10-25T01:15:00Z,2026-10-25T01:15:00Z]'",
+                "2026-10-25T01:00:30Z, 60 seconds ago,               '[2026-10-25T00:59:30Z,2026-10-25T00:59:30Z]'",
+                "2026-10-25T00:30:00Z, 1 hour from now,              '[2026-10-25T01:30:00Z,2026-10-25T01:30:00Z]'",
+                "2026-10-25T00:45:00Z, in 30 minutes,                '[2026-10-25T01:15:00Z,2026-10-25T01:15:00Z]'",
+                "2026-10-25T00:59:30Z, 60 seconds from now,          '[2026-10-25T01:00:30Z,2026-10-25T01:00:30Z]'",
+                "2026-10-25T01:30:00Z, this hour,                    '[2026-10-25T01:00:00Z,2026-10-25T02:00:00Z)'",
+                "2026-10-25T01:45:00Z, since 30 minutes ago,         '[2026-10-25T01:15:00Z, ∞)'",
+                "2026-10-25T01:30:00Z, between 1 hour ago and now,   '[2026-10-25T00:30:00Z,2026-10-25T01:30:00Z]'",
+                // calendar units still go through the zone rules, so the day covers both occurrences
+                "2026-10-25T01:30:00Z, last 1 days,                  '[2026-10-23T22:00:00Z,2026-10-25T01:30:00Z)'",
+        })
+        void parseInstant_whenElapsedUnitsCrossAFallBackOverlap_countElapsedTime(String now, String input, String expected) {
+            assertThat(parserAt(now).parseInstant(input).orElseThrow().toString()).isEqualTo(expected);
+        }
+
+        @Test
+        void parseInstant_whenGivenExplicitZone_usesThatZone() {
+            DateValueParser parser = new DateValueParser(LanguageKeywords.ENGLISH, FIXED_CLOCK);
+
+            InstantRange range = parser.parseInstant("today", ZoneId.of("America/New_York")).orElseThrow();
+
+            assertThat(range.toString()).isEqualTo("[2026-02-14T05:00:00Z,2026-02-15T05:00:00Z)");
+        }
+
+        @Test
+        void parseInstant_whenRangeIsOpenEnded_returnsExtremeEpochMillis() {
+            InstantRange since = parserAt("2026-10-25T10:00:00Z").parseInstant("since 2026-01-01").orElseThrow();
+            InstantRange before = parserAt("2026-10-25T10:00:00Z").parseInstant("before 2026-01-01").orElseThrow();
+
+            assertThat(since.fromEpochMilli()).isEqualTo(Instant.parse("2025-12-31T23:00:00Z").toEpochMilli());
+            assertThat(since.untilEpochMilli()).isEqualTo(Long.MAX_VALUE);
+            assertThat(before.fromEpochMilli()).isEqualTo(Long.MIN_VALUE);
+        }
+
+        @Test
+        void parseInstant_whenGivenInvalidInput_returnsEmpty() {
+            assertThat(parserAt("2026-10-25T10:00:00Z").parseInstant("last blue moon")).isEmpty();
+        }
+    }
+
+    @Nested
+    class CharSequenceTests {
+        private final DateValueParser parser = new DateValueParser(
+                LanguageKeywords.combine(List.of(LanguageKeywords.ENGLISH, LanguageKeywords.DUTCH)), FIXED_CLOCK);
+
+        @ParameterizedTest(name = "parse slice \"{0}\" of a larger text")
+        @CsvSource({
+                "last 3 days",
+                "2026-02-03",
+                "2026-02-01 to 2026-02-10",
+                "vorige week",
+        })
+        void parse_whenGivenSliceOfLargerText_returnsSameAsString(String term) {
+            String line = "level=INFO when=" + term + " user=42";
+            int offset = line.indexOf(term);
+            Optional<DateValue> expected = parser.parse(term);
+
+            assertThat(parser.parse(CharBuffer.wrap(line, offset, offset + term.length()))).isEqualTo(expected);
+            assertThat(parser.parse(line.toCharArray(), offset, term.length())).isEqualTo(expected);
+            assertThat(parser.parse(new StringBuilder(term))).isEqualTo(expected);
+        }
+
+        @Test
+        void tryParse_whenSliceIsInvalid_returnsOffsetRelativeToSlice() {
+            char[] chars = "xx today xyz yy".toCharArray();
+
+            assertThat(parser.tryParse(chars, 3, 9)).isEqualTo(new ParseResult.Failure<DateValue>(6));
+        }
+
+        @Test
+        void parse_whenCachingCharSequences_sharesEntriesWithStrings() {
+            DateValueParser cached = parser.withCache(10);
+
+            cached.parse("Last 3 Days");
+            cached.parse(CharBuffer.wrap("last   3 days"));
+
+            assertThat(cached.cacheStats().hits()).isEqualTo(1);
+        }
+
+        @Test
+        void parse_whenGivenInvalidSlice_throwsException() {
+            assertThatThrownBy(() -> parser.parse(new char[4], 2, 3)).isInstanceOf(IndexOutOfBoundsException.class);
+        }
+    }
+
+    @Nested
+    class ExplicitNowTests {
+        private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 30);
+
+        @Test
+        void parse_whenGivenNow_resolvesAgainstItWithoutReadingTheClock() {
+            MutableClock clock = new MutableClock(Instant.parse("2026-02-14T10:00:00Z"));
+            DateValueParser parser = new DateValueParser(LanguageKeywords.ENGLISH, new TickingClock(clock));
+
+            assertThat(parser.parse("today", NOW).orElseThrow().toString()).isEqualTo("[2026-03-01T00:00,2026-03-02T00:00)");
+            assertThat(parser.parse("between 5 minutes ago and now", NOW).orElseThrow().toString())
+                    .isEqualTo("[2026-03-01T12:25,2026-03-01T12:30]");
+            assertThat(clock.instant()).isEqualTo(Instant.parse("2026-02-14T10:00:00Z"));
+        }
+
+        @Test
+        void parse_whenGivenInstant_usesTheZoneOfTheClock() {
+            DateValueParser parser = new DateValueParser(LanguageKeywords.ENGLISH, Clock.system(ZoneId.of("Europe/Brussels")));
+
+            DateValue result = parser.parse("today", Instant.parse("2026-02-28T23:30:00Z")).orElseThrow();
+
+            assertThat(result).isEqualTo(parser.parse("today", NOW).orElseThrow());
+        }
+
+        @Test
+        void tryParse_whenGivenNowAndInvalidInput_returnsFailure() {
+            DateValueParser parser = new DateValueParser(LanguageKeywords.ENGLISH, FIXED_CLOCK);
+
+            assertThat(parser.tryParse("today xyz", NOW)).isEqualTo(new ParseResult.Failure<DateValue>(6));
+        }
+
+        @Test
+        void parseInstant_whenGivenNow_resolvesAgainstIt() {
+            DateValueParser parser = new DateValueParser(LanguageKeywords.ENGLISH, FIXED_CLOCK);
+
+            InstantRange range = parser.parseInstant("last 2 hours", ZoneOffset.UTC, Instant.parse("2026-03-01T12:00:00Z")).orElseThrow();
+
+            assertThat(range.toString()).isEqualTo("[2026-03-01T10:00:00Z,2026-03-01T12:00:00Z)");
+        }
+    }
+
+    @Nested
+    class SharedGrammarTests {
+        @Test
+        void constructor_whenGivenEqualKeywords_sharesTheGrammar() {
+            LanguageKeywords combined = LanguageKeywords.combine(List.of(LanguageKeywords.ENGLISH, LanguageKeywords.DUTCH));
+            LanguageKeywords combinedAgain = LanguageKeywords.combine(List.of(LanguageKeywords.ENGLISH, LanguageKeywords.DUTCH));
+
+            DateValueParser first = new DateValueParser(combined, FIXED_CLOCK);
+            DateValueParser second = new DateValueParser(combinedAgain, Clock.systemUTC());
+
+            assertThat(second.expressionParser()).isSameAs(first.expressionParser());
+            assertThat(new DateValueParser(LanguageKeywords.ENGLISH, FIXED_CLOCK).expressionParser()).isNotSameAs(first.expressionParser());
+        }
+
+        @Test
+        void withClock_whenGivenOtherClock_resolvesAgainstItAndKeepsTheCache() {
+            DateValueParser parser = new DateValueParser(LanguageKeywords.ENGLISH, FIXED_CLOCK).withCache(10);
+            parser.parse("today");
+
+            DateValueParser later = parser.withClock(Clock.fixed(Instant.parse("2026-03-01T10:00:00Z"), ZoneOffset.UTC));
+
+            assertThat(later.parse("today").orElseThrow().toString()).isEqualTo("[2026-03-01T00:00,2026-03-02T00:00)");
+            assertThat(parser.parse("today").orElseThrow().toString()).isEqualTo("[2026-02-14T00:00,2026-02-15T00:00)");
+            assertThat(later.cacheStats().hits()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    class PerLanguageGrammarTests {
+        private final DateValueParser combined = new DateValueParser(
+                LanguageKeywords.combine(List.of(LanguageKeywords.ENGLISH, LanguageKeywords.DUTCH)), FIXED_CLOCK);
+
+        @ParameterizedTest(name = "tryParse \"{0}\" returns the same as the combined parser")
+        @CsvSource({
+                "today",
+                "vorige week",
+                "tot en met morgen",
+                "between 5 minutes ago and now",
+                "2026-02-03",
+                "2026-02-03 12:00",
+                "< 2026-02-01",
+                "last week t/m today",
+                "vandaag tot tomorrow",
+                "junk",
+                "today xyz",
+        })
+        void tryParse_whenGivenInput_returnsSameAsCombinedParser(String input) {
+            DateValueParser parser = new DateValueParser(List.of(LanguageKeywords.ENGLISH, LanguageKeywords.DUTCH), FIXED_CLOCK);
+
+            assertThat(parser.tryParse(input)).isEqualTo(combined.tryParse(input));
+        }
+
+        @Test
+        void tryParse_whenOnlyOneLanguageIsUsed_onlyBuildsItsGrammar() {
+            DateValueParser parser = new DateValueParser(List.of(LanguageKeywords.ENGLISH, LanguageKeywords.DUTCH), FIXED_CLOCK);
+
+            parser.parse("vorige week");
+            parser.parse("2026-02-03");
+
+            assertThat(parser.grammars().builtLanguages()).isEqualTo(1);
+            assertThat(parser.grammars().forInput("gisteren")).isSameAs(parser.grammars().forInput("vorige week"));
+            assertThat(parser.grammars().forInput("last week t/m today")).isSameAs(parser.grammars().combined());
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    /**
+     * Moves the wrapped clock forward by an hour every time it is read.
+     */
+    private static final class TickingClock extends Clock {
+        private final MutableClock clock;
+
+        private TickingClock(MutableClock clock) {
+            this.clock = clock;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return clock.getZone();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public synchronized Instant instant() {
+            Instant instant = clock.instant();
+            clock.instant = instant.plusSeconds(3600);
+            return instant;
+        }
+    }
 }
@@ -0,0 +1,225 @@
+package net.vanfleteren.daysie.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DateValueSchedulerTest {
+
+    private static final ZoneId BRUSSELS = ZoneId.of("Europe/Brussels");
+
+    private final DateValueParser parser = new DateValueParser(LanguageKeywords.ENGLISH);
+    private final MutableClock clock = new MutableClock(ZonedDateTime.of(2026, 2, 14, 10, 0, 0, 0, BRUSSELS).toInstant(), BRUSSELS);
+
+    private CompiledExpression compile(String expression) {
+        return parser.compile(expression).orElseThrow();
+    }
+
+    @Test
+    void subscribe_whenCalled_emitsTheCurrentRangeRightAway() {
+        List<InstantRange> ranges = new ArrayList<>();
+
+        try (DateValueScheduler scheduler = new DateValueScheduler(clock)) {
+            scheduler.subscribe(compile("today"), ranges::add);
+        }
+
+        assertThat(ranges).containsExactly(compile("today").resolveInstant(clock.instant(), BRUSSELS));
+    }
+
+    @Test
+    void subscribe_whenFiredWhileTheFirstRangeIsDelivered_emitsTheFirstRangeFirst() {
+        List<InstantRange> ranges = new ArrayList<>();
+        Instant midnight = ZonedDateTime.of(2026, 2, 15, 0, 0, 0, 0, BRUSSELS).toInstant();
+        DateValueScheduler scheduler = new DateValueScheduler(clock);
+        scheduler.subscribe(compile("today"), range -> {
+            if (ranges.isEmpty() && clock.instant.isBefore(midnight)) {
+                // the scheduler thread firing while the subscriber still handles the first range
+                clock.instant = midnight;
+                assertThat(scheduler.fireDue()).isZero();
+            }
+            ranges.add(range);
+        });
+
+        assertThat(scheduler.fireDue()).isOne();
+
+        assertThat(ranges).hasSize(2);
+        assertThat(ranges.get(0).until()).isEqualTo(midnight);
+        assertThat(ranges.get(1).from()).isEqualTo(midnight);
+    }
+
+    @Test
+    void fireDue_whenCalledConcurrently_emitsTheRangesInOrder() throws InterruptedException {
+        List<InstantRange> ranges = new CopyOnWriteArrayList<>();
+        Instant eleven = ZonedDateTime.of(2026, 2, 14, 11, 0, 0, 0, BRUSSELS).toInstant();
+        CountDownLatch delivering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DateValueScheduler scheduler = new DateValueScheduler(clock);
+        scheduler.subscribe(compile("this hour"), range -> {
+            if (range.from().equals(eleven)) {
+                delivering.countDown();
+                awaitQuietly(release);
+            }
+            ranges.add(range);
+        });
+
+        clock.instant = eleven;
+        Thread first = Thread.ofPlatform().start(scheduler::fireDue);
+        assertThat(delivering.await(5, TimeUnit.SECONDS)).isTrue();
+        clock.instant = eleven.plus(Duration.ofHours(1));
+        Thread second = Thread.ofPlatform().start(scheduler::fireDue);
+        while (second.isAlive() && second.getState() != Thread.State.BLOCKED) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        first.join();
+        second.join();
+
+        assertThat(ranges).extracting(InstantRange::from).containsExactly(eleven.minus(Duration.ofHours(1)), eleven, eleven.plus(Duration.ofHours(1)));
+        assertThat(scheduler.nextDue()).isEqualTo(eleven.plus(Duration.ofHours(2)));
+    }
+
+    @Test
+    void fireDue_whenDayRollsOver_emitsTheNewDayAtLocalMidnight() {
+        List<InstantRange> ranges = new ArrayList<>();
+        DateValueScheduler scheduler = new DateValueScheduler(clock);
+        scheduler.subscribe(compile("today"), ranges::add);
+        Instant midnight = ZonedDateTime.of(2026, 2, 15, 0, 0, 0, 0, BRUSSELS).toInstant();
+
+        assertThat(scheduler.nextDue()).isEqualTo(midnight);
+        clock.instant = midnight.minusNanos(1);
+        assertThat(scheduler.fireDue()).isZero();
+        clock.instant = midnight;
+        assertThat(scheduler.fireDue()).isOne();
+
+        assertThat(ranges).hasSize(2);
+        assertThat(ranges.get(1).from()).isEqualTo(midnight);
+    }
+
+    @Test
+    void fireDue_whenBoundaryDoesNotChangeTheRange_doesNotEmit() {
+        List<InstantRange> ranges = new ArrayList<>();
+        DateValueScheduler scheduler = new DateValueScheduler(clock);
+        scheduler.subscribe(compile("this quarter"), ranges::add);
+
+        clock.instant = scheduler.nextDue();
+        assertThat(scheduler.fireDue()).isZero();
+        assertThat(clock.instant).isEqualTo(ZonedDateTime.of(2026, 3, 1, 0, 0, 0, 0, BRUSSELS).toInstant());
+        clock.instant = scheduler.nextDue();
+        assertThat(scheduler.fireDue()).isOne();
+
+        assertThat(ranges).hasSize(2);
+        assertThat(ranges.get(1).from()).isEqualTo(ZonedDateTime.of(2026, 4, 1, 0, 0, 0, 0, BRUSSELS).toInstant());
+    }
+
+    @Test
+    void subscribe_whenExpressionMovesWithNow_isDueEveryTick() {
+        DateValueScheduler scheduler = new DateValueScheduler(clock, Duration.ofMillis(250));
+        clock.instant = clock.instant.plusMillis(100);
+        scheduler.subscribe(compile("last 15 minutes"), range -> {
+        });
+
+        assertThat(scheduler.nextDue()).isEqualTo(clock.instant.plusMillis(150));
+        clock.instant = scheduler.nextDue();
+        assertThat(scheduler.fireDue()).isOne();
+    }
+
+    @Test
+    void subscribe_whenExpressionIsAbsolute_neverSchedulesIt() {
+        DateValueScheduler scheduler = new DateValueScheduler(clock);
+
+        scheduler.subscribe(compile("2026-01-01"), range -> {
+        });
+
+        assertThat(scheduler.scheduledCount()).isZero();
+        assertThat(scheduler.nextDue()).isNull();
+    }
+
+    @Test
+    void cancel_whenCalled_stopsEmitting() {
+        List<InstantRange> ranges = new ArrayList<>();
+        DateValueScheduler scheduler = new DateValueScheduler(clock);
+        DateValueScheduler.Subscription subscription = scheduler.subscribe(compile("this hour"), ranges::add);
+
+        subscription.cancel();
+        clock.instant = clock.instant.plus(Duration.ofHours(2));
+
+        assertThat(scheduler.fireDue()).isZero();
+        assertThat(scheduler.scheduledCount()).isZero();
+        assertThat(ranges).hasSize(1);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {"today", "yesterday", "this hour", "this week", "last week", "next month", "this quarter", "this year",
+            "monday", "start of this month", "since yesterday", "between start of this week and end of this month", "2 days ago at 10:00"})
+    void fireDue_whenTimePasses_alwaysHoldsTheRangeForNow(String expression) {
+        CompiledExpression compiled = compile(expression);
+        DateValueScheduler scheduler = new DateValueScheduler(clock);
+        DateValueScheduler.Subscription subscription = scheduler.subscribe(compiled, range -> {
+        });
+
+        // across the change to summer time on 2026-03-29
+        for (int step = 0; step < 3_000; step++) {
+            clock.instant = clock.instant.plus(Duration.ofMinutes(37));
+            scheduler.fireDue();
+
+            assertThat(subscription.range()).as("at %s", clock.instant).isEqualTo(compiled.resolveInstant(clock.instant, BRUSSELS));
+        }
+    }
+
+    @Test
+    void start_whenRunning_emitsFromItsOwnThread() throws InterruptedException {
+        CountDownLatch updates = new CountDownLatch(3);
+        try (DateValueScheduler scheduler = new DateValueScheduler(Clock.systemUTC(), Duration.ofMillis(10))) {
+            scheduler.start();
+            scheduler.subscribe(compile("now"), range -> updates.countDown());
+
+            assertThat(updates.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private final ZoneId zone;
+        private Instant instant;
+
+        private MutableClock(Instant instant, ZoneId zone) {
+            this.instant = instant;
+            this.zone = zone;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package net.vanfleteren.daysie.core;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DateValueTest {
+
+    private static final LocalDateTime DATE_1 = LocalDateTime.of(2026, 2, 14, 0, 0);
+    private static final LocalDateTime DATE_2 = LocalDateTime.of(2026, 2, 15, 0, 0);
+    private static final long MILLIS_1 = DATE_1.toInstant(ZoneOffset.UTC).toEpochMilli();
+    private static final long MILLIS_2 = DATE_2.toInstant(ZoneOffset.UTC).toEpochMilli();
+
+    @Nested
+    class ToPredicateTests {
+        @ParameterizedTest(name = "toPredicate with fromInclusive={0}, untilInclusive={1}")
+        @CsvSource({
+                "true, true",
+                "true, false",
+                "false, true",
+                "false, false",
+        })
+        void toPredicate_whenGivenRange_respectsInclusivity(boolean fromInclusive, boolean untilInclusive) {
+            DateValue range = new DateValue.AbsoluteRange(DATE_1, DATE_2, fromInclusive, untilInclusive);
+
+            assertThat(range.toPredicate())
+                    .accepts(DATE_1.plusHours(1))
+                    .rejects(DATE_1.minusNanos(1), DATE_2.plusNanos(1));
+            assertThat(range.toPredicate().test(DATE_1)).isEqualTo(fromInclusive);
+            assertThat(range.toPredicate().test(DATE_2)).isEqualTo(untilInclusive);
+        }
+
+        @Test
+        void toPredicate_whenOpenEnded_testsSingleBound() {
+            DateValue since = new DateValue.AbsoluteRange(DATE_1, LocalDateTime.MAX, true, false);
+            DateValue before = new DateValue.AbsoluteRange(LocalDateTime.MIN, DATE_1, false, false);
+
+            assertThat(since.toPredicate()).accepts(DATE_1, LocalDateTime.MAX).rejects(DATE_1.minusNanos(1));
+            assertThat(before.toPredicate()).accepts(LocalDateTime.MIN, DATE_1.minusNanos(1)).rejects(DATE_1);
+        }
+
+        @Test
+        void toPredicate_whenGivenDate_acceptsOnlyThatDate() {
+            assertThat(new DateValue.AbsoluteDate(DATE_1).toPredicate()).accepts(DATE_1).rejects(DATE_1.plusNanos(1));
+        }
+    }
+
+    @Nested
+    class ToLongPredicateTests {
+        @ParameterizedTest(name = "toLongPredicate with fromInclusive={0}, untilInclusive={1}")
+        @CsvSource({
+                "true, true",
+                "true, false",
+                "false, true",
+                "false, false",
+        })
+        void toLongPredicate_whenGivenRange_respectsInclusivity(boolean fromInclusive, boolean untilInclusive) {
+            EpochPredicate predicate = new DateValue.AbsoluteRange(DATE_1, DATE_2, fromInclusive, untilInclusive)
+                    .toLongPredicate(ZoneOffset.UTC);
+
+            assertThat(predicate.test(MILLIS_1 + 1)).isTrue();
+            assertThat(predicate.test(MILLIS_1 - 1)).isFalse();
+            assertThat(predicate.test(MILLIS_2 + 1)).isFalse();
+            assertThat(predicate.test(MILLIS_1)).isEqualTo(fromInclusive);
+            assertThat(predicate.test(MILLIS_2)).isEqualTo(untilInclusive);
+            assertThat(predicate.test(Long.MIN_VALUE)).isFalse();
+            assertThat(predicate.test(Long.MAX_VALUE)).isFalse();
+        }
+
+        @Test
+        void toLongPredicate_whenOpenEnded_testsSingleBound() {
+            EpochPredicate since = new DateValue.AbsoluteRange(DATE_1, LocalDateTime.MAX, false, false).toLongPredicate(ZoneOffset.UTC);
+            EpochPredicate before = new DateValue.AbsoluteRange(LocalDateTime.MIN, DATE_1, false, true).toLongPredicate(ZoneOffset.UTC);
+
+            assertThat(since.test(MILLIS_1)).isFalse();
+            assertThat(since.test(Long.MAX_VALUE)).isTrue();
+            assertThat(before.test(MILLIS_1)).isTrue();
+            assertThat(before.test(Long.MIN_VALUE)).isTrue();
+            assertThat(before.test(MILLIS_1 + 1)).isFalse();
+        }
+
+        @Test
+        void toLongPredicate_whenBoundHasSubMillisecondPart_roundsToMatchingMillis() {
+            InstantRange range = new InstantRange(Instant.ofEpochMilli(10).plusNanos(500_000), Instant.ofEpochMilli(20).plusNanos(500_000), true, false);
+
+            assertThat(range.toLongPredicate().filter(new long[]{10, 11, 20, 21})).containsExactly(1, 2);
+        }
+
+        @Test
+        void toLongPredicate_whenRangeIsEmpty_matchesNothing() {
+            EpochPredicate predicate = new DateValue.AbsoluteRange(DATE_1, DATE_1, false, false).toLongPredicate(ZoneOffset.UTC);
+
+            assertThat(predicate.test(MILLIS_1)).isFalse();
+            assertThat(predicate.filter(new long[]{MILLIS_1})).isEmpty();
+        }
+
+        @Test
+        void filter_whenGivenEpochs_returnsIndicesOfMatches() {
+            EpochPredicate predicate = new DateValue.AbsoluteRange(DATE_1, DATE_2, true, false).toLongPredicate(ZoneOffset.UTC);
+
+            int[] indices = predicate.filter(new long[]{MILLIS_1 - 1, MILLIS_1, Long.MIN_VALUE, MILLIS_2 - 1, MILLIS_2, MILLIS_1 + 5});
+
+            assertThat(indices).containsExactly(1, 3, 5);
+        }
+
+        @Test
+        void filter_whenUnbounded_returnsAllIndices() {
+            EpochPredicate predicate = new DateValue.AbsoluteRange(LocalDateTime.MIN, LocalDateTime.MAX, false, false).toLongPredicate(ZoneOffset.UTC);
+
+            assertThat(predicate.filter(new long[]{Long.MIN_VALUE, 0, Long.MAX_VALUE})).containsExactly(0, 1, 2);
+        }
+    }
+}
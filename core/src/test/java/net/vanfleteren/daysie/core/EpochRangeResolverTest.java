@@ -0,0 +1,136 @@
+package net.vanfleteren.daysie.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EpochRangeResolverTest {
+
+    private static final Clock FIXED_CLOCK = Clock.fixed(Instant.parse("2026-02-14T10:00:00Z"), ZoneId.of("UTC"));
+
+    private final DateValueParser parser = new DateValueParser(LanguageKeywords.ENGLISH, FIXED_CLOCK);
+
+    @ParameterizedTest(name = "resolveEpochMillis \"{0}\" matches resolveInstant")
+    @CsvSource({
+            "today", "yesterday", "tomorrow",
+            "last 7 days", "this day", "next 3 days",
+            "last week", "this 2 weeks", "next week",
+            "last month", "this month", "next 2 months",
+            "last quarter", "this quarter", "next quarter",
+            "last 2 years", "this year", "next year",
+            "last 3 hours", "this hour", "next 15 minutes", "this 2 seconds",
+            "monday", "since last week", "between yesterday and now", "3 days ago",
+    })
+    void resolveEpochMillis_whenGivenManyNows_matchesResolveInstant(String input) {
+        CompiledExpression compiled = parser.compile(input).orElseThrow();
+        long[] nows = nows();
+
+        for (String zoneId : List.of("UTC", "+05:45", "Europe/Brussels", "America/Sao_Paulo", "Asia/Kathmandu")) {
+            ZoneId zone = ZoneId.of(zoneId);
+            long[] from = new long[nows.length];
+            long[] until = new long[nows.length];
+
+            compiled.resolveEpochMillis(nows, zone, from, until);
+
+            for (int i = 0; i < nows.length; i++) {
+                EpochPredicate expected = compiled.resolveInstant(Instant.ofEpochMilli(nows[i]), zone).toLongPredicate();
+                String description = input + " in " + zoneId + " at " + Instant.ofEpochMilli(nows[i]);
+                assertThat(expected.test(from[i])).as(description).isTrue();
+                assertThat(expected.test(until[i] - 1)).as(description).isTrue();
+                if (from[i] != Long.MIN_VALUE) {
+                    assertThat(expected.test(from[i] - 1)).as(description).isFalse();
+                }
+                if (until[i] != Long.MAX_VALUE) {
+                    assertThat(expected.test(until[i])).as(description).isFalse();
+                }
+            }
+        }
+    }
+
+    @Test
+    void monthOf_whenGivenEpochDay_countsMonthsFromYearZero() {
+        for (LocalDate day = LocalDate.of(-1, 1, 1); day.isBefore(LocalDate.of(2401, 1, 1)); day = day.plusDays(13)) {
+            long month = EpochRangeResolver.monthOf(day.toEpochDay());
+
+            assertThat(month).as(day.toString()).isEqualTo(day.getYear() * 12L + day.getMonthValue() - 1);
+            assertThat(EpochRangeResolver.firstDayOfMonth(month)).as(day.toString()).isEqualTo(day.withDayOfMonth(1).toEpochDay());
+        }
+    }
+
+    @ParameterizedTest(name = "resolveEpochMillis \"{0}\" matches resolveInstant across transitions")
+    @CsvSource({
+            "last 3 hours", "next 90 minutes", "last 30 seconds",
+            "this hour", "this 2 hours", "this minute", "this 3 seconds",
+    })
+    void resolveEpochMillis_whenNowsCrossADaylightSavingTimeTransition_matchesResolveInstant(String input) {
+        CompiledExpression compiled = parser.compile(input).orElseThrow();
+
+        for (String zoneId : List.of("Europe/Brussels", "America/Sao_Paulo", "Australia/Lord_Howe")) {
+            ZoneId zone = ZoneId.of(zoneId);
+            long[] nows = aroundTransitions(zone);
+            long[] from = new long[nows.length];
+            long[] until = new long[nows.length];
+
+            compiled.resolveEpochMillis(nows, zone, from, until);
+
+            for (int i = 0; i < nows.length; i++) {
+                InstantRange expected = compiled.resolveInstant(Instant.ofEpochMilli(nows[i]), zone);
+                String description = input + " in " + zoneId + " at " + Instant.ofEpochMilli(nows[i]);
+                assertThat(from[i]).as(description).isEqualTo(expected.fromEpochMilli());
+                assertThat(until[i]).as(description).isEqualTo(expected.untilEpochMilli());
+            }
+        }
+    }
+
+    @Test
+    void resolveEpochMillis_whenOutputIsTooShort_throws() {
+        CompiledExpression compiled = parser.compile("today").orElseThrow();
+
+        assertThatThrownBy(() -> compiled.resolveEpochMillis(new long[2], ZoneOffset.UTC, new long[1], new long[2]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Random instants between 2015 and 2021, which covers the daylight saving time transitions at midnight in Sao Paulo,
+     * plus a few that are exactly midnight.
+     */
+    private static long[] nows() {
+        Random random = new Random(42);
+        long[] nows = new long[2_000];
+        long start = Instant.parse("2015-01-01T00:00:00Z").toEpochMilli();
+        long end = Instant.parse("2021-01-01T00:00:00Z").toEpochMilli();
+        for (int i = 0; i < nows.length; i++) {
+            nows[i] = start + random.nextLong(end - start);
+        }
+        nows[0] = Instant.parse("2018-11-04T03:00:00Z").toEpochMilli();
+        nows[1] = Instant.parse("2026-02-14T00:00:00Z").toEpochMilli();
+        nows[2] = Instant.parse("2026-03-29T00:00:00+01:00").toEpochMilli();
+        return nows;
+    }
+
+    /**
+     * Every 7 minutes and 13 seconds from 3 hours before to 3 hours after the transitions of the zone in 2018, the last year Sao Paulo had them.
+     */
+    private static long[] aroundTransitions(ZoneId zone) {
+        ZoneOffsetTransition first = zone.getRules().nextTransition(Instant.parse("2018-01-01T00:00:00Z"));
+        ZoneOffsetTransition second = zone.getRules().nextTransition(first.getInstant());
+        return Stream.of(first, second)
+                .flatMapToLong(transition -> LongStream.iterate(transition.getInstant().toEpochMilli() - 3 * 3_600_000,
+                        now -> now < transition.getInstant().toEpochMilli() + 3 * 3_600_000, now -> now + 433_000))
+                .toArray();
+    }
+}
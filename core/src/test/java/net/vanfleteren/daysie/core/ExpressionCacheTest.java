@@ -0,0 +1,125 @@
+package net.vanfleteren.daysie.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExpressionCacheTest {
+
+    private static final Clock FIXED_CLOCK = Clock.fixed(Instant.parse("2026-02-14T10:00:00Z"), ZoneId.of("UTC"));
+
+    private final LanguageKeywords combined = LanguageKeywords.combine(List.of(LanguageKeywords.ENGLISH, LanguageKeywords.DUTCH));
+
+    @Test
+    void parse_sameNormalizedInputTwice_hitsCache() {
+        DateValueParser parser = new DateValueParser(combined, FIXED_CLOCK).withCache(10);
+
+        DateValue first = parser.parse("Last  Week").orElseThrow();
+        DateValue second = parser.parse("last week").orElseThrow();
+
+        assertThat(second).isEqualTo(first);
+        assertThat(parser.cacheStats()).isEqualTo(new ParseCacheStats(1, 1, 0, 1));
+    }
+
+    @Test
+    void parse_cachedRelativeExpression_isResolvedAgainstCurrentClock() {
+        DateValueParser parser = new DateValueParser(combined, FIXED_CLOCK).withCache(10);
+        DateValueParser tomorrow = parser.withClock(Clock.fixed(Instant.parse("2026-02-15T10:00:00Z"), ZoneId.of("UTC")));
+
+        assertThat(parser.parse("today").orElseThrow().toString()).isEqualTo("[2026-02-14T00:00,2026-02-15T00:00)");
+        assertThat(tomorrow.parse("today").orElseThrow().toString()).isEqualTo("[2026-02-15T00:00,2026-02-16T00:00)");
+        assertThat(parser.cacheStats().hits()).isEqualTo(1);
+    }
+
+    @Test
+    void parse_moreDistinctInputsThanMaximumSize_evictsLeastRecentlyUsed() {
+        DateValueParser parser = new DateValueParser(combined, FIXED_CLOCK).withCache(2);
+
+        parser.parse("today");
+        parser.parse("yesterday");
+        parser.parse("today");
+        parser.parse("tomorrow");
+        parser.parse("today");
+        parser.parse("yesterday");
+
+        assertThat(parser.cacheStats()).isEqualTo(new ParseCacheStats(2, 4, 2, 2));
+    }
+
+    @Test
+    void parse_invalidInput_isNotCached() {
+        DateValueParser parser = new DateValueParser(combined, FIXED_CLOCK).withCache(10);
+
+        assertThat(parser.parse("last blue moon")).isEmpty();
+        assertThat(parser.parse("last blue moon")).isEmpty();
+
+        assertThat(parser.cacheStats()).isEqualTo(new ParseCacheStats(0, 2, 0, 0));
+    }
+
+    @Test
+    void tryCompile_whenGivenACharSequence_usesTheCache() {
+        DateValueParser parser = new DateValueParser(combined, FIXED_CLOCK).withCache(10);
+
+        parser.compile("last 3 days");
+        parser.tryCompile(new StringBuilder("Last 3 Days"));
+
+        assertThat(parser.cacheStats().hits()).isEqualTo(1);
+    }
+
+    @Test
+    void parse_whenManyThreadsShareTheCache_staysWithinTheMaximumSize() throws Exception {
+        DateValueParser parser = new DateValueParser(combined, FIXED_CLOCK).withCache(16);
+        List<String> terms = IntStream.range(1, 65).mapToObj(i -> "last " + i + " days").toList();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<Boolean>> results = IntStream.range(0, 8)
+                    .mapToObj(thread -> executor.submit(() -> {
+                        boolean parsed = true;
+                        for (int i = 0; i < 2_000; i++) {
+                            // mostly the same few terms, with a long tail that keeps evicting
+                            String term = terms.get(i % 5 == 0 ? (i * 7 + thread) % terms.size() : i % 4);
+                            parsed &= parser.parse(term).isPresent();
+                        }
+                        return parsed;
+                    }))
+                    .toList();
+            for (Future<Boolean> result : results) {
+                assertThat(result.get()).isTrue();
+            }
+        }
+
+        ParseCacheStats stats = parser.cacheStats();
+        assertThat(stats.size()).isLessThanOrEqualTo(16);
+        assertThat(stats.hits() + stats.misses()).isEqualTo(8 * 2_000);
+        assertThat(parser.compile("last 1 days")).isPresent();
+    }
+
+    @ParameterizedTest(name = "\"{0}\" parses like its normalized form \"{1}\"")
+    @CsvSource({
+            "'day  before yesterday', 'day before yesterday'",
+            "'2026-w07',              '2026-W07'",
+            "'TOT EN  MET 2026-01-01', 'tot en met 2026-01-01'",
+    })
+    void parse_inputDifferingOnlyInCaseOrWhitespace_returnsSameResult(String input, String normalized) {
+        DateValueParser parser = new DateValueParser(combined, FIXED_CLOCK);
+        assertThat(ExpressionCache.normalize(input)).isEqualTo(ExpressionCache.normalize(normalized));
+        assertThat(parser.parse(input)).isPresent().isEqualTo(parser.parse(normalized));
+    }
+
+    @Test
+    void withCache_whenGivenZeroSize_throwsException() {
+        DateValueParser parser = new DateValueParser(combined, FIXED_CLOCK);
+        assertThatThrownBy(() -> parser.withCache(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
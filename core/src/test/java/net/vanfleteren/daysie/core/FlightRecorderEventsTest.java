@@ -0,0 +1,112 @@
+package net.vanfleteren.daysie.core;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightRecorderEventsTest {
+
+    private static final Clock FIXED_CLOCK = Clock.fixed(Instant.parse("2026-02-14T10:00:00Z"), ZoneId.of("UTC"));
+
+    private final DateValueParser parser = new DateValueParser(LanguageKeywords.ENGLISH, FIXED_CLOCK);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void tryCompile_whenParseEventIsEnabled_recordsInputProductionAndOutcome() throws IOException {
+        List<RecordedEvent> events = record(ParseEvent.NAME, () -> {
+            parser.parse("last 3 days");
+            parser.parse("last 3 potatoes");
+        });
+
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0).getString("input")).isEqualTo("last 3 days");
+        assertThat(events.get(0).getInt("inputLength")).isEqualTo(11);
+        assertThat(events.get(0).getBoolean("success")).isTrue();
+        assertThat(events.get(0).getString("production")).isEqualTo("LAST");
+        assertThat(events.get(0).getInt("errorOffset")).isEqualTo(-1);
+        assertThat(events.get(1).getBoolean("success")).isFalse();
+        assertThat(events.get(1).getInt("errorOffset")).isZero();
+    }
+
+    @Test
+    void tryCompile_whenServedFromTheCache_recordsTheProductionAndThatItWasCached() throws IOException {
+        DateValueParser cached = parser.withCache(10);
+
+        List<RecordedEvent> events = record(ParseEvent.NAME, () -> {
+            cached.parse("last 3 days");
+            cached.parse("last 3 days");
+        });
+
+        assertThat(events).extracting(event -> event.getString("production")).containsExactly("LAST", "LAST");
+        assertThat(events).extracting(event -> event.getBoolean("cached")).containsExactly(false, true);
+    }
+
+    @Test
+    void tryCompile_whenInputIsLong_cutsItOff() throws IOException {
+        String input = "today" + " ".repeat(1_000);
+
+        List<RecordedEvent> events = record(ParseEvent.NAME, () -> parser.parse(input));
+
+        assertThat(events.get(0).getString("input")).hasSize(256);
+        assertThat(events.get(0).getInt("inputLength")).isEqualTo(input.length());
+    }
+
+    @Test
+    void resolve_whenResolveEventIsEnabled_recordsTheExpressionAndCount() throws IOException {
+        CompiledExpression today = parser.compile("today").orElseThrow();
+
+        List<RecordedEvent> events = record(ResolveEvent.NAME, () -> {
+            today.resolve(LocalDateTime.of(2026, 2, 14, 10, 0));
+            today.resolveEpochMillis(new long[3], ZoneId.of("UTC"), new long[3], new long[3]);
+        });
+
+        assertThat(events).extracting(event -> event.getInt("count")).containsExactly(1, 3);
+        assertThat(events).allSatisfy(event -> assertThat(event.getString("production")).isEqualTo("RELATIVE_DATE"));
+        assertThat(events.get(0).getString("expression")).isEqualTo(today.toString());
+    }
+
+    @Test
+    void resolveEpochMillis_whenResolvingOneReferenceTimeAtATime_recordsOneEvent() throws IOException {
+        CompiledExpression monday = parser.compile("monday").orElseThrow();
+
+        List<RecordedEvent> events = record(ResolveEvent.NAME,
+                () -> monday.resolveEpochMillis(new long[5], ZoneId.of("Europe/Brussels"), new long[5], new long[5]));
+
+        assertThat(events).extracting(event -> event.getInt("count")).containsExactly(5);
+    }
+
+    @Test
+    void parse_whenNoRecordingEnablesTheEvents_recordsNothing() throws IOException {
+        List<RecordedEvent> events = record("jdk.ThreadSleep", () -> parser.parse("today"));
+
+        assertThat(events).isEmpty();
+    }
+
+    private List<RecordedEvent> record(String eventName, Runnable work) throws IOException {
+        Path file = directory.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(eventName).withoutThreshold();
+            recording.start();
+            work.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("net.vanfleteren.daysie"))
+                .toList();
+    }
+}
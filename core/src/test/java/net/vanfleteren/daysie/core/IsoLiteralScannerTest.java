@@ -0,0 +1,71 @@
+package net.vanfleteren.daysie.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IsoLiteralScannerTest {
+
+    private static final Clock FIXED_CLOCK = Clock.fixed(Instant.parse("2026-02-14T10:00:00Z"), ZoneId.of("UTC"));
+
+    private final LanguageKeywords combined = LanguageKeywords.combine(List.of(LanguageKeywords.ENGLISH, LanguageKeywords.DUTCH));
+    private final IsoLiteralScanner scanner = new IsoLiteralScanner(combined);
+    private final DateValueParser parser = new DateValueParser(combined, FIXED_CLOCK);
+
+    @ParameterizedTest(name = "scan \"{0}\" matches the grammar")
+    @CsvSource({
+            "'2026-02-03'",
+            "'2024-02-29'",
+            "'2026-02-03 12:34'",
+            "'2026-02-03T12:34:56'",
+            "'2026-02-03t12:34:56'",
+            "'2026-02-03   12:34:56'",
+            "'2026-02'",
+            "'2026-W07'",
+            "'2026-w7'",
+            "'2026-02-01 to 2026-02-10'",
+            "'2026-02-01 - 2026-02-10 12:00'",
+            "'2026-02-01 TOT 2026-03'",
+            "'2026-02-01 t/m 2026-W10'",
+            "'2026-02-01 tot en met 2026-02-10'",
+            "'  2026-02-01  to  2026-02-10  '",
+    })
+    void scan_whenGivenIsoLiteral_returnsSameValueAsGrammar(String input) {
+        Expression expression = scanner.scan(input.strip());
+        assertThat(expression).isNotNull();
+        LocalDateTime now = LocalDateTime.now(FIXED_CLOCK);
+        assertThat(expression.resolve(now).toPublic()).isEqualTo(parser.parser().parse(input.strip()));
+    }
+
+    @ParameterizedTest(name = "scan \"{0}\" declines")
+    @CsvSource({
+            "''",
+            "'last week'",
+            "'2026-02-30'",
+            "'2026-13'",
+            "'2026-02-03 25:00'",
+            "'2026-02-03 10:30 PM'",
+            "'2026-02-2026-03'",
+            "'2026-02-03foo'",
+            "'2026-02-03 to'",
+            "'2026-02-03 to next week'",
+            "'2026-02-03 2026-02-04'",
+    })
+    void scan_whenGivenOtherInput_returnsNull(String input) {
+        assertThat(scanner.scan(input)).isNull();
+    }
+
+    @Test
+    void parse_whenScannerDeclines_fallsBackToGrammar() {
+        assertThat(parser.parse("2026-02-03 10:30 PM").orElseThrow().toString())
+                .isEqualTo("[2026-02-03T22:30,2026-02-03T22:30]");
+    }
+}
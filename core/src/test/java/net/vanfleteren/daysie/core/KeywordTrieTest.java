@@ -0,0 +1,77 @@
+package net.vanfleteren.daysie.core;
+
+import org.jparsec.Parser;
+import org.jparsec.Parsers;
+import org.jparsec.Scanners;
+import org.jparsec.error.ParserException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeywordTrieTest {
+
+    private final KeywordTrie<String> trie = new KeywordTrie<>(Map.of(
+            "tot", "until",
+            "tot en met", "through",
+            "t/m", "through",
+            "To", "until"));
+
+    @ParameterizedTest(name = "match \"{0}\" returns length {1}")
+    @CsvSource({
+            "'tot 2026',           3",
+            "'TOT   EN met 2026',  12",
+            "'tot en 2026',        3",
+            "'t/m',                3",
+            "'today',              2",
+            "'x',                  -1",
+            "'',                   -1",
+    })
+    void match_whenGivenInput_returnsLongestKeywordLength(String input, int expectedLength) {
+        assertThat(trie.match(input, 0, input.length())).isEqualTo(expectedLength);
+    }
+
+    @ParameterizedTest(name = "matchWord \"{0}\" returns length {1}")
+    @CsvSource({
+            "'tot 2026',           3",
+            "'tot en mettertijd',  3",
+            "'today',              -1",
+            "'t/m, 2026',          3",
+            "'totaal',             -1",
+    })
+    void matchWord_whenGivenInput_returnsLongestKeywordEndingOnWordBoundary(String input, int expectedLength) {
+        assertThat(trie.matchWord(input, 0, input.length())).isEqualTo(expectedLength);
+    }
+
+    @Test
+    void categoryOf_whenGivenMatchedKeyword_returnsItsCategory() {
+        assertThat(trie.categoryOf("Tot\ten met")).isEqualTo("through");
+        assertThat(trie.categoryOf("to")).isEqualTo("until");
+        assertThat(trie.categoryOf("tot en")).isNull();
+    }
+
+    @Test
+    void completions_whenGivenPrefix_returnsCategoriesOfAllKeywordsStartingWithIt() {
+        assertThat(trie.completions("TOT  e")).containsExactly("through");
+        assertThat(trie.completions("to")).containsExactlyInAnyOrder("until", "until", "through");
+        assertThat(trie.completions("x")).isEmpty();
+    }
+
+    @Test
+    void toParser_whenKeywordsShareAPrefix_prefersTheLongestMatch() {
+        assertThat(trie.toParser("keyword").parse("tot en met")).isEqualTo("through");
+    }
+
+    @Test
+    void toParser_whenUsedTwiceInASequence_returnsTheCategoryOfEachMatch() {
+        Parser<String> keyword = trie.toParser("keyword");
+        Parser<String> twoKeywords = Parsers.sequence(keyword, Scanners.WHITESPACES, keyword, (first, ignored, second) -> first + "," + second);
+
+        assertThat(twoKeywords.parse("TOT\tEN met  to")).isEqualTo("through,until");
+        assertThatThrownBy(() -> keyword.parse("x")).isInstanceOf(ParserException.class);
+    }
+}
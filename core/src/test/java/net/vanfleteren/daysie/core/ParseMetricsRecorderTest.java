@@ -0,0 +1,118 @@
+package net.vanfleteren.daysie.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ParseMetricsRecorderTest {
+
+    private static final Clock FIXED_CLOCK = Clock.fixed(Instant.parse("2026-02-14T10:00:00Z"), ZoneId.of("UTC"));
+
+    private final ParseMetricsRecorder recorder = new ParseMetricsRecorder();
+    private final DateValueParser parser = new DateValueParser(LanguageKeywords.ENGLISH, FIXED_CLOCK).withMetrics(recorder);
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvSource({
+            "2026-02-14, ISO_LITERAL",
+            "2026-02-14 to today, ABSOLUTE_RANGE",
+            "2026-02-14 to 2026-02-20, ISO_LITERAL",
+            "before yesterday, UNTIL",
+            "since last week, FROM",
+            "start of this month, START_OF",
+            "end of last year, END_OF",
+            "first day of next month, FIRST_DAY_OF",
+            "last day of this month, LAST_DAY_OF",
+            "between yesterday and today, BETWEEN",
+            "2 days ago at 10:00, RELATIVE_POINT_WITH_TIME",
+            "5 minutes ago, RELATIVE_POINT",
+            "today, RELATIVE_DATE",
+            "last 3 days, LAST",
+            "next 2 weeks, NEXT",
+            "this month, THIS",
+            "now, ABSOLUTE_DATE_TIME",
+            "yesterday at 10:00, ABSOLUTE_DATE_TIME",
+    })
+    void withMetrics_whenParsing_countsTheProductionThatMatched(String input, GrammarProduction production) {
+        assertThat(parser.parse(input)).isPresent();
+
+        assertThat(recorder.hits()).isEqualTo(Map.of(production, 1L));
+        assertThat(recorder.successes()).isOne();
+        assertThat(recorder.failures()).isZero();
+    }
+
+    @Test
+    void withMetrics_whenInputIsInvalid_reportsTheErrorOffset() {
+        List<String> failures = new ArrayList<>();
+        DateValueParser listening = parser.withMetrics(new ParseMetricsListener() {
+            @Override
+            public void compiled(CharSequence input, GrammarProduction production, boolean cached, long nanos) {
+            }
+
+            @Override
+            public void failed(CharSequence input, int errorOffset, long nanos) {
+                failures.add(input + "@" + errorOffset);
+            }
+        });
+
+        assertThat(listening.tryParse("last 3 potatoes")).isInstanceOf(ParseResult.Failure.class);
+
+        assertThat(failures).containsExactly("last 3 potatoes@0");
+    }
+
+    @Test
+    void withMetrics_whenServedFromTheCache_countsACacheHitUnderItsProduction() {
+        DateValueParser cached = parser.withCache(10);
+
+        cached.parse("last 3 days");
+        cached.parse("Last 3  days");
+        cached.parse("today");
+
+        assertThat(recorder.hits()).isEqualTo(Map.of(GrammarProduction.LAST, 2L, GrammarProduction.RELATIVE_DATE, 1L));
+        assertThat(recorder.cacheHits()).isOne();
+    }
+
+    @Test
+    void latencyAtPercentile_whenGivenManyLatencies_isWithinTheBucketPrecision() {
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            recorder.compiled("today", GrammarProduction.RELATIVE_DATE, false, nanos);
+        }
+        recorder.failed("junk", 0, 5_000_000);
+
+        assertThat((double) recorder.latencyAtPercentile(50)).isCloseTo(50_000, within(50_000 / 16.0));
+        assertThat((double) recorder.latencyAtPercentile(99)).isCloseTo(99_000, within(99_000 / 16.0));
+        assertThat(recorder.latencyAtPercentile(100)).isEqualTo(recorder.maxLatency()).isEqualTo(5_000_000);
+        assertThat(recorder.successes()).isEqualTo(100_000);
+        assertThat(recorder.failures()).isOne();
+    }
+
+    @Test
+    void latencyAtPercentile_whenNothingWasRecorded_isZero() {
+        assertThat(recorder.latencyAtPercentile(99)).isZero();
+    }
+
+    @Test
+    void bucket_whenGivenAnyValue_coversItWithinASixteenth() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong() >>> (1 + random.nextInt(63));
+            int bucket = ParseMetricsRecorder.bucket(value);
+            long highest = ParseMetricsRecorder.highestInBucket(bucket);
+
+            assertThat(highest).as("value %d", value).isGreaterThanOrEqualTo(value);
+            assertThat(highest - value).as("value %d", value).isLessThanOrEqualTo(value / 16);
+            assertThat(bucket).isLessThan(960);
+        }
+        assertThat(ParseMetricsRecorder.highestInBucket(ParseMetricsRecorder.bucket(Long.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,57 @@
+package net.vanfleteren.daysie.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParseResultTest {
+
+    private static final Clock FIXED_CLOCK = Clock.fixed(Instant.parse("2026-02-14T10:00:00Z"), ZoneId.of("UTC"));
+
+    private final DateValueParser parser = new DateValueParser(
+            LanguageKeywords.combine(List.of(LanguageKeywords.ENGLISH, LanguageKeywords.DUTCH)), FIXED_CLOCK);
+
+    @Test
+    void tryParse_validInput_returnsSuccess() {
+        ParseResult<DateValue> result = parser.tryParse("last 3 days");
+        assertThat(result).isInstanceOf(ParseResult.Success.class);
+        assertThat(result.toOptional().orElseThrow().toString()).isEqualTo("[2026-02-11T00:00,2026-02-14T10:00)");
+    }
+
+    @ParameterizedTest(name = "tryParse \"{0}\" fails at offset {1}")
+    @CsvSource({
+            "'',                       0",
+            "'last blue moon',         0",
+            "'today xyz',              6",
+            "'2026-02-15 foo',         11",
+            "'2026-02-30',             0",
+            "'2026-13',                0",
+            "'25:00',                  0",
+            "'last 99999999999 days',  0",
+    })
+    void tryParse_whenGivenInvalidInput_returnsFailureWithOffset(String input, int expectedOffset) {
+        assertThat(parser.tryParse(input)).isEqualTo(new ParseResult.Failure<DateValue>(expectedOffset));
+        assertThat(parser.parse(input)).isEmpty();
+    }
+
+    @ParameterizedTest(name = "tryParse \"{0}\" is out of range")
+    @CsvSource({"next 999999999 years", "last 2000000000 years"})
+    void tryParse_whenResultIsOutOfRange_returnsFailureAtTheEnd(String input) {
+        assertThat(parser.tryCompile(input)).isInstanceOf(ParseResult.Success.class);
+
+        assertThat(parser.tryParse(input)).isEqualTo(new ParseResult.Failure<DateValue>(input.length()));
+        assertThat(parser.parseInstant(input, ZoneId.of("Europe/Brussels"))).isEmpty();
+    }
+
+    @Test
+    void tryCompile_whenGivenInvalidInput_returnsFailure() {
+        assertThat(parser.tryCompile("since the dawn of time")).isInstanceOf(ParseResult.Failure.class);
+    }
+}
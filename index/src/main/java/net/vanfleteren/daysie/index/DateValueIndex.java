@@ -0,0 +1,333 @@
+package net.vanfleteren.daysie.index;
+
+import net.vanfleteren.daysie.core.DateValue;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Finds the items whose resolved {@link DateValue} contains a timestamp, eg the alerts that match an incoming event,
+ * in O(log n + k) for n items of which k match, instead of testing every item.
+ * <p>
+ * All bounds are sorted once, and every value becomes a half-open range of positions in that order:
+ * a timestamp that equals a bound gets a position of its own and one between two bounds shares the position of that gap,
+ * so inclusive and exclusive bounds cost nothing extra when matching. {@link LocalDateTime#MIN} and {@link LocalDateTime#MAX}
+ * are open ends, like everywhere else in Daysie. The ranges are stored in a centered interval tree in flat int arrays:
+ * each node keeps the ranges that contain its center, sorted by start and by end, so a query walks one path from the root
+ * and only reads past the ranges it reports.
+ * <p>
+ * Immutable and thread-safe. Relative expressions like "this week" change as time passes, so indexes are built in bulk,
+ * eg once a day with {@link #rebuild(Function)}, and swapped in as a whole.
+ *
+ * @param <T> the indexed items, eg alerts
+ */
+public final class DateValueIndex<T> {
+
+    private static final int OPEN_END = Integer.MAX_VALUE;
+    private static final int NO_NODE = -1;
+    /**
+     * Local date-times whose epoch seconds are in this range, roughly the years 1685 to 2255, fit in a long of nanos.
+     */
+    private static final long MAX_NANOS_SECONDS = 9_000_000_000L;
+
+    private final List<T> items;
+    // the sorted distinct bounds, as nanos since 1970-01-01T00:00 when they all fit, which sort and search much faster
+    private final long[] boundNanos;
+    private final LocalDateTime[] bounds;
+    private final Object[] values;
+    private final int[] starts;
+    private final int[] ends;
+
+    private final int[] centers;
+    private final int[] lefts;
+    private final int[] rights;
+    private final int[] nodeOffsets;
+    private final int[] nodeSizes;
+    private final int[] byStart;
+    private final int[] byEnd;
+    private final int root;
+    // only used while building
+    private int nodes;
+    private int placed;
+
+    private DateValueIndex(List<T> items, Function<? super T, ? extends DateValue> toValue) {
+        this.items = List.copyOf(items);
+        List<T> kept = new ArrayList<>(this.items.size());
+        List<DateValue.AbsoluteRange> ranges = new ArrayList<>(this.items.size());
+        List<LocalDateTime> allBounds = new ArrayList<>(2 * this.items.size());
+        for (T item : this.items) {
+            DateValue value = toValue.apply(item);
+            if (value == null) {
+                continue;
+            }
+            DateValue.AbsoluteRange range = switch (value) {
+                case DateValue.AbsoluteRange ar -> ar;
+                case DateValue.AbsoluteDate ad -> new DateValue.AbsoluteRange(ad.date(), ad.date(), true, true);
+            };
+            kept.add(item);
+            ranges.add(range);
+            allBounds.add(range.from());
+            allBounds.add(range.until());
+        }
+        List<LocalDateTime> finite = allBounds.stream()
+                .filter(bound -> !bound.equals(LocalDateTime.MIN) && !bound.equals(LocalDateTime.MAX))
+                .toList();
+        if (finite.stream().allMatch(DateValueIndex::fitsInNanos)) {
+            this.boundNanos = distinct(finite.stream().mapToLong(DateValueIndex::toNanos).sorted().toArray());
+            this.bounds = null;
+        } else {
+            LocalDateTime[] sorted = finite.toArray(LocalDateTime[]::new);
+            Arrays.sort(sorted);
+            this.boundNanos = null;
+            this.bounds = Arrays.stream(sorted).distinct().toArray(LocalDateTime[]::new);
+        }
+
+        int[] rangeStarts = new int[ranges.size()];
+        int[] rangeEnds = new int[ranges.size()];
+        Object[] rangeValues = new Object[ranges.size()];
+        int count = 0;
+        for (int i = 0; i < ranges.size(); i++) {
+            int start = start(ranges.get(i));
+            int end = end(ranges.get(i));
+            // eg (2026-01-01,2026-01-01) contains nothing
+            if (start < end) {
+                rangeStarts[count] = start;
+                rangeEnds[count] = end;
+                rangeValues[count] = kept.get(i);
+                count++;
+            }
+        }
+        this.starts = Arrays.copyOf(rangeStarts, count);
+        this.ends = Arrays.copyOf(rangeEnds, count);
+        this.values = Arrays.copyOf(rangeValues, count);
+
+        this.centers = new int[count];
+        this.lefts = new int[count];
+        this.rights = new int[count];
+        this.nodeOffsets = new int[count];
+        this.nodeSizes = new int[count];
+        this.byStart = new int[count];
+        this.byEnd = new int[count];
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i;
+        }
+        this.root = build(ids);
+    }
+
+    /**
+     * @param toValue resolves an item, eg by resolving its expression against the current time.
+     *                Items it maps to null are left out.
+     */
+    public static <T> DateValueIndex<T> of(List<T> items, Function<? super T, ? extends DateValue> toValue) {
+        return new DateValueIndex<>(items, toValue);
+    }
+
+    /**
+     * @return a new index of the same items, resolved again, eg against the new day
+     */
+    public DateValueIndex<T> rebuild(Function<? super T, ? extends DateValue> toValue) {
+        return new DateValueIndex<>(items, toValue);
+    }
+
+    /**
+     * @return the number of indexed items, without those that were left out or contain no timestamp at all
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * @return the items whose value contains the timestamp, in no particular order
+     */
+    public List<T> matching(LocalDateTime timestamp) {
+        List<T> matches = new ArrayList<>();
+        forEachMatching(timestamp, matches::add);
+        return matches;
+    }
+
+    /**
+     * Calls the action for every item whose value contains the timestamp, in no particular order, without collecting them.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachMatching(LocalDateTime timestamp, Consumer<? super T> action) {
+        int position = position(timestamp);
+        int node = root;
+        while (node != NO_NODE) {
+            int offset = nodeOffsets[node];
+            int end = offset + nodeSizes[node];
+            // every range in the node contains the center, so only the bound on the side of the timestamp matters
+            if (position < centers[node]) {
+                for (int i = offset; i < end && starts[byStart[i]] <= position; i++) {
+                    action.accept((T) values[byStart[i]]);
+                }
+                node = lefts[node];
+            } else {
+                for (int i = offset; i < end && ends[byEnd[i]] > position; i++) {
+                    action.accept((T) values[byEnd[i]]);
+                }
+                node = rights[node];
+            }
+        }
+    }
+
+    /**
+     * @return 2i + 1 for a timestamp equal to bound i, 2i for one between bound i - 1 and bound i
+     */
+    private int position(LocalDateTime timestamp) {
+        int index;
+        if (boundNanos == null) {
+            index = Arrays.binarySearch(bounds, timestamp);
+        } else if (fitsInNanos(timestamp)) {
+            index = Arrays.binarySearch(boundNanos, toNanos(timestamp));
+        } else {
+            // before or after every bound
+            index = timestamp.getYear() < 1970 ? -1 : -boundNanos.length - 1;
+        }
+        return index >= 0 ? 2 * index + 1 : 2 * (-index - 1);
+    }
+
+    private static boolean fitsInNanos(LocalDateTime dateTime) {
+        long seconds = dateTime.toEpochSecond(ZoneOffset.UTC);
+        return seconds > -MAX_NANOS_SECONDS && seconds < MAX_NANOS_SECONDS;
+    }
+
+    private static long toNanos(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateTime.getNano();
+    }
+
+    private static long[] distinct(long[] sorted) {
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[count++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, count);
+    }
+
+    private int start(DateValue.AbsoluteRange range) {
+        if (range.from().equals(LocalDateTime.MIN)) {
+            return 0;
+        }
+        int position = position(range.from());
+        return range.fromInclusive() ? position : position + 1;
+    }
+
+    private int end(DateValue.AbsoluteRange range) {
+        if (range.until().equals(LocalDateTime.MAX)) {
+            return OPEN_END;
+        }
+        int position = position(range.until());
+        return range.untilInclusive() ? position + 1 : position;
+    }
+
+    /**
+     * Splits the ranges around the median of their first and last positions: those that end before it go left,
+     * those that start after it go right, and the node keeps the ones that contain it.
+     * Each side gets at most half of the positions, so the tree is O(log n) deep.
+     * @return the node for the ranges, or {@link #NO_NODE} if there are none
+     */
+    private int build(int[] ids) {
+        if (ids.length == 0) {
+            return NO_NODE;
+        }
+        int[] positions = new int[2 * ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            positions[2 * i] = starts[ids[i]];
+            positions[2 * i + 1] = ends[ids[i]] - 1;
+        }
+        int center = select(positions, ids.length);
+
+        int leftCount = 0;
+        int rightCount = 0;
+        for (int id : ids) {
+            if (ends[id] <= center) {
+                leftCount++;
+            } else if (starts[id] > center) {
+                rightCount++;
+            }
+        }
+        int[] left = new int[leftCount];
+        int[] right = new int[rightCount];
+        int[] containing = new int[ids.length - leftCount - rightCount];
+        leftCount = 0;
+        rightCount = 0;
+        int containingCount = 0;
+        for (int id : ids) {
+            if (ends[id] <= center) {
+                left[leftCount++] = id;
+            } else if (starts[id] > center) {
+                right[rightCount++] = id;
+            } else {
+                containing[containingCount++] = id;
+            }
+        }
+
+        int node = nodes++;
+        centers[node] = center;
+        nodeOffsets[node] = placed;
+        nodeSizes[node] = containing.length;
+        // sort ids by start ascending and by end descending, keys in the high half and ids in the low half of a long
+        long[] keys = new long[containing.length];
+        for (int i = 0; i < containing.length; i++) {
+            keys[i] = (long) starts[containing[i]] << 32 | containing[i];
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < keys.length; i++) {
+            byStart[placed + i] = (int) keys[i];
+        }
+        for (int i = 0; i < containing.length; i++) {
+            keys[i] = (long) (OPEN_END - ends[containing[i]]) << 32 | containing[i];
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < keys.length; i++) {
+            byEnd[placed + i] = (int) keys[i];
+        }
+        placed += containing.length;
+
+        lefts[node] = build(left);
+        rights[node] = build(right);
+        return node;
+    }
+
+    /**
+     * Quickselect, which reorders the values.
+     * @return the value that would be at index k if the values were sorted
+     */
+    private static int select(int[] values, int k) {
+        int low = 0;
+        int high = values.length - 1;
+        while (low < high) {
+            int pivot = values[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = values[i];
+                    values[i++] = values[j];
+                    values[j--] = swap;
+                }
+            }
+            if (k <= j) {
+                high = j;
+            } else if (k >= i) {
+                low = i;
+            } else {
+                return values[k];
+            }
+        }
+        return values[k];
+    }
+}
@@ -0,0 +1,139 @@
+package net.vanfleteren.daysie.index;
+
+import net.vanfleteren.daysie.core.DateValue;
+import net.vanfleteren.daysie.core.DateValueParser;
+import net.vanfleteren.daysie.core.LanguageKeywords;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DateValueIndexTest {
+
+    private static final Clock FIXED_CLOCK = Clock.fixed(Instant.parse("2026-02-14T10:00:00Z"), ZoneId.of("UTC"));
+    private static final LocalDateTime JAN_1 = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final LocalDateTime FEB_1 = LocalDateTime.of(2026, 2, 1, 0, 0);
+
+    private final DateValueParser parser = new DateValueParser(LanguageKeywords.ENGLISH, FIXED_CLOCK);
+
+    @Test
+    void matching_whenTimestampIsOnABound_honorsInclusiveAndExclusiveBounds() {
+        Map<String, DateValue> values = Map.of(
+                "closed", new DateValue.AbsoluteRange(JAN_1, FEB_1, true, true),
+                "half-open", new DateValue.AbsoluteRange(JAN_1, FEB_1, true, false),
+                "open", new DateValue.AbsoluteRange(JAN_1, FEB_1, false, false));
+        DateValueIndex<String> index = DateValueIndex.of(List.copyOf(values.keySet()), values::get);
+
+        assertThat(index.matching(JAN_1)).containsExactlyInAnyOrder("closed", "half-open");
+        assertThat(index.matching(JAN_1.plusNanos(1))).containsExactlyInAnyOrder("closed", "half-open", "open");
+        assertThat(index.matching(FEB_1)).containsExactly("closed");
+        assertThat(index.matching(FEB_1.plusNanos(1))).isEmpty();
+        assertThat(index.matching(JAN_1.minusNanos(1))).isEmpty();
+    }
+
+    @Test
+    void matching_whenRangesHaveNoStartOrEnd_treatsThemAsOpen() {
+        Map<String, DateValue> values = Map.of(
+                "before", parser.parse("before 2026-01-01").orElseThrow(),
+                "since", parser.parse("since 2026-02-01").orElseThrow(),
+                "always", new DateValue.AbsoluteRange(LocalDateTime.MIN, LocalDateTime.MAX, false, false));
+        DateValueIndex<String> index = DateValueIndex.of(List.copyOf(values.keySet()), values::get);
+
+        assertThat(index.matching(LocalDateTime.of(1900, 1, 1, 0, 0))).containsExactlyInAnyOrder("before", "always");
+        assertThat(index.matching(JAN_1)).containsExactly("always");
+        assertThat(index.matching(LocalDateTime.of(3000, 1, 1, 0, 0))).containsExactlyInAnyOrder("since", "always");
+        assertThat(index.matching(LocalDateTime.MIN)).containsExactlyInAnyOrder("before", "always");
+    }
+
+    @Test
+    void matching_whenValueIsADate_matchesOnlyThatDateTime() {
+        DateValueIndex<String> index = DateValueIndex.of(List.of("now"), item -> parser.parse("now").orElseThrow());
+
+        assertThat(index.matching(LocalDateTime.of(2026, 2, 14, 10, 0))).containsExactly("now");
+        assertThat(index.matching(LocalDateTime.of(2026, 2, 14, 10, 1))).isEmpty();
+    }
+
+    @Test
+    void of_whenValueIsNullOrEmpty_leavesTheItemOut() {
+        Map<String, DateValue> values = Map.of("empty", new DateValue.AbsoluteRange(JAN_1, JAN_1, false, false));
+
+        DateValueIndex<String> index = DateValueIndex.of(List.of("empty", "unparsable"), values::get);
+
+        assertThat(index.size()).isZero();
+        assertThat(index.matching(JAN_1)).isEmpty();
+    }
+
+    @Test
+    void rebuild_whenResolvedAgainstAnotherDay_matchesTheNewRanges() {
+        List<String> alerts = List.of("today", "this week", "last month");
+        DateValueIndex<String> index = DateValueIndex.of(alerts, alert -> parser.parse(alert, LocalDateTime.of(2026, 2, 14, 10, 0)).orElseThrow());
+
+        DateValueIndex<String> nextMonth = index.rebuild(alert -> parser.parse(alert, LocalDateTime.of(2026, 3, 2, 10, 0)).orElseThrow());
+
+        assertThat(index.matching(LocalDateTime.of(2026, 2, 14, 12, 0))).containsExactlyInAnyOrder("today", "this week");
+        assertThat(nextMonth.matching(LocalDateTime.of(2026, 2, 14, 12, 0))).containsExactly("last month");
+        assertThat(nextMonth.matching(LocalDateTime.of(2026, 3, 2, 12, 0))).containsExactlyInAnyOrder("today", "this week");
+    }
+
+    @ParameterizedTest(name = "with bounds in year 3000: {0}")
+    @ValueSource(booleans = {false, true})
+    void matching_whenGivenManyRandomRanges_findsTheSameItemsAsTestingEachOne(boolean farBounds) {
+        Random random = new Random(42);
+        List<DateValue> values = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            values.add(randomValue(random));
+        }
+        if (farBounds) {
+            values.add(new DateValue.AbsoluteRange(JAN_1, LocalDateTime.of(3000, 1, 1, 0, 0), true, false));
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < values.size(); i++) {
+            ids.add(i);
+        }
+        DateValueIndex<Integer> index = DateValueIndex.of(ids, values::get);
+        List<Predicate<LocalDateTime>> predicates = values.stream().map(DateValue::toPredicate).toList();
+
+        for (int query = 0; query < 500; query++) {
+            LocalDateTime timestamp = query % 2 == 0 ? randomTime(random) : bound(values.get(random.nextInt(values.size())));
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < values.size(); i++) {
+                if (predicates.get(i).test(timestamp)) {
+                    expected.add(i);
+                }
+            }
+
+            assertThat(index.matching(timestamp)).as(timestamp.toString()).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    private static DateValue randomValue(Random random) {
+        if (random.nextInt(10) == 0) {
+            return new DateValue.AbsoluteDate(randomTime(random));
+        }
+        LocalDateTime a = random.nextInt(20) == 0 ? LocalDateTime.MIN : randomTime(random);
+        LocalDateTime b = random.nextInt(20) == 0 ? LocalDateTime.MAX : randomTime(random);
+        return new DateValue.AbsoluteRange(a.isBefore(b) ? a : b, a.isBefore(b) ? b : a, random.nextBoolean(), random.nextBoolean());
+    }
+
+    private static LocalDateTime randomTime(Random random) {
+        return JAN_1.plusHours(random.nextInt(24 * 60));
+    }
+
+    private static LocalDateTime bound(DateValue value) {
+        return switch (value) {
+            case DateValue.AbsoluteRange ar -> ar.from().equals(LocalDateTime.MIN) ? ar.until() : ar.from();
+            case DateValue.AbsoluteDate ad -> ad.date();
+        };
+    }
+}
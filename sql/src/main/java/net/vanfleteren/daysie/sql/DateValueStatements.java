@@ -0,0 +1,97 @@
+package net.vanfleteren.daysie.sql;
+
+import net.vanfleteren.daysie.core.DateValue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Prepares one query, filtered on a timestamp column, for many {@link DateValue}s.
+ * <p>
+ * The query contains {@link #RANGE} where the predicate goes, eg {@code SELECT id FROM events WHERE {range}},
+ * or several times, eg in each branch of a UNION, to filter all of them on the same value.
+ * Every value is rendered with {@link SqlRangePredicate#of(String, DateValue)}, and the statement for its shape
+ * is prepared on first use and reused after that, so later values only bind parameters.
+ * <p>
+ * Like the connection, this is not thread-safe. Closing it closes the prepared statements, not the connection.
+ */
+public final class DateValueStatements implements AutoCloseable {
+
+    /**
+     * The placeholder for the predicate in the query.
+     */
+    public static final String RANGE = "{range}";
+
+    private final Connection connection;
+    private final String query;
+    private final String column;
+    private final int ranges;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+    /**
+     * @param query  the query, with {@link #RANGE} wherever the predicate goes and no other parameters
+     * @param column the timestamp column, copied into the query as is
+     */
+    public DateValueStatements(Connection connection, String query, String column) {
+        int ranges = 0;
+        for (int index = query.indexOf(RANGE); index >= 0; index = query.indexOf(RANGE, index + RANGE.length())) {
+            ranges++;
+        }
+        if (ranges == 0) {
+            throw new IllegalArgumentException("query must contain " + RANGE);
+        }
+        this.connection = connection;
+        this.query = query;
+        this.column = column;
+        this.ranges = ranges;
+    }
+
+    /**
+     * The statement belongs to this object: don't close it, and don't use it after the next call for the same shape,
+     * which binds new parameters to it.
+     * @return the statement for the shape of the value, with its parameters bound and ready to execute
+     */
+    public PreparedStatement prepare(DateValue value) throws SQLException {
+        SqlRangePredicate predicate = SqlRangePredicate.of(column, value);
+        PreparedStatement statement = statements.get(predicate.sql());
+        if (statement == null) {
+            statement = connection.prepareStatement(query.replace(RANGE, predicate.sql()));
+            statements.put(predicate.sql(), statement);
+        }
+        int index = 1;
+        for (int range = 0; range < ranges; range++) {
+            index = predicate.bind(statement, index);
+        }
+        return statement;
+    }
+
+    /**
+     * @return the number of statements prepared so far, one per shape that was used
+     */
+    public int preparedCount() {
+        return statements.size();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        SQLException failure = null;
+        for (PreparedStatement statement : statements.values()) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        statements.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package net.vanfleteren.daysie.sql;
+
+import net.vanfleteren.daysie.core.DateValue;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A {@link DateValue} as a SQL predicate on a timestamp column, with a {@code ?} for every bound that is not open,
+ * eg {@code ts >= ? AND ts < ?} for "this week" and {@code ts >= ?} for "since monday".
+ * <p>
+ * Open ends ({@link LocalDateTime#MIN} and {@link LocalDateTime#MAX}) are left out instead of becoming a far away literal,
+ * so the planner sees a one-sided range it can estimate, and a value that contains no timestamp at all becomes {@code 1 = 0}.
+ * Rows where the column is null never match, like with any comparison in SQL.
+ * <p>
+ * There are only a handful of different {@link #sql()} strings per column, so statements can be prepared once per shape
+ * and reused with new {@link #parameters()}, see {@link DateValueStatements}.
+ *
+ * @param sql        the predicate, eg {@code ts >= ? AND ts < ?}
+ * @param parameters the values for the {@code ?}s, in order
+ */
+public record SqlRangePredicate(String sql, List<LocalDateTime> parameters) {
+
+    public SqlRangePredicate {
+        parameters = List.copyOf(parameters);
+    }
+
+    /**
+     * @param column the timestamp column, eg {@code e.created_at}. It is copied into the SQL as is, so never pass user input.
+     */
+    public static SqlRangePredicate of(String column, DateValue value) {
+        if (column.isBlank()) {
+            throw new IllegalArgumentException("column must not be blank");
+        }
+        return switch (value) {
+            case DateValue.AbsoluteDate ad -> new SqlRangePredicate(column + " = ?", List.of(ad.date()));
+            case DateValue.AbsoluteRange ar -> of(column, ar);
+        };
+    }
+
+    private static SqlRangePredicate of(String column, DateValue.AbsoluteRange range) {
+        boolean openStart = range.from().equals(LocalDateTime.MIN);
+        boolean openEnd = range.until().equals(LocalDateTime.MAX);
+        String lower = column + (range.fromInclusive() ? " >= ?" : " > ?");
+        String upper = column + (range.untilInclusive() ? " <= ?" : " < ?");
+
+        if (openStart && openEnd) {
+            return new SqlRangePredicate(column + " IS NOT NULL", List.of());
+        }
+        if (openEnd) {
+            return new SqlRangePredicate(lower, List.of(range.from()));
+        }
+        if (openStart) {
+            return new SqlRangePredicate(upper, List.of(range.until()));
+        }
+        int order = range.from().compareTo(range.until());
+        if (order > 0 || order == 0 && !(range.fromInclusive() && range.untilInclusive())) {
+            return new SqlRangePredicate("1 = 0", List.of());
+        }
+        if (order == 0) {
+            return new SqlRangePredicate(column + " = ?", List.of(range.from()));
+        }
+        return new SqlRangePredicate(lower + " AND " + upper, List.of(range.from(), range.until()));
+    }
+
+    /**
+     * Binds the parameters to a statement, starting at the given index.
+     * @return the index of the first parameter after these, for binding more
+     */
+    public int bind(PreparedStatement statement, int firstIndex) throws SQLException {
+        int index = firstIndex;
+        for (LocalDateTime parameter : parameters) {
+            statement.setObject(index++, parameter);
+        }
+        return index;
+    }
+}
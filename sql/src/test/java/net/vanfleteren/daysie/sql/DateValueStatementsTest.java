@@ -0,0 +1,178 @@
+package net.vanfleteren.daysie.sql;
+
+import net.vanfleteren.daysie.core.DateValue;
+import net.vanfleteren.daysie.core.DateValueParser;
+import net.vanfleteren.daysie.core.LanguageKeywords;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DateValueStatementsTest {
+
+    private static final Clock FIXED_CLOCK = Clock.fixed(Instant.parse("2026-02-14T10:00:00Z"), ZoneId.of("UTC"));
+    private static final LocalDateTime JAN_1 = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final LocalDateTime FEB_1 = LocalDateTime.of(2026, 2, 1, 0, 0);
+
+    private final DateValueParser parser = new DateValueParser(LanguageKeywords.ENGLISH, FIXED_CLOCK);
+
+    @Nested
+    class SqlRangePredicateTests {
+
+        @ParameterizedTest(name = "{0} -> {1}")
+        @CsvSource(delimiter = '|', value = {
+                "this month           | ts >= ? AND ts < ?",
+                "since 2026-01-01     | ts >= ?",
+                "before 2026-01-01    | ts < ?",
+                "now                  | ts = ?",
+        })
+        void of_whenGivenAnExpression_rendersTheMinimalShape(String expression, String expected) {
+            SqlRangePredicate predicate = SqlRangePredicate.of("ts", parser.parse(expression).orElseThrow());
+
+            assertThat(predicate.sql()).isEqualTo(expected);
+            assertThat(predicate.parameters()).hasSize(expected.length() - expected.replace("?", "").length());
+        }
+
+        @Test
+        void of_whenOneEndIsOpen_picksTheOperatorFromTheInclusiveFlag() {
+            assertThat(SqlRangePredicate.of("ts", new DateValue.AbsoluteRange(JAN_1, LocalDateTime.MAX, false, false)).sql()).isEqualTo("ts > ?");
+            assertThat(SqlRangePredicate.of("ts", new DateValue.AbsoluteRange(LocalDateTime.MIN, JAN_1, false, true)).sql()).isEqualTo("ts <= ?");
+            assertThat(SqlRangePredicate.of("ts", new DateValue.AbsoluteRange(JAN_1, FEB_1, false, true)).sql()).isEqualTo("ts > ? AND ts <= ?");
+        }
+
+        @Test
+        void of_whenBothEndsAreOpen_onlyExcludesNulls() {
+            DateValue always = new DateValue.AbsoluteRange(LocalDateTime.MIN, LocalDateTime.MAX, false, false);
+
+            assertThat(SqlRangePredicate.of("ts", always)).isEqualTo(new SqlRangePredicate("ts IS NOT NULL", List.of()));
+        }
+
+        @Test
+        void of_whenRangeIsEmpty_matchesNothing() {
+            DateValue empty = new DateValue.AbsoluteRange(JAN_1, JAN_1, true, false);
+
+            assertThat(SqlRangePredicate.of("ts", empty)).isEqualTo(new SqlRangePredicate("1 = 0", List.of()));
+        }
+
+        @Test
+        void of_whenBoundsAreEqualAndInclusive_rendersAnEquality() {
+            DateValue point = new DateValue.AbsoluteRange(JAN_1, JAN_1, true, true);
+
+            assertThat(SqlRangePredicate.of("ts", point)).isEqualTo(new SqlRangePredicate("ts = ?", List.of(JAN_1)));
+        }
+
+        @Test
+        void of_whenColumnIsBlank_throws() {
+            assertThatThrownBy(() -> SqlRangePredicate.of(" ", new DateValue.AbsoluteDate(JAN_1)))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    class DatabaseTests {
+
+        private Connection connection;
+        private DateValueStatements statements;
+
+        @BeforeEach
+        void setUp() throws SQLException {
+            connection = DriverManager.getConnection("jdbc:h2:mem:");
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE events (id INT PRIMARY KEY, ts TIMESTAMP)");
+                statement.execute("CREATE INDEX events_ts ON events (ts)");
+                statement.execute("""
+                        INSERT INTO events VALUES
+                            (1, TIMESTAMP '2025-12-31 23:59:59'),
+                            (2, TIMESTAMP '2026-01-01 00:00:00'),
+                            (3, TIMESTAMP '2026-01-15 12:00:00'),
+                            (4, TIMESTAMP '2026-02-01 00:00:00'),
+                            (5, TIMESTAMP '2026-02-14 10:00:00'),
+                            (6, NULL)
+                        """);
+            }
+            statements = new DateValueStatements(connection, "SELECT id FROM events WHERE {range} ORDER BY id", "ts");
+        }
+
+        @AfterEach
+        void tearDown() throws SQLException {
+            statements.close();
+            connection.close();
+        }
+
+        @Test
+        void prepare_whenBoundsAreInclusiveOrExclusive_selectsTheSameRowsAsThePredicate() throws SQLException {
+            assertThat(ids(new DateValue.AbsoluteRange(JAN_1, FEB_1, true, true))).containsExactly(2, 3, 4);
+            assertThat(ids(new DateValue.AbsoluteRange(JAN_1, FEB_1, true, false))).containsExactly(2, 3);
+            assertThat(ids(new DateValue.AbsoluteRange(JAN_1, FEB_1, false, false))).containsExactly(3);
+            assertThat(ids(new DateValue.AbsoluteRange(JAN_1, FEB_1, false, true))).containsExactly(3, 4);
+        }
+
+        @Test
+        void prepare_whenRangeIsOpenEnded_selectsEverythingOnThatSide() throws SQLException {
+            assertThat(ids(parser.parse("before 2026-01-01").orElseThrow())).containsExactly(1);
+            assertThat(ids(parser.parse("since 2026-02-01").orElseThrow())).containsExactly(4, 5);
+            assertThat(ids(new DateValue.AbsoluteRange(LocalDateTime.MIN, LocalDateTime.MAX, false, false))).containsExactly(1, 2, 3, 4, 5);
+            assertThat(ids(parser.parse("now").orElseThrow())).containsExactly(5);
+        }
+
+        @Test
+        void prepare_whenShapeWasUsedBefore_reusesTheStatementWithNewValues() throws SQLException {
+            PreparedStatement january = statements.prepare(parser.parse("2026-01").orElseThrow());
+            assertThat(ids(january)).containsExactly(2, 3);
+
+            PreparedStatement february = statements.prepare(parser.parse("2026-02").orElseThrow());
+            assertThat(ids(february)).containsExactly(4, 5);
+
+            statements.prepare(parser.parse("since 2026-01-01").orElseThrow());
+            assertThat(february).isSameAs(january);
+            assertThat(statements.preparedCount()).isEqualTo(2);
+        }
+
+        @Test
+        void prepare_whenQueryHasSeveralPlaceholders_bindsEachOfThem() throws SQLException {
+            try (DateValueStatements union = new DateValueStatements(connection,
+                    "SELECT id FROM events WHERE {range} UNION ALL SELECT -id FROM events WHERE {range} ORDER BY id", "ts")) {
+                assertThat(ids(union.prepare(parser.parse("2026-01").orElseThrow()))).containsExactly(-3, -2, 2, 3);
+                assertThat(ids(union.prepare(parser.parse("since 2026-02-01").orElseThrow()))).containsExactly(-5, -4, 4, 5);
+            }
+        }
+
+        @Test
+        void constructor_whenQueryHasNoPlaceholder_throws() {
+            assertThatThrownBy(() -> new DateValueStatements(connection, "SELECT id FROM events", "ts"))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        private List<Integer> ids(DateValue value) throws SQLException {
+            return ids(statements.prepare(value));
+        }
+
+        private static List<Integer> ids(PreparedStatement statement) throws SQLException {
+            List<Integer> ids = new ArrayList<>();
+            try (ResultSet results = statement.executeQuery()) {
+                while (results.next()) {
+                    ids.add(results.getInt(1));
+                }
+            }
+            return ids;
+        }
+    }
+}